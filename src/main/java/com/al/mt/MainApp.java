@@ -1,9 +1,12 @@
 package com.al.mt;
 
+import static com.al.mt.filters.JsonStreamingFilter.stream;
 import static com.al.mt.utils.Constants.PORT;
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
 import static spark.Spark.afterAfter;
 import static spark.Spark.awaitInitialization;
 import static spark.Spark.before;
+import static spark.Spark.exception;
 import static spark.Spark.get;
 import static spark.Spark.internalServerError;
 import static spark.Spark.notFound;
@@ -11,23 +14,48 @@ import static spark.Spark.path;
 import static spark.Spark.port;
 import static spark.Spark.post;
 
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountLocks;
+import com.al.mt.aggregates.AccountProjection;
 import com.al.mt.aggregates.EventManager;
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.aggregates.SnapshotPolicy;
+import com.al.mt.aggregates.StartupRecovery;
+import com.al.mt.aggregates.TransactionIndex;
 import com.al.mt.controllers.AccountController;
+import com.al.mt.controllers.MetricsController;
+import com.al.mt.controllers.TransactionController;
 import com.al.mt.enums.Status;
+import com.al.mt.events.ShardedEventBus;
+import com.al.mt.exceptions.ServiceOverloadedException;
 import com.al.mt.filters.CORSFilter;
 import com.al.mt.filters.JsonBodyFilter;
 import com.al.mt.filters.JsonContentTypeFilter;
+import com.al.mt.filters.JsonStreamingFilter;
 import com.al.mt.filters.LoggingFilter;
+import com.al.mt.journal.BinaryEventCodec;
+import com.al.mt.journal.EventJournal;
+import com.al.mt.journal.FileEventJournal;
+import com.al.mt.journal.MappedSegmentEventJournal;
 import com.al.mt.model.APIResponse;
-import com.al.mt.services.AccountService;
+import com.al.mt.requests.CreateAccountRequest;
+import com.al.mt.requests.TransferMoneyRequest;
 import com.al.mt.services.AccountServiceImpl;
-import com.al.mt.utils.JsonUtils;
+import com.al.mt.services.AdmissionControlledAccountService;
+import com.al.mt.utils.Configuration;
+import com.al.mt.utils.VirtualThreadPool;
+import com.al.mt.utils.VirtualThreads;
 import com.google.common.eventbus.EventBus;
 
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+
 /**
  * Runs HTTP server on port 8000;
  *
@@ -38,38 +66,78 @@ import com.google.common.eventbus.EventBus;
 public class MainApp {
 	private final static Logger LOG = LoggerFactory.getLogger(MainApp.class);
 
-	private static final EventBus EVENT_BUS = new EventBus();
-	public static final AccountEventStorage ACCOUNT_EVENT_STORAGE = new AccountEventStorage();
-	private static final EventManager EVENT_MANAGER = new EventManager(EVENT_BUS, ACCOUNT_EVENT_STORAGE);
+	private static final EventBus EVENT_BUS = eventBus();
+	private static final EventJournal EVENT_JOURNAL = eventJournal();
+	public static final AccountEventStorage ACCOUNT_EVENT_STORAGE = new AccountEventStorage(snapshotPolicy(),
+			EVENT_JOURNAL);
+	public static final AccountProjection ACCOUNT_PROJECTION = new AccountProjection(ACCOUNT_EVENT_STORAGE);
+	private static final AccountLocks ACCOUNT_LOCKS = new AccountLocks(Configuration.accountLockStripes());
+	private static final PendingTransfers PENDING_TRANSFERS = new PendingTransfers();
+	private static final TransactionIndex TRANSACTION_INDEX = new TransactionIndex();
+	private static final EventManager EVENT_MANAGER = new EventManager(EVENT_BUS, ACCOUNT_EVENT_STORAGE,
+			ACCOUNT_PROJECTION, ACCOUNT_LOCKS, PENDING_TRANSFERS, TRANSACTION_INDEX);
 
-	private static final AccountService ACCOUNT_SERVICE = new AccountServiceImpl(EVENT_BUS);
+	private static final AdmissionControlledAccountService ACCOUNT_SERVICE = new AdmissionControlledAccountService(
+			new AccountServiceImpl(EVENT_BUS), PENDING_TRANSFERS, Configuration.admissionCapacity(),
+			Configuration.admissionTimeoutMillis(), TimeUnit.MILLISECONDS, Configuration.admissionRetryAfterSeconds());
 	private static final AccountController ACCOUNT_CONTROLLER = new AccountController(ACCOUNT_SERVICE,
-			ACCOUNT_EVENT_STORAGE);
+			ACCOUNT_EVENT_STORAGE, ACCOUNT_PROJECTION, PENDING_TRANSFERS, TRANSACTION_INDEX);
+	private static final TransactionController TRANSACTION_CONTROLLER = new TransactionController(TRANSACTION_INDEX);
+	private static final MetricsController METRICS_CONTROLLER = new MetricsController(EVENT_BUS, ACCOUNT_LOCKS,
+			ACCOUNT_SERVICE);
 
 	public static void main(final String... args) {
+		// Recovery completes before any route is mapped, so the server doesn't accept
+		// requests until then
+		new StartupRecovery(ACCOUNT_EVENT_STORAGE, ACCOUNT_PROJECTION, TRANSACTION_INDEX,
+				Configuration.recoveryParallelism()).run();
+		Runtime.getRuntime().addShutdownHook(new Thread(EVENT_JOURNAL::close, "journal-close"));
+
+		if (Configuration.virtualThreads()) {
+			useVirtualThreads();
+		}
 		port(PORT);
 
 		EVENT_BUS.register(EVENT_MANAGER);
 
 		// Before filters
 		before(new LoggingFilter());
-		before("/api/*", new JsonBodyFilter());
+		before("/api/account", new JsonBodyFilter<>(CreateAccountRequest.class, "Body must be a JSON object"));
+		before("/api/account/transferMoney",
+				new JsonBodyFilter<>(TransferMoneyRequest.class, "Body must be a JSON object"));
+		before("/api/account/transferMoney/batch",
+				new JsonBodyFilter<>(TransferMoneyRequest[].class, "Body must be an array of transfers"));
 
 		// Controllers
 		path("", () -> {
-			path("/api", () -> path("/account", () -> {
-				get("", ACCOUNT_CONTROLLER.listAccounts(), JsonUtils::toJson);
-				post("", ACCOUNT_CONTROLLER.createAccount(), JsonUtils::toJson);
-				get("/:id", ACCOUNT_CONTROLLER.getAccount(), JsonUtils::toJson);
-				post("/transferMoney", ACCOUNT_CONTROLLER.transferMoney(), JsonUtils::toJson);
-			}));
+			path("/api", () -> {
+				path("/account", () -> {
+					get("", stream(ACCOUNT_CONTROLLER.listAccounts()));
+					post("", stream(ACCOUNT_CONTROLLER.createAccount()));
+					get("/:id", stream(ACCOUNT_CONTROLLER.getAccount()));
+					get("/:id/transactions", stream(ACCOUNT_CONTROLLER.listTransactions()));
+					post("/transferMoney", stream(ACCOUNT_CONTROLLER.transferMoney()));
+					post("/transferMoney/batch", stream(ACCOUNT_CONTROLLER.transferMoneyBatch()));
+				});
+				get("/transaction/:id", stream(TRANSACTION_CONTROLLER.getTransaction()));
+				get("/metrics", stream(METRICS_CONTROLLER.metrics()));
+			});
 		});
 
 		// After filters
 		afterAfter(new JsonContentTypeFilter());
 		afterAfter(new CORSFilter());
+		// Must be the last one, it writes the response
+		afterAfter(new JsonStreamingFilter());
 
 		// Other handlers
+		exception(ServiceOverloadedException.class, (exception, request, response) -> {
+			// Sheds load right away, clients retry once commands in flight are done
+			response.status(HTTP_UNAVAILABLE);
+			response.header("Retry-After", String.valueOf(exception.getRetryAfterSeconds()));
+			response.body(APIResponse.builder().setStatus(Status.ERROR)
+					.setMessage("Service is overloaded, retry later").build().toJson());
+		});
 		notFound((request, response) -> APIResponse.builder().setStatus(Status.ERROR)
 				.setMessage("Requested resource doesn't exist").build().toJson());
 		internalServerError((request, response) -> APIResponse.builder().setStatus(Status.ERROR)
@@ -79,6 +147,55 @@ public class MainApp {
 		logMessage();
 	}
 
+	private static EventBus eventBus() {
+		final int shards = Configuration.eventBusShards();
+		if (shards == 0) {
+			return new EventBus();
+		}
+		return Configuration.virtualThreads() ? new ShardedEventBus(shards, VirtualThreads.factory("event-"))
+				: new ShardedEventBus(shards);
+	}
+
+	/**
+	 * Serves every request in a new virtual thread instead of Jetty's bounded
+	 * pool of platform threads, events are then handled in virtual threads as
+	 * well.
+	 */
+	private static void useVirtualThreads() {
+		EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY,
+				new EmbeddedJettyFactory().withThreadPool(new VirtualThreadPool(VirtualThreads.factory("http-"))));
+	}
+
+	private static EventJournal eventJournal() {
+		final String path = Configuration.journalPath();
+		if (path == null) {
+			return EventJournal.none();
+		}
+		switch (Configuration.journalType()) {
+		case "file":
+			return FileEventJournal.open(Paths.get(path), new BinaryEventCodec(), Configuration.journalSyncMillis(),
+					TimeUnit.MILLISECONDS, Configuration.journalSyncBatch());
+		case "mapped":
+			return MappedSegmentEventJournal.open(Paths.get(path), new BinaryEventCodec(),
+					Configuration.journalSegmentMegabytes() << 20, Configuration.journalSyncMillis(),
+					TimeUnit.MILLISECONDS, Configuration.journalSyncBatch());
+		default:
+			throw new IllegalArgumentException(
+					String.format("Unknown journal type %s", Configuration.journalType()));
+		}
+	}
+
+	private static SnapshotPolicy snapshotPolicy() {
+		SnapshotPolicy policy = SnapshotPolicy.never();
+		if (Configuration.snapshotEvents() > 0) {
+			policy = policy.or(SnapshotPolicy.everyEvents(Configuration.snapshotEvents()));
+		}
+		if (Configuration.snapshotReplayMillis() > 0) {
+			policy = policy.or(SnapshotPolicy.replayTimeAbove(Configuration.snapshotReplayMillis(), TimeUnit.MILLISECONDS));
+		}
+		return policy;
+	}
+
 	private static void logMessage() {
 		LOG.info("***************************************");
 		LOG.info("*** Server is running on port: {} ***", PORT);
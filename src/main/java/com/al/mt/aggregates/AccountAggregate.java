@@ -1,10 +1,5 @@
 package com.al.mt.aggregates;
 
-import static io.vavr.API.Case;
-import static io.vavr.API.Match.Pattern0.of;
-
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
@@ -17,14 +12,14 @@ import com.al.mt.events.AccountCreatedEvent;
 import com.al.mt.events.AccountCreditedEvent;
 import com.al.mt.events.AccountDebitedEvent;
 import com.al.mt.events.DomainEvent;
+import com.al.mt.events.EventVisitor;
 import com.al.mt.events.MoneyTransferCancelled;
 import com.al.mt.events.MoneyTransferSucceeded;
 import com.al.mt.events.MoneyTransferredEvent;
 import com.al.mt.exceptions.InsufficientBalanceException;
+import com.al.mt.model.Money;
 import com.al.mt.model.MoneyTransaction;
 
-import io.vavr.API;
-
 /**
  * AccountAggregate is constructed based on events that are stored in
  * {@link AccountEventStorage}. Each stored event mutates the state which
@@ -48,13 +43,17 @@ public class AccountAggregate {
 		return INITIAL_BALANCE;
 	}
 
-	private final Collection<DomainEvent> domainEvents;
+	private static final Applier APPLIER = new Applier();
+
+	private Collection<DomainEvent> domainEvents;
 
 	private UUID id;
 	private String fullName;
 
-	private BigDecimal balance;
-	private Map<UUID, BigDecimal> transactionToReservedBalance;
+	// Minor units of Money.DEFAULT_SCALE, kept as a long so that debits and
+	// credits don't allocate
+	private long balance;
+	private Map<UUID, Money> transactionToReservedBalance;
 	private Map<UUID, MoneyTransaction> transactions;
 	private Date createdAt;
 	private Date lastUpdatedAt;
@@ -63,16 +62,28 @@ public class AccountAggregate {
 		this.domainEvents = domainEvents;
 	}
 
+	/**
+	 * Restores aggregate from {@code snapshot}, events newer than the snapshot
+	 * still have to be applied.
+	 */
+	AccountAggregate(final AccountSnapshot snapshot, final Collection<DomainEvent> domainEvents) {
+		this.domainEvents = domainEvents;
+		this.id = snapshot.getId();
+		this.fullName = snapshot.getFullName();
+		this.balance = minorUnits(snapshot.getBalance());
+		this.transactionToReservedBalance = new TreeMap<>(snapshot.getTransactionToReservedBalance());
+		this.transactions = new TreeMap<>();
+		snapshot.getTransactions().forEach((transactionID, transaction) -> this.transactions.put(transactionID,
+				transaction.copy()));
+		this.createdAt = snapshot.getCreatedAt();
+		this.lastUpdatedAt = snapshot.getLastUpdatedAt();
+	}
+
 	/** 
 	 * Applies stored event by re-routing it to proper handler. 
 	 */
 	AccountAggregate apply(final DomainEvent event) {
-		return API.Match(event).of(Case(of(AccountCreatedEvent.class), this::apply),
-				Case(of(MoneyTransferredEvent.class), this::apply),
-				Case(of(AccountDebitedEvent.class), this::apply),
-				Case(of(AccountCreditedEvent.class), this::apply), 
-				Case(of(MoneyTransferCancelled.class), this::apply),
-				Case(of(MoneyTransferSucceeded.class), this::apply));
+		return event.accept(APPLIER, this);
 	}
 
 	/**
@@ -84,7 +95,7 @@ public class AccountAggregate {
 	AccountAggregate apply(final AccountCreatedEvent event) {
 		this.id = event.getAggregateID();
 		this.transactionToReservedBalance = new TreeMap<>(); 
-		this.balance = BigDecimal.valueOf(INITIAL_BALANCE).setScale(2, RoundingMode.HALF_EVEN);
+		this.balance = Money.valueOf((long) INITIAL_BALANCE).getMinorUnits();
 		this.fullName = event.getFullName();
 		this.transactions = new TreeMap<>(); 
 		this.createdAt = event.getCreatedAt();
@@ -103,7 +114,7 @@ public class AccountAggregate {
 	 * to {@link MoneyTransaction.Type#INCOMING} with raw value.
 	 */
 	AccountAggregate apply(final MoneyTransferredEvent event) {
-		final BigDecimal value;
+		final Money value;
 		final Type type;
 		this.lastUpdatedAt = event.getCreatedAt();
 		if (event.getAggregateID().equals(event.getFromID())) {
@@ -135,10 +146,11 @@ public class AccountAggregate {
 	 *                                sufficient.
 	 */
 	AccountAggregate apply(final AccountDebitedEvent event) {
-		if (this.balance.subtract(event.getValue()).compareTo(BigDecimal.ZERO) >= 0) {
+		final long balance = Math.subtractExact(this.balance, minorUnits(event.getValue()));
+		if (balance >= 0) {
 			this.lastUpdatedAt = event.getCreatedAt();
 			// Reserves balance for receiver
-			this.balance = balance.subtract(event.getValue());
+			this.balance = balance;
 			this.transactionToReservedBalance.put(event.getTransactionID(), event.getValue().negate());
 			if (this.transactions.containsKey(event.getTransactionID())) {
 				changeTransactionState(event.getTransactionID(), State.PENDING, event.getCreatedAt());
@@ -178,7 +190,8 @@ public class AccountAggregate {
 		if (this.transactionToReservedBalance.containsKey(event.getTransactionID())) {
 			// Increments receiver's account
 			if (event.getToID().equals(event.getAggregateID())) {
-				this.balance = this.balance.add(this.transactionToReservedBalance.remove(event.getTransactionID()));
+				this.balance = Math.addExact(this.balance,
+						minorUnits(this.transactionToReservedBalance.remove(event.getTransactionID())));
 			}
 		}
 		return this;
@@ -193,7 +206,8 @@ public class AccountAggregate {
 			// Canceling money transfer for receiver
 			this.transactionToReservedBalance.remove(event.getTransactionID());
 		} else if (this.transactionToReservedBalance.containsKey(event.getTransactionID())) {
-			this.balance = this.balance.add(this.transactionToReservedBalance.get(event.getTransactionID()).negate());
+			this.balance = Math.subtractExact(this.balance,
+					minorUnits(this.transactionToReservedBalance.get(event.getTransactionID())));
 			this.transactionToReservedBalance.remove(event.getTransactionID());
 		}
 
@@ -205,6 +219,22 @@ public class AccountAggregate {
 		return this.domainEvents;
 	}
 
+	/**
+	 * Replaces events the aggregate was built from, used when the aggregate is
+	 * kept up to date by applying newly stored events.
+	 */
+	void setDomainEvents(final Collection<DomainEvent> domainEvents) {
+		this.domainEvents = domainEvents;
+	}
+
+	/**
+	 * @return Number of events the aggregate was built from, to be passed to
+	 *         {@link AccountEventStorage#save(DomainEvent, int)}.
+	 */
+	public final int getVersion() {
+		return this.domainEvents.size();
+	}
+
 	public final UUID getId() {
 		return this.id;
 	}
@@ -213,11 +243,11 @@ public class AccountAggregate {
 		return this.fullName;
 	}
 
-	public final BigDecimal getBalance() {
-		return this.balance;
+	public final Money getBalance() {
+		return Money.ofMinor(this.balance);
 	}
 
-	public final Map<UUID, BigDecimal> getTransactionToReservedBalance() {
+	public final Map<UUID, Money> getTransactionToReservedBalance() {
 		return this.transactionToReservedBalance;
 	}
 
@@ -233,6 +263,18 @@ public class AccountAggregate {
 		return this.lastUpdatedAt;
 	}
 
+	/**
+	 * @throws IllegalArgumentException when {@code amount} isn't in
+	 *                                  {@link Money#DEFAULT_SCALE}.
+	 */
+	private static long minorUnits(final Money amount) {
+		if (amount.getScale() != Money.DEFAULT_SCALE) {
+			throw new IllegalArgumentException(String.format("Amount %s must have scale %d", amount,
+					Money.DEFAULT_SCALE));
+		}
+		return amount.getMinorUnits();
+	}
+
 	private void changeTransactionState(final UUID transactionID, final State state, final Date lastUpdatedAt) {
 		final MoneyTransaction transaction = transactions.get(transactionID);
 		transaction.setState(state);
@@ -243,7 +285,7 @@ public class AccountAggregate {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((this.balance == null) ? 0 : this.balance.hashCode());
+		result = prime * result + Long.hashCode(this.balance);
 		result = prime * result + ((this.createdAt == null) ? 0 : this.createdAt.hashCode());
 		result = prime * result + ((this.domainEvents == null) ? 0 : this.domainEvents.hashCode());
 		result = prime * result + ((this.fullName == null) ? 0 : this.fullName.hashCode());
@@ -264,10 +306,7 @@ public class AccountAggregate {
 		if (getClass() != obj.getClass())
 			return false;
 		final AccountAggregate other = (AccountAggregate) obj;
-		if (this.balance == null) {
-			if (other.balance != null)
-				return false;
-		} else if (!this.balance.equals(other.balance))
+		if (this.balance != other.balance)
 			return false;
 		if (this.createdAt == null) {
 			if (other.createdAt != null)
@@ -310,10 +349,45 @@ public class AccountAggregate {
 	@Override
 	public String toString() {
 		return new StringBuilder("AccountAggregate [id=").append(this.id).append(", fullName=").append(this.fullName)
-				.append(", balance=").append(this.balance).append(", transactionToReservedBalance=")
+				.append(", balance=").append(getBalance()).append(", transactionToReservedBalance=")
 				.append(this.transactionToReservedBalance).append(", domainEvents=").append(this.domainEvents)
 				.append(", transactions=").append(this.transactions).append(", createdAt=").append(this.createdAt)
 				.append(", lastUpdatedAt=").append(this.lastUpdatedAt).append("]").toString();
 	}
 
+	/**
+	 * Routes events to their handlers by double dispatch, it's stateless so a
+	 * single instance serves all aggregates.
+	 */
+	private static final class Applier implements EventVisitor<AccountAggregate, AccountAggregate> {
+		@Override
+		public AccountAggregate visit(final AccountCreatedEvent event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+
+		@Override
+		public AccountAggregate visit(final MoneyTransferredEvent event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+
+		@Override
+		public AccountAggregate visit(final AccountDebitedEvent event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+
+		@Override
+		public AccountAggregate visit(final AccountCreditedEvent event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+
+		@Override
+		public AccountAggregate visit(final MoneyTransferSucceeded event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+
+		@Override
+		public AccountAggregate visit(final MoneyTransferCancelled event, final AccountAggregate aggregate) {
+			return aggregate.apply(event);
+		}
+	}
 }
@@ -1,45 +1,277 @@
 package com.al.mt.aggregates;
 
-import static io.vavr.collection.List.ofAll;
-
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.al.mt.events.DomainEvent;
+import com.al.mt.exceptions.VersionConflictException;
+import com.al.mt.journal.EventJournal;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * In-memory storage for events that make {@link AccountAggregate}.
+ *
+ * <p>
+ * Events of each aggregate are kept in an append-only {@link EventLog}, so
+ * saving an event costs the same no matter how long the history of the
+ * aggregate is.
+ *
+ * <p>
+ * Aggregates are replayed from their latest {@link AccountSnapshot}, only
+ * events newer than the snapshot are applied. {@link SnapshotPolicy} decides
+ * when a replayed aggregate is worth a new snapshot.
+ *
+ * <p>
+ * Saved events are written through to {@link EventJournal} and become
+ * visible to readers only after the journal made them durable, so nothing read
+ * from the storage can be lost by a crash or a failed sync.
+ * {@link #recover()} loads journaled events back into memory on startup.
+ *
+ * <p>
+ * {@link #save(DomainEvent, int)} implements optimistic concurrency: an event
+ * is saved only if its aggregate still has the version the event was based on.
+ *
+ * <p>
+ * {@link #saveAll(List, Map)} saves events of several aggregates as one unit:
+ * they are written to the journal together and none of them is visible before
+ * all of them are durable. The logs are then published one aggregate after
+ * another, so readers see all events of an aggregate at once, but may see
+ * those of one aggregate before those of another, e.g. the issuer of a
+ * transfer debited before its receiver is credited.
  */
 public class AccountEventStorage {
-	private final Map<UUID, List<DomainEvent>> events = new ConcurrentHashMap<>();
+	private final Map<UUID, EventLog> events = new ConcurrentHashMap<>();
+	private final Map<UUID, AccountSnapshot> snapshots = new ConcurrentHashMap<>();
+	private final SnapshotPolicy snapshotPolicy;
+	private final EventJournal journal;
 
-	public static AccountAggregate recreate(final Collection<DomainEvent> events) {
-		return ofAll(events).foldLeft(new AccountAggregate(events), (AccountAggregate::apply));
+	public AccountEventStorage() {
+		this(SnapshotPolicy.never());
+	}
+
+	public AccountEventStorage(final SnapshotPolicy snapshotPolicy) {
+		this(snapshotPolicy, EventJournal.none());
+	}
+
+	public AccountEventStorage(final SnapshotPolicy snapshotPolicy, final EventJournal journal) {
+		this.snapshotPolicy = snapshotPolicy;
+		this.journal = journal;
 	}
 
-	public ImmutableList<AccountAggregate> findAll() {
-		return this.events.values().stream().map(AccountEventStorage::recreate)
-				.collect(ImmutableList.toImmutableList());
+	public static AccountAggregate recreate(final Collection<DomainEvent> events) {
+		final AccountAggregate aggregate = new AccountAggregate(events);
+		for (final DomainEvent event : events) {
+			aggregate.apply(event);
+		}
+		return aggregate;
 	}
 
 	public AccountAggregate get(final UUID id) {
-		if (this.events.containsKey(id)) {
-			return recreate(this.events.get(id));
+		final EventLog log = find(id);
+		if (log != null) {
+			return replay(id, log);
 		}
 		return null;
 	}
 
 	public boolean exists(final UUID id) {
-		return this.events.containsKey(id);
+		return find(id) != null;
+	}
+
+	/**
+	 * @return Immutable view of events stored for given aggregate so far or
+	 *         {@code null} when the aggregate doesn't exist.
+	 */
+	public List<DomainEvent> getEvents(final UUID id) {
+		final EventLog log = find(id);
+		return log == null ? null : log.view();
+	}
+
+	public ImmutableSet<UUID> getAggregateIDs() {
+		return this.events.entrySet().stream().filter(idToLog -> idToLog.getValue().size() > 0)
+				.map(Map.Entry::getKey).collect(ImmutableSet.toImmutableSet());
 	}
 
 	public void save(final DomainEvent domainEvent) {
-		this.events.compute(domainEvent.getAggregateID(),
-				(id, ev) -> (ev == null) ? ImmutableList.of(domainEvent)
-						: new ImmutableList.Builder<DomainEvent>().addAll(ev).add(domainEvent).build());
+		final EventLog log = logOf(domainEvent.getAggregateID());
+		append(log, log.claim(), domainEvent);
+	}
+
+	/**
+	 * Saves event only if its aggregate still has {@code expectedVersion} events,
+	 * i.e. nothing was saved since the decision to emit the event was made.
+	 *
+	 * @throws VersionConflictException when the aggregate has changed, the caller
+	 *                                  should reload the aggregate and retry.
+	 */
+	public void save(final DomainEvent domainEvent, final int expectedVersion) {
+		final EventLog log = logOf(domainEvent.getAggregateID());
+		if (!log.tryClaim(expectedVersion)) {
+			throw new VersionConflictException(String.format("Aggregate %s has moved past version %d, size: %d",
+					domainEvent.getAggregateID(), expectedVersion, log.size()));
+		}
+		append(log, expectedVersion, domainEvent);
+	}
+
+	public void saveAll(final List<DomainEvent> domainEvents) {
+		saveAll(domainEvents, Collections.emptyMap());
+	}
+
+	/**
+	 * Saves events as one unit with a single journal write and a single wait for
+	 * durability. Either all events are saved or none, though they become visible
+	 * one aggregate at a time.
+	 *
+	 * @param expectedVersions Versions aggregates must still have, aggregates
+	 *                         missing in the map are not checked.
+	 * @throws VersionConflictException when any of the checked aggregates has
+	 *                                  changed, nothing is saved then.
+	 */
+	public void saveAll(final List<DomainEvent> domainEvents, final Map<UUID, Integer> expectedVersions) {
+		// Logs are claimed in the order of aggregate IDs, so batches sharing
+		// aggregates never wait for each other's claims in a cycle
+		final SortedMap<UUID, List<DomainEvent>> idToEvents = new TreeMap<>();
+		for (final DomainEvent domainEvent : domainEvents) {
+			idToEvents.computeIfAbsent(domainEvent.getAggregateID(), id -> new ArrayList<>()).add(domainEvent);
+		}
+
+		final EventLog[] logs = new EventLog[idToEvents.size()];
+		final int[] indexes = new int[idToEvents.size()];
+		int claimed = 0;
+		final long position;
+		try {
+			for (final Map.Entry<UUID, List<DomainEvent>> idToLogEvents : idToEvents.entrySet()) {
+				final EventLog log = logOf(idToLogEvents.getKey());
+				final int count = idToLogEvents.getValue().size();
+				final Integer expectedVersion = expectedVersions.get(idToLogEvents.getKey());
+				if (expectedVersion == null) {
+					indexes[claimed] = log.claim(count);
+				} else if (log.tryClaim(expectedVersion, count)) {
+					indexes[claimed] = expectedVersion;
+				} else {
+					throw new VersionConflictException(String.format("Aggregate %s has moved past version %d, size: %d",
+							idToLogEvents.getKey(), expectedVersion, log.size()));
+				}
+				logs[claimed++] = log;
+			}
+			position = this.journal.appendAll(domainEvents);
+			this.journal.awaitDurable(position);
+		} catch (final RuntimeException e) {
+			for (int i = 0; i < claimed; i++) {
+				logs[i].release(indexes[i]);
+			}
+			throw e;
+		}
+
+		int i = 0;
+		for (final List<DomainEvent> logEvents : idToEvents.values()) {
+			logs[i].publish(indexes[i], logEvents);
+			i++;
+		}
+	}
+
+	/**
+	 * Writes event to the journal and, once it's durable, to the log into the
+	 * claimed slot. The claim keeps events of an aggregate in the same order in
+	 * the journal and the log.
+	 */
+	private void append(final EventLog log, final int index, final DomainEvent domainEvent) {
+		try {
+			// Concurrent saves of other aggregates share the sync
+			this.journal.awaitDurable(this.journal.append(domainEvent));
+		} catch (final RuntimeException e) {
+			log.release(index);
+			throw e;
+		}
+		log.publish(index, domainEvent);
+	}
+
+	/**
+	 * Loads events stored in the journal, it has to be called before any event is
+	 * saved. {@link StartupRecovery} does the same in parallel.
+	 *
+	 * @return Number of recovered events.
+	 */
+	public int recover() {
+		int recovered = 0;
+		for (final Map.Entry<UUID, List<DomainEvent>> idToEvents : readJournal().entrySet()) {
+			restore(idToEvents.getKey(), idToEvents.getValue());
+			recovered += idToEvents.getValue().size();
+		}
+		return recovered;
+	}
+
+	/**
+	 * @return Events stored in the journal grouped by aggregate, events of each
+	 *         aggregate are in the order they were saved.
+	 */
+	Map<UUID, List<DomainEvent>> readJournal() {
+		final Map<UUID, List<DomainEvent>> idToEvents = new LinkedHashMap<>();
+		this.journal.replay(domainEvent -> idToEvents
+				.computeIfAbsent(domainEvent.getAggregateID(), id -> new ArrayList<>()).add(domainEvent));
+		return idToEvents;
+	}
+
+	/**
+	 * Puts recovered events of an aggregate back to memory without journaling
+	 * them again. Different aggregates may be restored concurrently.
+	 */
+	void restore(final UUID id, final List<DomainEvent> domainEvents) {
+		final EventLog log = logOf(id);
+		domainEvents.forEach(log::append);
+	}
+
+	private EventLog logOf(final UUID id) {
+		final EventLog log = this.events.get(id);
+		return log != null ? log : this.events.computeIfAbsent(id, aggregateID -> new EventLog());
+	}
+
+	/**
+	 * @return Log of given aggregate or {@code null} when there's no event stored
+	 *         for it yet.
+	 */
+	private EventLog find(final UUID id) {
+		final EventLog log = this.events.get(id);
+		return (log == null || log.size() == 0) ? null : log;
+	}
+
+	/**
+	 * Recreates aggregate from its latest snapshot and events stored after it.
+	 * Takes a new snapshot when {@link #snapshotPolicy} asks for it.
+	 */
+	private AccountAggregate replay(final UUID id, final EventLog log) {
+		final long start = System.nanoTime();
+		final List<DomainEvent> domainEvents = log.view();
+		final AccountSnapshot snapshot = this.snapshots.get(id);
+
+		final AccountAggregate aggregate;
+		final int from;
+		if (snapshot == null) {
+			aggregate = new AccountAggregate(domainEvents);
+			from = 0;
+		} else {
+			aggregate = new AccountAggregate(snapshot, domainEvents);
+			from = snapshot.getVersion();
+		}
+		for (int i = from; i < domainEvents.size(); i++) {
+			aggregate.apply(domainEvents.get(i));
+		}
+
+		if (this.snapshotPolicy.shouldSnapshot(domainEvents.size() - from, System.nanoTime() - start)) {
+			final AccountSnapshot newSnapshot = AccountSnapshot.of(aggregate, domainEvents.size());
+			// Concurrent replays may race, only the newest snapshot is kept
+			this.snapshots.merge(id, newSnapshot,
+					(current, candidate) -> current.getVersion() >= candidate.getVersion() ? current : candidate);
+		}
+		return aggregate;
 	}
 }
@@ -0,0 +1,123 @@
+package com.al.mt.aggregates;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Locks accounts taking part in a money transfer.
+ *
+ * <p>
+ * Accounts are hashed to a fixed number of striped locks. Both stripes of a
+ * transfer are always acquired in the order of their index, so transfers
+ * between the same accounts in opposite directions can't deadlock, they are
+ * serialized instead.
+ *
+ * <p>
+ * Time spent waiting for a stripe held by another thread is recorded, hot
+ * accounts show up as a growing number of contended acquisitions and wait
+ * time.
+ */
+public class AccountLocks {
+	private final Striped<Lock> stripes;
+
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder contendedAcquisitions = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+	public AccountLocks(final int stripes) {
+		if (stripes < 1) {
+			throw new IllegalArgumentException(String.format("Number of stripes must be positive: %d", stripes));
+		}
+		this.stripes = Striped.lock(stripes);
+	}
+
+	/**
+	 * Blocks until stripes of both accounts are locked, they may share a stripe.
+	 *
+	 * @return Handle which unlocks the stripes when closed.
+	 */
+	public Locked lock(final UUID firstID, final UUID secondID) {
+		return lock(ImmutableList.of(firstID, secondID));
+	}
+
+	/**
+	 * Blocks until stripes of all accounts are locked, e.g. of an issuer and all
+	 * receivers of its transfers.
+	 *
+	 * @return Handle which unlocks the stripes when closed.
+	 */
+	public Locked lock(final Iterable<UUID> ids) {
+		// Stripes are returned ordered by their index, which gives the global lock order
+		final List<Lock> locks = ImmutableList.copyOf(this.stripes.bulkGet(ids));
+		for (final Lock lock : locks) {
+			if (!lock.tryLock()) {
+				final long start = System.nanoTime();
+				lock.lock();
+				final long waited = System.nanoTime() - start;
+				this.contendedAcquisitions.increment();
+				this.waitNanos.add(waited);
+				this.maxWaitNanos.accumulate(waited);
+			}
+		}
+		this.acquisitions.increment();
+		return new Locked(locks);
+	}
+
+	public int getStripes() {
+		return this.stripes.size();
+	}
+
+	/**
+	 * @return Number of times accounts were locked.
+	 */
+	public long getAcquisitions() {
+		return this.acquisitions.sum();
+	}
+
+	/**
+	 * @return Number of stripes which were held by another thread when locking.
+	 */
+	public long getContendedAcquisitions() {
+		return this.contendedAcquisitions.sum();
+	}
+
+	/**
+	 * @return Total time spent waiting for stripes held by other threads.
+	 */
+	public long getWaitTime(final TimeUnit unit) {
+		return unit.convert(this.waitNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return Longest time spent waiting for a single stripe.
+	 */
+	public long getMaxWaitTime(final TimeUnit unit) {
+		return unit.convert(this.maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Locked stripes, closing it unlocks them in reverse order.
+	 */
+	public static final class Locked implements AutoCloseable {
+		private final List<Lock> locks;
+
+		private Locked(final List<Lock> locks) {
+			this.locks = locks;
+		}
+
+		@Override
+		public void close() {
+			for (int i = this.locks.size() - 1; i >= 0; i--) {
+				this.locks.get(i).unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.al.mt.aggregates;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.al.mt.events.DomainEvent;
+import com.al.mt.model.Account;
+import com.google.common.collect.Iterators;
+
+/**
+ * Read model of accounts, it keeps one up to date {@link AccountAggregate} per
+ * account so reads don't have to replay events stored in
+ * {@link AccountEventStorage}.
+ *
+ * <p>
+ * {@link EventManager} refreshes the projection each time it persists an
+ * event. A refresh applies all events stored since the previous refresh in
+ * their stored order, so refreshes may be requested concurrently and in any
+ * order. Accounts are refreshed one at a time, so a reader may see a transfer
+ * applied to its issuer before it's applied to its receiver, as it may in
+ * {@link AccountEventStorage}.
+ *
+ * <p>
+ * Readers get an immutable {@link Account} built from an aggregate with all of
+ * its events fully applied. The view is built lazily after each change and is
+ * shared by all readers until the next change.
+ *
+ * <p>
+ * Accounts are kept ordered by their account number, which is the stable key
+ * {@link #iterate(UUID, Set)} continues from.
+ */
+public class AccountProjection {
+	private final AccountEventStorage eventStorage;
+	private final ConcurrentNavigableMap<UUID, Entry> accounts = new ConcurrentSkipListMap<>();
+
+	public AccountProjection(final AccountEventStorage eventStorage) {
+		this.eventStorage = eventStorage;
+	}
+
+	/**
+	 * Applies events of given aggregate that were stored since its last refresh.
+	 */
+	public void refresh(final UUID id) {
+		final List<DomainEvent> events = this.eventStorage.getEvents(id);
+		if (events != null) {
+			this.accounts.computeIfAbsent(id, aggregateID -> new Entry()).catchUp(events);
+		}
+	}
+
+	/**
+	 * Rebuilds projection of all aggregates from {@link AccountEventStorage}.
+	 */
+	public void rebuild() {
+		this.accounts.clear();
+		this.eventStorage.getAggregateIDs().forEach(this::refresh);
+	}
+
+	public boolean exists(final UUID id) {
+		return get(id) != null;
+	}
+
+	/**
+	 * @return Current state of the account or {@code null} if it doesn't exist.
+	 */
+	public Account get(final UUID id) {
+		final Entry entry = this.accounts.get(id);
+		return entry == null ? null : entry.view();
+	}
+
+	/**
+	 * Tells whether the account changed without building it. The version is never
+	 * ahead of an {@link Account} got by {@link #get(UUID)} afterwards.
+	 *
+	 * @return Number of events applied to the account, {@code 0} if it doesn't
+	 *         exist.
+	 */
+	public int version(final UUID id) {
+		final Entry entry = this.accounts.get(id);
+		return entry == null ? 0 : entry.version;
+	}
+
+	/**
+	 * Reads accounts, each one is built only once it's iterated to, so a page
+	 * builds only the accounts it reads.
+	 *
+	 * @param after  Account number to start after, {@code null} starts with the
+	 *               first account.
+	 * @param fields Fields of accounts to build, see
+	 *               {@link Account#from(AccountAggregate, Set)}.
+	 * @return Accounts ordered by their account number.
+	 */
+	public Iterator<Account> iterate(final UUID after, final Set<String> fields) {
+		final Iterator<Entry> entries = (after == null ? this.accounts : this.accounts.tailMap(after, false))
+				.values().iterator();
+		return Iterators.filter(Iterators.transform(entries,
+				entry -> fields.equals(Account.FIELDS) ? entry.view() : entry.view(fields)), Objects::nonNull);
+	}
+
+	private static final class Entry {
+		// Guarded by this
+		private AccountAggregate aggregate;
+		// Written by this, after the view it's ahead of is dropped
+		private volatile int version;
+
+		private volatile Account view;
+
+		synchronized void catchUp(final List<DomainEvent> events) {
+			if (events.size() <= this.version) {
+				return;
+			}
+			if (this.aggregate == null) {
+				this.aggregate = new AccountAggregate(events);
+			}
+			int applied = this.version;
+			try {
+				for (; applied < events.size(); applied++) {
+					this.aggregate.apply(events.get(applied));
+				}
+			} finally {
+				this.aggregate.setDomainEvents(applied == events.size() ? events : events.subList(0, applied));
+				this.view = null;
+				this.version = applied;
+			}
+		}
+
+		/**
+		 * @return Account with only {@code fields}, it's built on each call.
+		 */
+		synchronized Account view(final Set<String> fields) {
+			return this.aggregate == null ? null : Account.from(this.aggregate, fields);
+		}
+
+		Account view() {
+			Account account = this.view;
+			if (account == null) {
+				synchronized (this) {
+					account = this.view;
+					if (account == null && this.aggregate != null) {
+						account = Account.from(this.aggregate);
+						this.view = account;
+					}
+				}
+			}
+			return account;
+		}
+	}
+}
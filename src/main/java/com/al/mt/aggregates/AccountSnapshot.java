@@ -0,0 +1,81 @@
+package com.al.mt.aggregates;
+
+import java.util.Date;
+import java.util.UUID;
+
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable copy of the state of {@link AccountAggregate} after applying its
+ * first {@code version} events.
+ *
+ * <p>
+ * Replaying an aggregate from a snapshot gives the same state as replaying all
+ * of its events, but only events newer than the snapshot have to be applied.
+ */
+final class AccountSnapshot {
+	private final int version;
+	private final UUID id;
+	private final String fullName;
+	private final Money balance;
+	private final ImmutableMap<UUID, Money> transactionToReservedBalance;
+	private final ImmutableMap<UUID, MoneyTransaction> transactions;
+	private final Date createdAt;
+	private final Date lastUpdatedAt;
+
+	private AccountSnapshot(final int version, final AccountAggregate aggregate) {
+		this.version = version;
+		this.id = aggregate.getId();
+		this.fullName = aggregate.getFullName();
+		this.balance = aggregate.getBalance();
+		this.transactionToReservedBalance = ImmutableMap.copyOf(aggregate.getTransactionToReservedBalance());
+		final ImmutableMap.Builder<UUID, MoneyTransaction> transactions = ImmutableMap.builder();
+		aggregate.getTransactions().forEach((transactionID, transaction) -> transactions.put(transactionID,
+				transaction.copy()));
+		this.transactions = transactions.build();
+		this.createdAt = aggregate.getCreatedAt();
+		this.lastUpdatedAt = aggregate.getLastUpdatedAt();
+	}
+
+	/**
+	 * Takes a snapshot of {@code aggregate} which was built from first
+	 * {@code version} events.
+	 */
+	static AccountSnapshot of(final AccountAggregate aggregate, final int version) {
+		return new AccountSnapshot(version, aggregate);
+	}
+
+	int getVersion() {
+		return this.version;
+	}
+
+	UUID getId() {
+		return this.id;
+	}
+
+	String getFullName() {
+		return this.fullName;
+	}
+
+	Money getBalance() {
+		return this.balance;
+	}
+
+	ImmutableMap<UUID, Money> getTransactionToReservedBalance() {
+		return this.transactionToReservedBalance;
+	}
+
+	ImmutableMap<UUID, MoneyTransaction> getTransactions() {
+		return this.transactions;
+	}
+
+	Date getCreatedAt() {
+		return this.createdAt;
+	}
+
+	Date getLastUpdatedAt() {
+		return this.lastUpdatedAt;
+	}
+}
@@ -0,0 +1,243 @@
+package com.al.mt.aggregates;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.al.mt.events.DomainEvent;
+
+/**
+ * Append-only log of events that belong to a single {@link AccountAggregate}.
+ *
+ * <p>
+ * Events are kept in chunks that double in size, so appending an event never
+ * copies the events that are already stored and takes constant time regardless
+ * of the length of the history.
+ *
+ * <p>
+ * Stored events are never moved nor overwritten, therefore a {@link #view()}
+ * of the first {@code n} events stays valid and unchanged while new events are
+ * being appended.
+ *
+ * <p>
+ * Appends don't lock either: a writer claims the next slot with a CAS on the
+ * expected number of events, stores the event and publishes it by bumping
+ * {@link #size}. Only one claim is in progress at a time. A writer which finds
+ * another append in progress waits until it's published or released and then
+ * checks the version again, so a claim fails only when the log has really
+ * moved past the version the writer based its decision on. A claim may span
+ * several consecutive slots which are published together.
+ */
+final class EventLog {
+	private static final int FIRST_CHUNK_SHIFT = 3;
+	private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+	private static final int MAX_CHUNKS = Integer.SIZE - FIRST_CHUNK_SHIFT - 1;
+
+	private final DomainEvent[][] chunks = new DomainEvent[MAX_CHUNKS][];
+	// Number of published events plus claimed slots while an append is in progress
+	private final AtomicInteger reserved = new AtomicInteger();
+	private volatile int size;
+
+	// Writers waiting for an append in progress, signalled only when there are some
+	private final Lock lock = new ReentrantLock();
+	private final Condition appended = this.lock.newCondition();
+	private volatile int waiting;
+
+	/**
+	 * Index of the chunk which holds event at given {@code index}. Chunk
+	 * {@code k} holds {@code FIRST_CHUNK_SIZE << k} events.
+	 */
+	private static int chunkOf(final int index) {
+		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_SHIFT;
+	}
+
+	private static int offsetOf(final int index, final int chunk) {
+		return index + FIRST_CHUNK_SIZE - (FIRST_CHUNK_SIZE << chunk);
+	}
+
+	/**
+	 * Appends event, waiting for an append that is in progress to finish.
+	 */
+	void append(final DomainEvent event) {
+		publish(claim(), event);
+	}
+
+	/**
+	 * Claims the next slot, waiting for an append that is in progress to finish.
+	 *
+	 * @return Index of the claimed slot.
+	 */
+	int claim() {
+		return claim(1);
+	}
+
+	/**
+	 * Claims {@code count} consecutive slots, waiting for an append that is in
+	 * progress to finish.
+	 *
+	 * @return Index of the first claimed slot.
+	 */
+	int claim(final int count) {
+		while (true) {
+			final int version = this.size;
+			if (tryClaim(version, count)) {
+				return version;
+			}
+		}
+	}
+
+	/**
+	 * Claims the slot right after {@code expectedVersion} events. At most one
+	 * claim is in progress at a time, when there's another one this waits until
+	 * it's finished.
+	 *
+	 * @return {@code false} when the log has moved past {@code expectedVersion}.
+	 */
+	boolean tryClaim(final int expectedVersion) {
+		return tryClaim(expectedVersion, 1);
+	}
+
+	/**
+	 * Claims {@code count} consecutive slots right after {@code expectedVersion}
+	 * events, see {@link #tryClaim(int)}.
+	 */
+	boolean tryClaim(final int expectedVersion, final int count) {
+		if (expectedVersion > Integer.MAX_VALUE - FIRST_CHUNK_SIZE - count) {
+			throw new IllegalStateException("Event log is full");
+		}
+		while (!this.reserved.compareAndSet(expectedVersion, expectedVersion + count)) {
+			awaitAppend();
+			if (this.size != expectedVersion) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Waits until no append is in progress.
+	 */
+	private void awaitAppend() {
+		if (this.reserved.get() == this.size) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			this.waiting++;
+			// Publishing writer reads waiting after size, so either it signals or this sees its size
+			while (this.reserved.get() != this.size) {
+				this.appended.awaitUninterruptibly();
+			}
+		} finally {
+			this.waiting--;
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Wakes up writers waiting in {@link #awaitAppend()}.
+	 */
+	private void signalAppended() {
+		if (this.waiting == 0) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			this.appended.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Stores event into the slot claimed by {@link #tryClaim(int)} and publishes
+	 * it to readers.
+	 */
+	void publish(final int index, final DomainEvent event) {
+		store(index, event);
+		this.size = index + 1;
+		signalAppended();
+	}
+
+	/**
+	 * Stores events into the slots claimed by {@link #tryClaim(int, int)} and
+	 * publishes all of them to readers at once.
+	 */
+	void publish(final int index, final List<DomainEvent> events) {
+		for (int i = 0; i < events.size(); i++) {
+			store(index + i, events.get(i));
+		}
+		this.size = index + events.size();
+		signalAppended();
+	}
+
+	private void store(final int index, final DomainEvent event) {
+		final int chunk = chunkOf(index);
+		if (this.chunks[chunk] == null) {
+			this.chunks[chunk] = new DomainEvent[FIRST_CHUNK_SIZE << chunk];
+		}
+		this.chunks[chunk][offsetOf(index, chunk)] = event;
+	}
+
+	/**
+	 * Gives up the slots claimed by {@link #tryClaim(int)} without storing
+	 * anything.
+	 */
+	void release(final int index) {
+		this.reserved.set(index);
+		signalAppended();
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	DomainEvent get(final int index) {
+		final int chunk = chunkOf(index);
+		return this.chunks[chunk][offsetOf(index, chunk)];
+	}
+
+	/**
+	 * @return Immutable view of all events appended so far.
+	 */
+	List<DomainEvent> view() {
+		return new View(this, this.size);
+	}
+
+	/**
+	 * @return Immutable view of the first {@code version} events.
+	 */
+	List<DomainEvent> view(final int version) {
+		if (version < 0 || version > this.size) {
+			throw new IndexOutOfBoundsException(String.format("Version: %d, Size: %d", version, this.size));
+		}
+		return new View(this, version);
+	}
+
+	private static final class View extends AbstractList<DomainEvent> implements RandomAccess {
+		private final EventLog log;
+		private final int size;
+
+		private View(final EventLog log, final int size) {
+			this.log = log;
+			this.size = size;
+		}
+
+		@Override
+		public DomainEvent get(final int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, this.size));
+			}
+			return this.log.get(index);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+}
@@ -1,51 +1,99 @@
 package com.al.mt.aggregates;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
 import com.al.mt.events.AccountCreatedEvent;
 import com.al.mt.events.AccountCreditedEvent;
 import com.al.mt.events.AccountDebitedEvent;
 import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferBatch;
 import com.al.mt.events.MoneyTransferCancelled;
 import com.al.mt.events.MoneyTransferSucceeded;
 import com.al.mt.events.MoneyTransferredEvent;
 import com.al.mt.exceptions.AggregateDoesNotExistException;
 import com.al.mt.exceptions.InsufficientBalanceException;
+import com.al.mt.exceptions.VersionConflictException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 
 /**
  * Listener and dispatcher of events in whole system. It contains dependencies
  * between events.
+ *
+ * <p>
+ * Every persisted event is also applied to {@link TransactionIndex} and
+ * {@link AccountProjection}.
+ *
+ * <p>
+ * Handlers may run concurrently. Debiting the issuer and crediting the receiver
+ * of a transfer is a single critical section guarded by {@link AccountLocks},
+ * so concurrent transfers between the same accounts neither deadlock nor
+ * overdraw them. Events of the issuer saved outside of it, e.g. cancelled
+ * transactions, are still detected by optimistic concurrency of
+ * {@link AccountEventStorage}.
+ *
+ * <p>
+ * Both the synchronous {@link EventBus} and {@link com.al.mt.events.ShardedEventBus}
+ * call handlers in the threads posting the events, i.e. request threads or
+ * shard threads. Handlers are marked with {@link AllowConcurrentEvents}, without
+ * it Guava synchronizes every call of a handler on its subscriber, so all
+ * transfers would be handled one at a time no matter which accounts they lock.
+ *
+ * <p>
+ * Transfers awaited in {@link PendingTransfers} are completed once their
+ * outcome is persisted.
  */
 public class EventManager {
 	private final static Logger LOG = LoggerFactory.getLogger(EventManager.class);
 
 	private final EventBus eventBus;
 	private final AccountEventStorage eventStorage;
+	private final AccountProjection accountProjection;
+	private final AccountLocks accountLocks;
+	private final PendingTransfers pendingTransfers;
+	private final TransactionIndex transactionIndex;
 
-	public EventManager(final EventBus eventBus, final AccountEventStorage eventStorage) {
+	public EventManager(final EventBus eventBus, final AccountEventStorage eventStorage,
+			final AccountProjection accountProjection, final AccountLocks accountLocks,
+			final PendingTransfers pendingTransfers, final TransactionIndex transactionIndex) {
 		this.eventBus = eventBus;
 		this.eventStorage = eventStorage;
+		this.accountProjection = accountProjection;
+		this.accountLocks = accountLocks;
+		this.pendingTransfers = pendingTransfers;
+		this.transactionIndex = transactionIndex;
 	}
 
 	/**
 	 * Handles {@link AccountCreatedEvent} by persisting it to event storage.
 	 */
 	@Subscribe
+	@AllowConcurrentEvents
 	public void handle(final AccountCreatedEvent event) {
 		logEvent(event);
-		this.eventStorage.save(event);
+		persist(event);
 	}
 
 	/**
-	 * Handles {@link MoneyTransferredEvent} by persisting it to event storage.
+	 * Handles {@link MoneyTransferredEvent} by debiting the issuer and crediting
+	 * the receiver.
 	 *
 	 * <p>
-	 * This event calls a chain of events, in case then {@link AccountAggregate} can
-	 * be debited (can apply {@link AccountDebitedEvent}) then it will result in:
+	 * In case then {@link AccountAggregate} can be debited (can apply
+	 * {@link AccountDebitedEvent}) then the transfer is saved as:
 	 *
 	 * <ul>
 	 * <li>{@link MoneyTransferredEvent} on issuer aggregate which appends
@@ -53,13 +101,12 @@ public class EventManager {
 	 * <li>{@link AccountDebitedEvent} on issuer which reserves balance.
 	 * <li>{@link MoneyTransferredEvent} on receiver which appends transaction to
 	 * aggregate.
-	 * <li>{@link AccountCreatedEvent} on receiver which reserves money on aggregate
+	 * <li>{@link AccountCreditedEvent} on receiver which reserves money on aggregate
 	 * <li>{@link MoneyTransferSucceeded} on issuer's & receiver's aggregate which
 	 * updates status of transactions and increments receiver's account.
 	 * </ul>
 	 *
-	 * If issuer's aggregate cannot be debited then it will result in this chain of
-	 * events:
+	 * If issuer's aggregate cannot be debited then it's saved as:
 	 *
 	 * <ul>
 	 * <li>{@link MoneyTransferredEvent} on issuer aggregate which appends
@@ -67,77 +114,199 @@ public class EventManager {
 	 * <li>{@link MoneyTransferCancelled} on issuer's aggregate with balance
 	 * {@link Reason#BALANCE_TOO_LOW} which releases reserved money.
 	 * </ul>
+	 *
+	 * <p>
+	 * All events of the transfer are saved by a single
+	 * {@link AccountEventStorage#saveAll(List, Map)}, so a transfer is stored
+	 * either completely or not at all. Both accounts are locked while it's saved.
+	 * The events are saved with the version of the issuer's aggregate its balance
+	 * was checked on, when another event of the issuer was saved in the meantime
+	 * the check is repeated on the reloaded aggregate.
+	 *
+	 * <p>
+	 * A transfer which fails to be saved fails its awaited future too, also on an
+	 * {@link Error}, so its waiters and admission permit are released.
 	 */
 	@Subscribe
+	@AllowConcurrentEvents
 	public void handle(final MoneyTransferredEvent event) {
 		logEvent(event);
-		persistIfAggregateExists(event);
-		this.eventBus.post(new AccountDebitedEvent(event.getAggregateID(), event.getFromID(), event.getToID(),
-				event.getTransactionID(), event.getValue()));
-	}
-
-	@Subscribe
-	public void handle(final AccountDebitedEvent event) {
-		logEvent(event);
-		final AccountAggregate dirtyAggregate = this.eventStorage.get(event.getFromID());
-		if (dirtyAggregate == null) {
-			throw new AggregateDoesNotExistException(event.toString());
-		}
 		try {
-			dirtyAggregate.apply(event);
-		} catch (final InsufficientBalanceException e) {
-			// When there's not enough money MoneyTransferCancelled should be emitted only
-			// to issuer
-			this.eventBus.post(new MoneyTransferCancelled(event.getAggregateID(), event.getFromID(), event.getToID(),
-					event.getTransactionID(), event.getValue(), Reason.BALANCE_TOO_LOW));
-			return;
+			transfer(event);
+		} catch (final RuntimeException | Error e) {
+			this.pendingTransfers.fail(event.getTransactionID(), e);
+			throw e;
 		}
-		// When there's enough money we persist event and progress further
-		persistIfAggregateExists(event);
-
-		// Saves MoneyTransferredEvent in receiver's aggregate
-		persistIfAggregateExists(new MoneyTransferredEvent(event.getToID(), event.getFromID(), event.getToID(),
-				event.getTransactionID(), event.getValue()));
+	}
 
-		// Requests crediting receiver's aggregate
-		this.eventBus.post(new AccountCreditedEvent(event.getToID(), event.getFromID(), event.getToID(),
-				event.getTransactionID(), event.getValue()));
+	private void transfer(final MoneyTransferredEvent event) {
+		checkAggregateExists(event.getAggregateID(), event);
+		checkAggregateExists(event.getToID(), event);
+		try (AccountLocks.Locked locked = this.accountLocks.lock(event.getFromID(), event.getToID())) {
+			while (true) {
+				final AccountAggregate dirtyAggregate = this.eventStorage.get(event.getFromID());
+				if (dirtyAggregate == null) {
+					throw new AggregateDoesNotExistException(event.toString());
+				}
+				final int version = dirtyAggregate.getVersion();
+				final List<DomainEvent> events = transferEvents(dirtyAggregate, event);
+				try {
+					this.eventStorage.saveAll(events, ImmutableMap.of(event.getFromID(), version));
+				} catch (final VersionConflictException e) {
+					LOG.debug("Retrying transfer after conflict: {}", e.getMessage());
+					continue;
+				}
+				this.transactionIndex.applyAll(events);
+				events.stream().map(DomainEvent::getAggregateID).distinct().forEach(this.accountProjection::refresh);
+				this.pendingTransfers.complete(event.getTransactionID(), stateOf(events));
+				return;
+			}
+		}
 	}
 
+	/**
+	 * Handles {@link MoneyTransferBatch} like each of its transfers was handled
+	 * alone, one after another.
+	 *
+	 * <p>
+	 * The issuer's aggregate is loaded once and each transfer is checked against
+	 * the balance left by the transfers before it. The issuer and all receivers
+	 * are locked together and events of all transfers are saved by a single
+	 * {@link AccountEventStorage#saveAll(List, Map)}. Transfers to receivers
+	 * which don't exist fail alone.
+	 */
 	@Subscribe
-	public void handle(final AccountCreditedEvent event) {
-		logEvent(event);
-		persistIfAggregateExists(event);
+	@AllowConcurrentEvents
+	public void handle(final MoneyTransferBatch batch) {
+		LOG.info("Received batch: {}", batch);
+		try {
+			transfer(batch);
+		} catch (final RuntimeException | Error e) {
+			batch.getTransfers().forEach(transfer -> this.pendingTransfers.fail(transfer.getTransactionID(), e));
+			throw e;
+		}
+	}
 
-		// Marks transfer as succeeded in issuer account
-		this.eventBus.post(new MoneyTransferSucceeded(event.getFromID(), event.getFromID(), event.getToID(),
-				event.getTransactionID(), event.getValue()));
+	private void transfer(final MoneyTransferBatch batch) {
+		if (!this.eventStorage.exists(batch.getFromID())) {
+			throw new AggregateDoesNotExistException(batch.toString());
+		}
+		final List<MoneyTransferredEvent> transfers = new ArrayList<>(batch.getTransfers().size());
+		final Set<UUID> lockedIDs = new LinkedHashSet<>();
+		lockedIDs.add(batch.getFromID());
+		for (final MoneyTransferredEvent transfer : batch.getTransfers()) {
+			if (lockedIDs.contains(transfer.getToID()) || this.eventStorage.exists(transfer.getToID())) {
+				transfers.add(transfer);
+				lockedIDs.add(transfer.getToID());
+			} else {
+				this.pendingTransfers.fail(transfer.getTransactionID(),
+						new AggregateDoesNotExistException(transfer.toString()));
+			}
+		}
+		if (transfers.isEmpty()) {
+			return;
+		}
+		try (AccountLocks.Locked locked = this.accountLocks.lock(lockedIDs)) {
+			while (true) {
+				final AccountAggregate dirtyAggregate = this.eventStorage.get(batch.getFromID());
+				if (dirtyAggregate == null) {
+					throw new AggregateDoesNotExistException(batch.toString());
+				}
+				final int version = dirtyAggregate.getVersion();
+				final List<List<DomainEvent>> eventsOfTransfers = new ArrayList<>(transfers.size());
+				final List<DomainEvent> events = new ArrayList<>();
+				for (final MoneyTransferredEvent transfer : transfers) {
+					final List<DomainEvent> transferEvents = transferEvents(dirtyAggregate, transfer);
+					eventsOfTransfers.add(transferEvents);
+					events.addAll(transferEvents);
+				}
+				try {
+					this.eventStorage.saveAll(events, ImmutableMap.of(batch.getFromID(), version));
+				} catch (final VersionConflictException e) {
+					LOG.debug("Retrying batch after conflict: {}", e.getMessage());
+					continue;
+				}
+				this.transactionIndex.applyAll(events);
+				events.stream().map(DomainEvent::getAggregateID).distinct().forEach(this.accountProjection::refresh);
+				for (int i = 0; i < transfers.size(); i++) {
+					this.pendingTransfers.complete(transfers.get(i).getTransactionID(),
+							stateOf(eventsOfTransfers.get(i)));
+				}
+				return;
+			}
+		}
+	}
 
-		// Marks transfer as succeeded in receiver account
-		this.eventBus.post(new MoneyTransferSucceeded(event.getToID(), event.getFromID(), event.getToID(),
-				event.getTransactionID(), event.getValue()));
+	/**
+	 * Checks the balance on issuer's aggregate by applying the debit to it.
+	 *
+	 * @return All events of the transfer, it's cancelled when issuer's balance is
+	 *         too low.
+	 */
+	private static List<DomainEvent> transferEvents(final AccountAggregate dirtyAggregate,
+			final MoneyTransferredEvent event) {
+		final AccountDebitedEvent debited = new AccountDebitedEvent(event.getFromID(), event.getFromID(),
+				event.getToID(), event.getTransactionID(), event.getValue());
+		try {
+			dirtyAggregate.apply(debited);
+		} catch (final InsufficientBalanceException e) {
+			// When there's not enough money MoneyTransferCancelled is saved only to issuer
+			return ImmutableList.of(event, new MoneyTransferCancelled(event.getFromID(), event.getFromID(),
+					event.getToID(), event.getTransactionID(), event.getValue(), Reason.BALANCE_TOO_LOW));
+		}
+		return ImmutableList.of(event, debited,
+				new MoneyTransferredEvent(event.getToID(), event.getFromID(), event.getToID(),
+						event.getTransactionID(), event.getValue()),
+				new AccountCreditedEvent(event.getToID(), event.getFromID(), event.getToID(),
+						event.getTransactionID(), event.getValue()),
+				// Marks transfer as succeeded in issuer account
+				new MoneyTransferSucceeded(event.getFromID(), event.getFromID(), event.getToID(),
+						event.getTransactionID(), event.getValue()),
+				// Marks transfer as succeeded in receiver account
+				new MoneyTransferSucceeded(event.getToID(), event.getFromID(), event.getToID(),
+						event.getTransactionID(), event.getValue()));
 	}
 
-	@Subscribe
-	public void handle(final MoneyTransferSucceeded event) {
-		logEvent(event);
-		persistIfAggregateExists(event);
+	/**
+	 * @return Final state of a transfer saved as {@code transferEvents}.
+	 */
+	private static State stateOf(final List<DomainEvent> transferEvents) {
+		return transferEvents.get(transferEvents.size() - 1) instanceof MoneyTransferCancelled ? State.CANCELLED
+				: State.SUCCEEDED;
 	}
 
+	/**
+	 * Handles {@link MoneyTransferCancelled} posted by
+	 * {@link com.al.mt.services.AccountService#cancelTransaction} by persisting it.
+	 * Transfers cancelled for {@link Reason#BALANCE_TOO_LOW} are saved together
+	 * with the rest of their events and never posted, so this is the only way
+	 * the event reaches the bus.
+	 */
 	@Subscribe
+	@AllowConcurrentEvents
 	public void handle(final MoneyTransferCancelled event) {
 		logEvent(event);
 		persistIfAggregateExists(event);
+		this.pendingTransfers.complete(event.getTransactionID(), State.CANCELLED);
 	}
 
 	private void logEvent(final DomainEvent event) {
 		LOG.info("Received event: {}", event);
 	}
 
+	private void persist(final DomainEvent event) {
+		this.eventStorage.save(event);
+		this.transactionIndex.apply(event);
+		this.accountProjection.refresh(event.getAggregateID());
+	}
+
 	private void persistIfAggregateExists(final DomainEvent event) {
-		if (this.eventStorage.exists(event.getAggregateID())) {
-			this.eventStorage.save(event);
-		} else {
+		checkAggregateExists(event.getAggregateID(), event);
+		persist(event);
+	}
+
+	private void checkAggregateExists(final UUID id, final DomainEvent event) {
+		if (!this.eventStorage.exists(id)) {
 			throw new AggregateDoesNotExistException(event.toString());
 		}
 	}
@@ -0,0 +1,71 @@
+package com.al.mt.aggregates;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.al.mt.enums.State;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Money transfers clients wait for to complete.
+ *
+ * <p>
+ * A future is registered under the transaction ID before the transfer is
+ * issued and {@link EventManager} completes it once the transfer is persisted
+ * as succeeded or cancelled, so waiting clients don't poll accounts. Transfers
+ * nobody waits for aren't tracked at all.
+ *
+ * <p>
+ * A transfer may be awaited by several parties, e.g. a client and admission
+ * control holding a permit for it. Their futures are completed in the order
+ * they were registered.
+ */
+public class PendingTransfers {
+	private final Map<UUID, ImmutableList<CompletableFuture<State>>> futures = new ConcurrentHashMap<>();
+
+	/**
+	 * @return Future completed with {@link State#SUCCEEDED} or
+	 *         {@link State#CANCELLED}, cancelling it stops tracking the transfer
+	 *         for this caller only.
+	 */
+	public CompletableFuture<State> register(final UUID transactionID) {
+		final CompletableFuture<State> future = new CompletableFuture<>();
+		this.futures.merge(transactionID, ImmutableList.of(future), (awaiting, added) -> ImmutableList
+				.<CompletableFuture<State>>builderWithExpectedSize(awaiting.size() + 1).addAll(awaiting)
+				.addAll(added).build());
+		// Forgets the future once it's done, abandoned futures are cancelled
+		future.whenComplete((state, e) -> forget(transactionID, future));
+		return future;
+	}
+
+	private void forget(final UUID transactionID, final CompletableFuture<State> future) {
+		this.futures.computeIfPresent(transactionID, (id, awaiting) -> {
+			final ImmutableList<CompletableFuture<State>> left = awaiting.stream().filter(other -> other != future)
+					.collect(ImmutableList.toImmutableList());
+			return left.isEmpty() ? null : left;
+		});
+	}
+
+	void complete(final UUID transactionID, final State state) {
+		final ImmutableList<CompletableFuture<State>> awaiting = this.futures.get(transactionID);
+		if (awaiting != null) {
+			awaiting.forEach(future -> future.complete(state));
+		}
+	}
+
+	void fail(final UUID transactionID, final Throwable cause) {
+		final ImmutableList<CompletableFuture<State>> awaiting = this.futures.get(transactionID);
+		if (awaiting != null) {
+			awaiting.forEach(future -> future.completeExceptionally(cause));
+		}
+	}
+
+	/**
+	 * @return Number of transfers being waited for.
+	 */
+	public int size() {
+		return this.futures.size();
+	}
+}
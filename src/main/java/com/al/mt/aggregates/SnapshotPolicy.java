@@ -0,0 +1,48 @@
+package com.al.mt.aggregates;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when {@link AccountEventStorage} should take a new
+ * {@link AccountSnapshot} of a replayed {@link AccountAggregate}.
+ *
+ * <p>
+ * The decision is made after each replay, based on how many events had to be
+ * applied on top of the latest snapshot and how long it took.
+ */
+@FunctionalInterface
+public interface SnapshotPolicy {
+
+	boolean shouldSnapshot(final int replayedEvents, final long replayNanos);
+
+	/**
+	 * Aggregates are always replayed from their first event.
+	 */
+	static SnapshotPolicy never() {
+		return (replayedEvents, replayNanos) -> false;
+	}
+
+	/**
+	 * Takes a snapshot once at least {@code events} events had to be replayed.
+	 */
+	static SnapshotPolicy everyEvents(final int events) {
+		checkArgument(events > 0, "Number of events must be positive");
+		return (replayedEvents, replayNanos) -> replayedEvents >= events;
+	}
+
+	/**
+	 * Takes a snapshot once a replay took at least given time.
+	 */
+	static SnapshotPolicy replayTimeAbove(final long time, final TimeUnit unit) {
+		checkArgument(time > 0, "Time budget must be positive");
+		final long budgetNanos = unit.toNanos(time);
+		return (replayedEvents, replayNanos) -> replayedEvents > 0 && replayNanos >= budgetNanos;
+	}
+
+	default SnapshotPolicy or(final SnapshotPolicy other) {
+		return (replayedEvents, replayNanos) -> shouldSnapshot(replayedEvents, replayNanos)
+				|| other.shouldSnapshot(replayedEvents, replayNanos);
+	}
+}
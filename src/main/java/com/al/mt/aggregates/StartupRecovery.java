@@ -0,0 +1,131 @@
+package com.al.mt.aggregates;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.al.mt.events.DomainEvent;
+
+/**
+ * Recovers {@link AccountEventStorage}, {@link AccountProjection} and
+ * {@link TransactionIndex} from the journal on startup.
+ *
+ * <p>
+ * The journal is read once and split into partitions by aggregate. Aggregates
+ * don't depend on each other, so the partitions are replayed in parallel on a
+ * {@link ForkJoinPool}, while events of each aggregate keep their order.
+ * Progress is logged every 10% of replayed events.
+ */
+public class StartupRecovery {
+	private final static Logger LOG = LoggerFactory.getLogger(StartupRecovery.class);
+
+	private static final int PROGRESS_STEPS = 10;
+	// Aggregates replayed by a single task without splitting it further
+	private static final int PARTITIONS_PER_TASK = 64;
+
+	private final AccountEventStorage eventStorage;
+	private final AccountProjection accountProjection;
+	private final TransactionIndex transactionIndex;
+	private final int parallelism;
+
+	public StartupRecovery(final AccountEventStorage eventStorage, final AccountProjection accountProjection,
+			final TransactionIndex transactionIndex, final int parallelism) {
+		this.eventStorage = eventStorage;
+		this.accountProjection = accountProjection;
+		this.transactionIndex = transactionIndex;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Blocks until all journaled events are replayed.
+	 *
+	 * @return Number of recovered events.
+	 */
+	public long run() {
+		final long start = System.nanoTime();
+		final Map<UUID, List<DomainEvent>> partitions = this.eventStorage.readJournal();
+		final long total = partitions.values().stream().mapToLong(List::size).sum();
+		LOG.info("Read {} events of {} aggregates from the journal in {} ms", total, partitions.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		@SuppressWarnings("unchecked")
+		final Map.Entry<UUID, List<DomainEvent>>[] tasks = partitions.entrySet().toArray(new Map.Entry[0]);
+		final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(new ReplayTask(tasks, 0, tasks.length, new Progress(total)));
+		} finally {
+			pool.shutdown();
+		}
+
+		LOG.info("Recovered {} events of {} aggregates in {} ms using {} threads", total, partitions.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), this.parallelism);
+		return total;
+	}
+
+	/**
+	 * Restores events of a single aggregate and brings its projection and its
+	 * transfers in the index up to date.
+	 */
+	private void replay(final UUID id, final List<DomainEvent> events) {
+		this.eventStorage.restore(id, events);
+		this.transactionIndex.applyAll(events);
+		this.accountProjection.refresh(id);
+	}
+
+	private final class ReplayTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Map.Entry<UUID, List<DomainEvent>>[] partitions;
+		private final int from;
+		private final int to;
+		private final Progress progress;
+
+		ReplayTask(final Map.Entry<UUID, List<DomainEvent>>[] partitions, final int from, final int to,
+				final Progress progress) {
+			this.partitions = partitions;
+			this.from = from;
+			this.to = to;
+			this.progress = progress;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= PARTITIONS_PER_TASK) {
+				for (int i = this.from; i < this.to; i++) {
+					replay(this.partitions[i].getKey(), this.partitions[i].getValue());
+					this.progress.replayed(this.partitions[i].getValue().size());
+				}
+			} else {
+				final int middle = (this.from + this.to) >>> 1;
+				invokeAll(new ReplayTask(this.partitions, this.from, middle, this.progress),
+						new ReplayTask(this.partitions, middle, this.to, this.progress));
+			}
+		}
+	}
+
+	private static final class Progress {
+		private final long total;
+		private final long step;
+		private final AtomicLong replayed = new AtomicLong();
+
+		Progress(final long total) {
+			this.total = total;
+			this.step = Math.max(1, total / PROGRESS_STEPS);
+		}
+
+		void replayed(final int events) {
+			final long replayed = this.replayed.addAndGet(events);
+			if (replayed / this.step > (replayed - events) / this.step) {
+				LOG.info("Recovery progress: {} of {} events ({}%)", replayed, this.total,
+						replayed * 100 / this.total);
+			}
+		}
+	}
+}
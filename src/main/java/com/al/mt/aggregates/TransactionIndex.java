@@ -0,0 +1,259 @@
+package com.al.mt.aggregates;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.EventVisitor;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+import com.al.mt.model.Transaction;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Transfers by their transaction ID, so a transfer is found without knowing its
+ * accounts or replaying them, and transfers of each account ordered by their
+ * creation time, so its history is read a page at a time.
+ *
+ * <p>
+ * {@link EventManager} applies every persisted event and
+ * {@link StartupRecovery} every recovered one. Events of both accounts of a
+ * transfer are merged into one {@link Transaction}: a succeeded or cancelled
+ * transfer never goes back to {@link State#PENDING}, so events may be applied
+ * in any order, e.g. when accounts are recovered in parallel.
+ *
+ * <p>
+ * A transfer is in the history of its issuer right away, but in the history of
+ * its receiver only once the transfer reached it, i.e. an event of the
+ * receiver's account was applied. Cancelled transfers, e.g. with
+ * {@link Reason#BALANCE_TOO_LOW}, and pending ones never show up there.
+ */
+public class TransactionIndex {
+	private static final Indexer INDEXER = new Indexer();
+
+	// Lowest ID, so a key with it comes first among keys of the same time
+	private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+	private final Map<UUID, Transaction> transactions = new ConcurrentHashMap<>();
+	private final Map<UUID, NavigableSet<Key>> accountTransactions = new ConcurrentHashMap<>();
+
+	public void apply(final DomainEvent event) {
+		event.accept(INDEXER, this);
+	}
+
+	public void applyAll(final Collection<? extends DomainEvent> events) {
+		events.forEach(this::apply);
+	}
+
+	/**
+	 * @return Current state of the transfer or {@code null} if none of its events
+	 *         was applied.
+	 */
+	public Transaction get(final UUID transactionID) {
+		return this.transactions.get(transactionID);
+	}
+
+	public int size() {
+		return this.transactions.size();
+	}
+
+	/**
+	 * Reads transfers of an account, each one is looked up only once it's
+	 * iterated to, so a page looks only at the transfers it reads unless
+	 * {@code states} skip most of them.
+	 *
+	 * @param from   Earliest creation time, {@code null} for no bound.
+	 * @param to     Creation time all transfers are created before, {@code null}
+	 *               for no bound.
+	 * @param states States of transfers to read.
+	 * @param after  Transfer of the account to start after, {@code null} starts
+	 *               with the first transfer from {@code from}.
+	 * @return Transfers ordered by their creation time and ID.
+	 */
+	public Iterator<Transaction> iterate(final UUID accountID, final Date from, final Date to,
+			final Set<State> states, final UUID after) {
+		final NavigableSet<Key> keys = this.accountTransactions.get(accountID);
+		if (keys == null) {
+			return Collections.emptyIterator();
+		}
+		Key start = from == null ? null : new Key(from.getTime(), MIN_ID);
+		boolean inclusive = true;
+		final Transaction afterTransaction = after == null ? null : this.transactions.get(after);
+		if (afterTransaction != null && (start == null || Key.of(afterTransaction).compareTo(start) >= 0)) {
+			start = Key.of(afterTransaction);
+			inclusive = false;
+		}
+		final Iterator<Key> pageKeys = (start == null ? keys : keys.tailSet(start, inclusive)).iterator();
+		return new AbstractIterator<Transaction>() {
+			@Override
+			protected Transaction computeNext() {
+				while (pageKeys.hasNext()) {
+					final Key key = pageKeys.next();
+					if (to != null && key.createdAt >= to.getTime()) {
+						break;
+					}
+					final Transaction transaction = TransactionIndex.this.transactions.get(key.transactionID);
+					// Missing while the transfer is being added
+					if (transaction != null && states.contains(transaction.getState())) {
+						return transaction;
+					}
+				}
+				return endOfData();
+			}
+		};
+	}
+
+	/**
+	 * @param state    {@link State#PENDING} keeps the state of an already indexed
+	 *                 transfer.
+	 * @param reason   Reason of {@link State#CANCELLED}, {@code null} otherwise.
+	 * @param received Whether the event was applied to the receiver's account.
+	 */
+	private void merge(final UUID transactionID, final UUID fromID, final UUID toID, final Money value,
+			final Date date, final State state, final Reason reason, final boolean received) {
+		this.transactions.compute(transactionID, (id, indexed) -> {
+			final boolean keepsState = indexed != null && state == State.PENDING;
+			final Transaction transaction = Transaction.builder()
+					.setTransactionID(transactionID)
+					.setFromID(fromID)
+					.setToID(toID)
+					.setValue(value)
+					.setState(keepsState ? indexed.getState() : state)
+					.setReason(keepsState ? indexed.getReason() : reason)
+					.setCreatedAt(indexed == null || date.before(indexed.getCreatedAt()) ? date
+							: indexed.getCreatedAt())
+					.setLastUpdatedAt(indexed == null || date.after(indexed.getLastUpdatedAt()) ? date
+							: indexed.getLastUpdatedAt())
+					.build();
+			final boolean wasReceived = indexed != null && hasKey(toID, Key.of(indexed));
+			if (indexed == null || !indexed.getCreatedAt().equals(transaction.getCreatedAt())) {
+				// Events of the receiver may come first on recovery, so the transfer is moved
+				if (indexed != null) {
+					removeKey(fromID, Key.of(indexed));
+					removeKey(toID, Key.of(indexed));
+				}
+				addKey(fromID, Key.of(transaction));
+				if (received || wasReceived) {
+					addKey(toID, Key.of(transaction));
+				}
+			} else if (received && !wasReceived) {
+				addKey(toID, Key.of(transaction));
+			}
+			return transaction;
+		});
+	}
+
+	private void addKey(final UUID accountID, final Key key) {
+		this.accountTransactions.computeIfAbsent(accountID, id -> new ConcurrentSkipListSet<>()).add(key);
+	}
+
+	private void removeKey(final UUID accountID, final Key key) {
+		final NavigableSet<Key> keys = this.accountTransactions.get(accountID);
+		if (keys != null) {
+			keys.remove(key);
+		}
+	}
+
+	private boolean hasKey(final UUID accountID, final Key key) {
+		final NavigableSet<Key> keys = this.accountTransactions.get(accountID);
+		return keys != null && keys.contains(key);
+	}
+
+	/**
+	 * Position of a transfer in the history of an account.
+	 */
+	private static final class Key implements Comparable<Key> {
+		private final long createdAt;
+		private final UUID transactionID;
+
+		Key(final long createdAt, final UUID transactionID) {
+			this.createdAt = createdAt;
+			this.transactionID = transactionID;
+		}
+
+		static Key of(final Transaction transaction) {
+			return new Key(transaction.getCreatedAt().getTime(), transaction.getTransactionID());
+		}
+
+		@Override
+		public int compareTo(final Key other) {
+			final int byTime = Long.compare(this.createdAt, other.createdAt);
+			return byTime != 0 ? byTime : this.transactionID.compareTo(other.transactionID);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.createdAt == other.createdAt && this.transactionID.equals(other.transactionID);
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(this.createdAt) * 31 + this.transactionID.hashCode();
+		}
+	}
+
+	/**
+	 * Merges transfer events into the index they are passed with, it's
+	 * stateless so a single instance serves all indexes.
+	 */
+	private static final class Indexer implements EventVisitor<TransactionIndex, Void> {
+		@Override
+		public Void visit(final AccountCreatedEvent event, final TransactionIndex index) {
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferredEvent event, final TransactionIndex index) {
+			index.merge(event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue(),
+					event.getCreatedAt(), State.PENDING, null, event.getAggregateID().equals(event.getToID()));
+			return null;
+		}
+
+		@Override
+		public Void visit(final AccountDebitedEvent event, final TransactionIndex index) {
+			index.merge(event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue(),
+					event.getCreatedAt(), State.PENDING, null, false);
+			return null;
+		}
+
+		@Override
+		public Void visit(final AccountCreditedEvent event, final TransactionIndex index) {
+			index.merge(event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue(),
+					event.getCreatedAt(), State.PENDING, null, event.getAggregateID().equals(event.getToID()));
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferSucceeded event, final TransactionIndex index) {
+			index.merge(event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue(),
+					event.getCreatedAt(), State.SUCCEEDED, null, false);
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferCancelled event, final TransactionIndex index) {
+			index.merge(event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue(),
+					event.getCreatedAt(), State.CANCELLED, event.getReason(), false);
+			return null;
+		}
+	}
+}
@@ -2,28 +2,61 @@ package com.al.mt.controllers;
 
 import static com.al.mt.model.Link.getLinksForAccount;
 import static com.al.mt.model.Link.getLinksForAccounts;
-import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.net.HttpURLConnection.HTTP_ACCEPTED;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_CREATED;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountProjection;
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.State;
 import com.al.mt.enums.Status;
+import com.al.mt.exceptions.AggregateDoesNotExistException;
+import com.al.mt.filters.JsonBodyFilter;
 import com.al.mt.model.APIResponse;
 import com.al.mt.model.Account;
 import com.al.mt.model.Link;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.al.mt.model.Page;
+import com.al.mt.model.Transaction;
 import com.al.mt.requests.CreateAccountRequest;
 import com.al.mt.requests.TransferMoneyRequest;
 import com.al.mt.services.AccountService;
 import com.al.mt.services.AccountServiceImpl;
+import com.al.mt.utils.Configuration;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
-import com.google.gson.Gson;
 
+import spark.Response;
 import spark.Route;
 
 /**
@@ -35,28 +68,44 @@ import spark.Route;
  * events.
  *
  * <p>
+ * Accounts are read from {@link AccountProjection}, so reads don't replay
+ * events.
+ *
+ * <p>
  * It's possible to:
  *
  * <ul>
  * <li>GET to fetch a list of accounts on `/api/account`
  * <li>GET to fetch a single account on `/api/account/ID`
+ * <li>GET to fetch transfers of an account on `/api/account/ID/transactions`
  * <li>POST to create account on `/api/account`
  * <li>POST to transfer money on `/api/account/transferMoney`
+ * <li>POST to transfer money in a batch on `/api/account/transferMoney/batch`
  * </ul>
  */
 public class AccountController {
-	private static final String VALIDATION_ERROR_MESSAGE = "There are validation errors";
-	private static final Gson GSON = new Gson();
+	private final static Logger LOG = LoggerFactory.getLogger(AccountController.class);
+
+	public static final String VALIDATION_ERROR_MESSAGE = "There are validation errors";
+	private static final int DEFAULT_PAGE_SIZE = 100;
 	
 	private final AccountService accountService;
 	private final AccountEventStorage eventStorage;
+	private final AccountProjection accountProjection;
+	private final PendingTransfers pendingTransfers;
+	private final TransactionIndex transactionIndex;
 
-	public AccountController(final AccountService accountService, final AccountEventStorage eventStorage) {
+	public AccountController(final AccountService accountService, final AccountEventStorage eventStorage,
+			final AccountProjection accountProjection, final PendingTransfers pendingTransfers,
+			final TransactionIndex transactionIndex) {
 		this.accountService = accountService;
 		this.eventStorage = eventStorage;
+		this.accountProjection = accountProjection;
+		this.pendingTransfers = pendingTransfers;
+		this.transactionIndex = transactionIndex;
 	}
 
-	private static boolean isIDNotValid(final String value) {
+	static boolean isIDNotValid(final String value) {
 		if (value == null || value.isEmpty()) {
 			return true;
 		}
@@ -79,6 +128,143 @@ public class AccountController {
 		}
 	}
 
+	/**
+	 * @return {@code value} as {@link Money} or {@code null} when it's not a
+	 *         positive amount in {@link Money#DEFAULT_SCALE}.
+	 */
+	private static Money validateAmount(final String fieldName, final BigDecimal value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null || value.compareTo(BigDecimal.ZERO) <= 0) {
+			validationErrors.put(fieldName, "Must be provided & be greater than 0");
+			return null;
+		}
+		try {
+			return Money.of(value, Money.DEFAULT_SCALE);
+		} catch (final ArithmeticException e) {
+			validationErrors.put(fieldName,
+					String.format("Must have at most %d decimal places", Money.DEFAULT_SCALE));
+			return null;
+		}
+	}
+
+	/**
+	 * @return {@code value} as milliseconds, 0 when it's not provided or
+	 *         {@code null} when it's not valid.
+	 */
+	private static Long validateWaitMillis(final String fieldName, final String value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null) {
+			return 0L;
+		}
+		final long maxWaitMillis = Configuration.transferMaxWaitMillis();
+		try {
+			final long waitMillis = Long.parseLong(value);
+			if (waitMillis >= 1 && waitMillis <= maxWaitMillis) {
+				return waitMillis;
+			}
+		} catch (final NumberFormatException e) {
+			// Reported below
+		}
+		validationErrors.put(fieldName, String.format("Must be a number between 1 and %d", maxWaitMillis));
+		return null;
+	}
+
+	/**
+	 * @return Amount of the transfer or {@code null} when it's not valid.
+	 */
+	private static Money validateTransfer(final TransferMoneyRequest payload,
+			final ListMultimap<String, String> validationErrors) {
+		validateID("fromAccountNumber", payload.getFromAccountNumber(), validationErrors);
+		validateID("toAccountNumber", payload.getToAccountNumber(), validationErrors);
+
+		if (payload.getFromAccountNumber() != null && payload.getToAccountNumber() != null
+				&& payload.getFromAccountNumber().equals(payload.getToAccountNumber())) {
+			validationErrors.put("toAccountNumber", "Is not possible to transfer money to the same account");
+		}
+
+		return validateAmount("value", payload.getValue(), validationErrors);
+	}
+
+	/**
+	 * @return {@code value} as number of accounts or transfers on a page, the
+	 *         default one when it's not provided or {@code null} when it's not
+	 *         valid.
+	 */
+	private static Integer validateLimit(final String fieldName, final String value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null) {
+			return Math.min(DEFAULT_PAGE_SIZE, Configuration.accountsMaxPageSize());
+		}
+		final int maxPageSize = Configuration.accountsMaxPageSize();
+		try {
+			final int limit = Integer.parseInt(value);
+			if (limit >= 1 && limit <= maxPageSize) {
+				return limit;
+			}
+		} catch (final NumberFormatException e) {
+			// Reported below
+		}
+		validationErrors.put(fieldName, String.format("Must be a number between 1 and %d", maxPageSize));
+		return null;
+	}
+
+	/**
+	 * @return Fields of {@link Account} listed in {@code value}, all fields when
+	 *         it's not provided.
+	 */
+	private static Set<String> validateFields(final String fieldName, final String value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null) {
+			return Account.FIELDS;
+		}
+		final Set<String> fields = new HashSet<>();
+		fields.add("accountNumber");
+		for (final String field : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+			if (Account.FIELDS.contains(field)) {
+				fields.add(field);
+			} else {
+				validationErrors.put(fieldName, String.format("Unknown field %s", field));
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * @return {@code value} as a date, {@code null} when it's not provided or
+	 *         not valid.
+	 */
+	private static Date validateTimestamp(final String fieldName, final String value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Date.from(Instant.parse(value));
+		} catch (final DateTimeParseException e) {
+			validationErrors.put(fieldName, "Must be an ISO-8601 instant, e.g. 2019-03-01T10:15:30Z");
+			return null;
+		}
+	}
+
+	/**
+	 * @return States listed in {@code value}, all states when it's not provided.
+	 */
+	private static Set<State> validateStates(final String fieldName, final String value,
+			final ListMultimap<String, String> validationErrors) {
+		if (value == null) {
+			return EnumSet.allOf(State.class);
+		}
+		final Set<State> states = EnumSet.noneOf(State.class);
+		for (final String state : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+			try {
+				states.add(State.valueOf(state));
+			} catch (final IllegalArgumentException e) {
+				validationErrors.put(fieldName, String.format("Unknown state %s", state));
+			}
+		}
+		return states;
+	}
+
 	private static void validateID(final String fieldName, final String value,
 			final ListMultimap<String, String> validationErrors) {
 		if (isIDNotValid(value)) {
@@ -86,26 +272,102 @@ public class AccountController {
 		}
 	}
 
+	/**
+	 * Looks {@code id} up in {@code existingAccounts} first, so each account is
+	 * checked in event storage once per request.
+	 */
+	private void validateExists(final String fieldName, final UUID id, final Map<UUID, Boolean> existingAccounts,
+			final ListMultimap<String, String> validationErrors) {
+		if (!existingAccounts.computeIfAbsent(id, this.eventStorage::exists)) {
+			validationErrors.put(fieldName, String.format("Account with ID: %s doesn't exist", id));
+		}
+	}
+
 	/**
 	 * Handles GET requests on `/api/account/listAccounts`
 	 *
-	 * @return A list of {@link Account} of all registered accounts.
+	 * <p>
+	 * Accounts are paged by their account number with optional query
+	 * parameters:
+	 *
+	 * <ul>
+	 * <li>{@code limit} - Number of accounts on the page, 100 by default and at
+	 * most {@code mt.accounts.maxPageSize}.
+	 * <li>{@code after} - Account number of the last account on the previous
+	 * page.
+	 * <li>{@code fields} - Comma separated fields of {@link Account} to return,
+	 * e.g. {@code accountNumber,balance}, all by default. {@code accountNumber}
+	 * is always returned as it's what pages continue after.
+	 * </ul>
+	 *
+	 * @return A page of {@link Account}, when it's full the links include the
+	 *         {@code next} page. HTTP 400 in case of validation errors.
 	 */
 	public Route listAccounts() {
-		return (request, response) -> 		
-		APIResponse.builder()
-		.setStatus(Status.OK)
-		.setMessage("SUCCESS")
-		.setData(this.eventStorage.findAll().stream()
-				.map(Account::from)
-				.collect(toImmutableList()))
-		.setLinks(getLinksForAccounts())
-		.build();
+		return (request, response) -> {
+			final ListMultimap<String, String> validationErrors = validationErrorsMap();
+
+			final Integer limit = validateLimit("limit", request.queryParams("limit"), validationErrors);
+			final String after = request.queryParams("after");
+			if (after != null) {
+				validateID("after", after, validationErrors);
+			}
+			final Set<String> fields = validateFields("fields", request.queryParams("fields"), validationErrors);
+
+			if (!validationErrors.isEmpty()) {
+				response.status(HTTP_BAD_REQUEST);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(VALIDATION_ERROR_MESSAGE)
+						.setData(validationErrors.asMap())
+						.build();
+			}
+
+			// Accounts are read while they are streamed, the next link once they are
+			final Page<Account> accounts = new Page<>(
+					this.accountProjection.iterate(after == null ? null : UUID.fromString(after), fields), limit);
+			final String fieldsParam = request.queryParams("fields");
+			return APIResponse.builder()
+					.setStatus(Status.OK)
+					.setMessage("SUCCESS")
+					.setData(accounts)
+					.setLinksAfterData(() -> {
+						final ImmutableList.Builder<Link> links = ImmutableList.<Link>builder()
+								.addAll(getLinksForAccounts());
+						if (accounts.isFull()) {
+							links.add(Link.getLinkForNextAccounts(accounts.getLast().getAccountNumber(), limit,
+									fieldsParam));
+						}
+						return links.build();
+					})
+					.build();
+		};
+	}
+
+	/**
+	 * @return Whether the {@code If-None-Match} header lists {@code eTag}, tags
+	 *         are compared weakly as for any GET.
+	 */
+	private static boolean isNotModified(final String ifNoneMatch, final String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (final String tag : Splitter.on(',').trimResults().omitEmptyStrings().split(ifNoneMatch)) {
+			if ("*".equals(tag) || eTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
 	 * Handles GET requests on `/api/account/getAccount/accountID`
 	 *
+	 * <p>
+	 * The account is sent with an {@code ETag} of its version in
+	 * {@link AccountProjection}, a request with the same tag in
+	 * {@code If-None-Match} is answered 304 without building the account.
+	 *
 	 * @return {@link Account} for specified account.
 	 */
 	public Route getAccount() {
@@ -124,12 +386,22 @@ public class AccountController {
 			}
 
 			final UUID aggregateID = UUID.fromString(request.params(":id"));
+			// Read before the account, so the tag is never ahead of the sent account
+			final int version = this.accountProjection.version(aggregateID);
+			final String eTag = "\"" + version + "\"";
+			if (version > 0 && isNotModified(request.headers("If-None-Match"), eTag)) {
+				response.status(HTTP_NOT_MODIFIED);
+				response.header("ETag", eTag);
+				return null;
+			}
+			final Account account = this.accountProjection.get(aggregateID);
 			// Verifies if requested aggregate exists
-			if (this.eventStorage.exists(aggregateID)) {
+			if (account != null) {
+				response.header("ETag", eTag);
 				return APIResponse.builder()
 						.setStatus(Status.OK)
 						.setMessage("SUCCESS")
-						.setData(Account.from(this.eventStorage.get(aggregateID)))
+						.setData(account)
 						.setLinks(getLinksForAccount(aggregateID))
 						.build();
 			} else {
@@ -142,6 +414,98 @@ public class AccountController {
 		};
 	}
 
+	/**
+	 * Handles GET requests on `/api/account/accountID/transactions`
+	 *
+	 * <p>
+	 * Transfers the account issued or received are read from
+	 * {@link TransactionIndex} ordered by their creation time, none of them is
+	 * replayed. Optional query parameters:
+	 *
+	 * <ul>
+	 * <li>{@code from} - Earliest creation time as an ISO-8601 instant.
+	 * <li>{@code to} - Creation time, as an ISO-8601 instant, all transfers are
+	 * created before.
+	 * <li>{@code state} - Comma separated states of transfers to return, all by
+	 * default.
+	 * <li>{@code limit} - Number of transfers on the page, 100 by default and at
+	 * most {@code mt.accounts.maxPageSize}.
+	 * <li>{@code after} - Transaction ID of the last transfer on the previous
+	 * page.
+	 * </ul>
+	 *
+	 * @return A page of {@link Transaction}, when it's full the links include the
+	 *         {@code next} page. HTTP 404 when account is not found, HTTP 400 in
+	 *         case of validation errors.
+	 */
+	public Route listTransactions() {
+		return (request, response) -> {
+			final ListMultimap<String, String> validationErrors = validationErrorsMap();
+
+			validateID("id", request.params(":id"), validationErrors);
+			final Date from = validateTimestamp("from", request.queryParams("from"), validationErrors);
+			final Date to = validateTimestamp("to", request.queryParams("to"), validationErrors);
+			if (from != null && to != null && !from.before(to)) {
+				validationErrors.put("to", "Must be after from");
+			}
+			final Set<State> states = validateStates("state", request.queryParams("state"), validationErrors);
+			final Integer limit = validateLimit("limit", request.queryParams("limit"), validationErrors);
+			final String after = request.queryParams("after");
+			if (after != null) {
+				validateID("after", after, validationErrors);
+			}
+
+			if (validationErrors.isEmpty() && after != null) {
+				final Transaction afterTransaction = this.transactionIndex.get(UUID.fromString(after));
+				final String id = request.params(":id");
+				if (afterTransaction == null || !afterTransaction.getFromID().toString().equals(id)
+						&& !afterTransaction.getToID().toString().equals(id)) {
+					validationErrors.put("after", "Is not a transaction of the account");
+				}
+			}
+
+			if (!validationErrors.isEmpty()) {
+				response.status(HTTP_BAD_REQUEST);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(VALIDATION_ERROR_MESSAGE)
+						.setData(validationErrors.asMap())
+						.build();
+			}
+
+			final UUID aggregateID = UUID.fromString(request.params(":id"));
+			if (!this.accountProjection.exists(aggregateID)) {
+				response.status(HTTP_NOT_FOUND);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(String.format("Account with ID: %s was not found", aggregateID))
+						.build();
+			}
+
+			// Transfers are read while they are streamed, the next link once they are
+			final Page<Transaction> transactions = new Page<>(this.transactionIndex.iterate(aggregateID, from, to,
+					states, after == null ? null : UUID.fromString(after)), limit);
+			final String fromParam = request.queryParams("from");
+			final String toParam = request.queryParams("to");
+			final String stateParam = request.queryParams("state");
+			return APIResponse.builder()
+					.setStatus(Status.OK)
+					.setMessage("SUCCESS")
+					.setData(transactions)
+					.setLinksAfterData(() -> {
+						final ImmutableList.Builder<Link> links = ImmutableList.<Link>builder()
+								.addAll(getLinksForAccount(aggregateID));
+						if (transactions.isFull()) {
+							links.add(Link.getLinkForNextTransactions(aggregateID,
+									transactions.getLast().getTransactionID(), limit, fromParam, toParam,
+									stateParam));
+						}
+						return links.build();
+					})
+					.build();
+		};
+	}
+
 	/**
 	 * Handles POST requests on `/api/account/createAccount`.
 	 *
@@ -153,11 +517,11 @@ public class AccountController {
 	 * as a required field.
 	 *
 	 * @return ACK if command was issued properly, HTTP 400 in case of validation
-	 *         errors.
+	 *         errors, HTTP 503 when the command wasn't admitted.
 	 */
 	public Route createAccount() {
 		return (request, response) -> {
-			final CreateAccountRequest payload = GSON.fromJson(request.body(), CreateAccountRequest.class);
+			final CreateAccountRequest payload = JsonBodyFilter.body(request);
 			final ListMultimap<String, String> validationErrors = validationErrorsMap();
 
 			// Validates request
@@ -200,26 +564,28 @@ public class AccountController {
 	 * transfer.
 	 * </ul>
 	 *
-	 * @return ACK if command was issued properly, HTTP 404 when aggregate is not
-	 *         found, HTTP 400 in case of validation errors.
+	 * <p>
+	 * With optional query parameter {@code waitMillis} the response is sent once
+	 * the transfer succeeded or was cancelled, but after at most that many
+	 * milliseconds. Its data holds {@code transactionID} and {@code state} of the
+	 * transfer, which is still {@link State#PENDING} when the wait timed out.
+	 *
+	 * @return ACK with ID of the transfer to look up on `/api/transaction/ID` if
+	 *         command was issued properly, outcome of the transfer when awaited
+	 *         or HTTP 202 when it didn't complete in time, HTTP 404 when
+	 *         aggregate is not found, HTTP 400 in case of validation errors, HTTP
+	 *         500 when an awaited transfer failed to be saved, HTTP 503 when the
+	 *         command wasn't admitted.
 	 */
 	public Route transferMoney() {
 		return ((request, response) -> {
-			final TransferMoneyRequest payload = GSON.fromJson(request.body(), TransferMoneyRequest.class);
+			final TransferMoneyRequest payload = JsonBodyFilter.body(request);
 			final ListMultimap<String, String> validationErrors = validationErrorsMap();
 
 			// Validates request
-			validateID("fromAccountNumber", payload.getFromAccountNumber(), validationErrors);
-			validateID("toAccountNumber", payload.getToAccountNumber(), validationErrors);
-
-			if (payload.getFromAccountNumber() != null && payload.getToAccountNumber() != null
-					&& payload.getFromAccountNumber().equals(payload.getToAccountNumber())) {
-				validationErrors.put("toAccountNumber", "Is not possible to transfer money to the same account");
-			}
-
-			if (payload.getValue() == null || payload.getValue().compareTo(BigDecimal.ZERO) <= 0) {
-				validationErrors.put("value", "Must be provided & be greater than 0");
-			}
+			final Money value = validateTransfer(payload, validationErrors);
+			final Long waitMillis = validateWaitMillis("waitMillis", request.queryParams("waitMillis"),
+					validationErrors);
 
 			if (!validationErrors.isEmpty()) {
 				response.status(HTTP_BAD_REQUEST);
@@ -249,15 +615,152 @@ public class AccountController {
 						.build();
 			}
 
+			if (waitMillis > 0) {
+				return transferMoneyAndWait(fromID, toID, value, waitMillis, response);
+			}
+
 			// Issues money transfer
-			this.accountService.transferMoney(fromID, toID, payload.getValue());
+			final UUID transactionID = this.accountService.transferMoney(fromID, toID, value);
 			response.status(HTTP_OK);
 			return APIResponse.builder()
 					.setStatus(Status.OK)
 					.setMessage("Money will be transferred")
+					.setData(transactionID)
 					.setLinks(getLinksForAccounts())
 					.build();
 		});
 	}
-	
+
+	/**
+	 * Handles POST requests on `/api/account/transferMoney/batch`.
+	 *
+	 * <p>
+	 * Takes an array of {@link TransferMoneyRequest}, each of them is validated
+	 * like on `/api/account/transferMoney`, but every account is looked up only
+	 * once. Valid transfers are issued together with
+	 * {@link AccountServiceImpl#transferMoneyBatch}, which groups them by issuer,
+	 * in the order they were sent.
+	 *
+	 * @return Result of each transfer in the order they were sent, either
+	 *         {@code transactionID} of the issued transfer or its validation
+	 *         errors. HTTP 400 when there are more than
+	 *         {@code mt.transfer.maxBatchSize} transfers, HTTP 503 when the
+	 *         command wasn't admitted.
+	 */
+	public Route transferMoneyBatch() {
+		return ((request, response) -> {
+			final TransferMoneyRequest[] payload = JsonBodyFilter.body(request);
+			final int maxBatchSize = Configuration.transferMaxBatchSize();
+			if (payload.length == 0 || payload.length > maxBatchSize) {
+				response.status(HTTP_BAD_REQUEST);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(String.format("Batch must have between 1 and %d transfers", maxBatchSize))
+						.build();
+			}
+
+			final Map<UUID, Boolean> existingAccounts = new HashMap<>();
+			final List<MoneyTransaction> transfers = new ArrayList<>(payload.length);
+			final List<Map<String, Object>> results = new ArrayList<>(payload.length);
+			for (final TransferMoneyRequest transfer : payload) {
+				final ListMultimap<String, String> validationErrors = validationErrorsMap();
+
+				// Validates transfer
+				Money value = null;
+				if (transfer == null) {
+					validationErrors.put("transfer", "Cannot be empty");
+				} else {
+					value = validateTransfer(transfer, validationErrors);
+					if (validationErrors.isEmpty()) {
+						validateExists("fromAccountNumber", UUID.fromString(transfer.getFromAccountNumber()),
+								existingAccounts, validationErrors);
+						validateExists("toAccountNumber", UUID.fromString(transfer.getToAccountNumber()),
+								existingAccounts, validationErrors);
+					}
+				}
+
+				if (!validationErrors.isEmpty()) {
+					results.add(ImmutableMap.of("status", Status.ERROR, "data", validationErrors.asMap()));
+					continue;
+				}
+				final UUID transactionID = UUID.randomUUID();
+				transfers.add(MoneyTransaction.builder()
+						.setTransactionID(transactionID)
+						.setFromID(UUID.fromString(transfer.getFromAccountNumber()))
+						.setToID(UUID.fromString(transfer.getToAccountNumber()))
+						.setValue(value)
+						.build());
+				results.add(ImmutableMap.of("status", Status.OK, "data", transactionID));
+			}
+
+			// Issues all valid money transfers as one command
+			if (!transfers.isEmpty()) {
+				this.accountService.transferMoneyBatch(transfers);
+			}
+			response.status(HTTP_OK);
+			return APIResponse.builder()
+					.setStatus(Status.OK)
+					.setMessage(String.format("%d of %d transfers will be made", transfers.size(), payload.length))
+					.setData(results)
+					.setLinks(getLinksForAccounts())
+					.build();
+		});
+	}
+
+	/**
+	 * Issues money transfer and blocks until {@link PendingTransfers} completes it.
+	 */
+	private APIResponse transferMoneyAndWait(final UUID fromID, final UUID toID, final Money value,
+			final long waitMillis, final Response response) throws InterruptedException {
+		final UUID transactionID = UUID.randomUUID();
+		// Registered before the transfer is issued, so its completion can't be missed
+		final CompletableFuture<State> transfer = this.pendingTransfers.register(transactionID);
+		State state;
+		try {
+			this.accountService.transferMoney(transactionID, fromID, toID, value);
+			state = transfer.get(waitMillis, TimeUnit.MILLISECONDS);
+		} catch (final TimeoutException e) {
+			state = State.PENDING;
+		} catch (final ExecutionException e) {
+			return transferFailed(transactionID, fromID, toID, e.getCause(), response);
+		} finally {
+			// Stops tracking the transfer when it's not completed
+			transfer.cancel(false);
+		}
+
+		response.status(state == State.PENDING ? HTTP_ACCEPTED : HTTP_OK);
+		return APIResponse.builder()
+				.setStatus(Status.OK)
+				.setMessage(state == State.SUCCEEDED ? "Money was transferred"
+						: state == State.CANCELLED ? "Money transfer was cancelled" : "Money will be transferred")
+				.setData(ImmutableMap.of("transactionID", transactionID, "state", state))
+				.setLinks(getLinksForAccounts())
+				.build();
+	}
+
+	/**
+	 * Answers an awaited transfer which failed to be saved: HTTP 404 when one of
+	 * its accounts is gone by the time it's handled, HTTP 500 otherwise, e.g. when
+	 * the journal failed.
+	 */
+	private APIResponse transferFailed(final UUID transactionID, final UUID fromID, final UUID toID,
+			final Throwable cause, final Response response) {
+		if (cause instanceof AggregateDoesNotExistException) {
+			response.status(HTTP_NOT_FOUND);
+			return APIResponse.builder()
+					.setStatus(Status.ERROR)
+					.setMessage(String.format("Account with ID: %s doesn't exist",
+							this.eventStorage.exists(fromID) ? toID : fromID))
+					.setData(ImmutableMap.of("transactionID", transactionID))
+					.build();
+		}
+		LOG.error("Money transfer {} failed", transactionID, cause);
+		response.status(HTTP_INTERNAL_ERROR);
+		return APIResponse.builder()
+				.setStatus(Status.ERROR)
+				.setMessage("Money transfer failed")
+				.setData(ImmutableMap.of("transactionID", transactionID))
+				.build();
+	}
+
 }
@@ -0,0 +1,80 @@
+package com.al.mt.controllers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.al.mt.aggregates.AccountLocks;
+import com.al.mt.enums.Status;
+import com.al.mt.events.ShardedEventBus;
+import com.al.mt.model.APIResponse;
+import com.al.mt.services.AdmissionControlledAccountService;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.eventbus.EventBus;
+
+import spark.Route;
+
+/**
+ * Metrics Controller.
+ *
+ * <p>
+ * It's possible to:
+ *
+ * <ul>
+ * <li>GET to fetch runtime metrics on `/api/metrics`
+ * </ul>
+ */
+public class MetricsController {
+	private final EventBus eventBus;
+	private final AccountLocks accountLocks;
+	private final AdmissionControlledAccountService accountService;
+
+	public MetricsController(final EventBus eventBus, final AccountLocks accountLocks,
+			final AdmissionControlledAccountService accountService) {
+		this.eventBus = eventBus;
+		this.accountLocks = accountLocks;
+		this.accountService = accountService;
+	}
+
+	/**
+	 * Handles GET requests on `/api/metrics`
+	 *
+	 * @return Current metrics, {@code eventBus.queueDepths} holds the number of
+	 *         events waiting in each shard of {@link ShardedEventBus}, it's empty
+	 *         when events are processed synchronously. {@code accountLocks}
+	 *         shows how often and how long transfers waited for
+	 *         {@link AccountLocks}. {@code admission} shows commands admitted
+	 *         by {@link AdmissionControlledAccountService} and how many were
+	 *         rejected.
+	 */
+	public Route metrics() {
+		return (request, response) -> APIResponse.builder()
+				.setStatus(Status.OK)
+				.setMessage("SUCCESS")
+				.setData(ImmutableMap.of("eventBus", eventBusMetrics(), "accountLocks", accountLocksMetrics(),
+						"admission", admissionMetrics()))
+				.build();
+	}
+
+	private Map<String, Object> eventBusMetrics() {
+		if (this.eventBus instanceof ShardedEventBus) {
+			final ShardedEventBus shardedEventBus = (ShardedEventBus) this.eventBus;
+			return ImmutableMap.of("shards", shardedEventBus.getShards(), "queueDepths",
+					shardedEventBus.getQueueDepths());
+		}
+		return ImmutableMap.of("shards", 0, "queueDepths", new int[0]);
+	}
+
+	private Map<String, Object> accountLocksMetrics() {
+		return ImmutableMap.of("stripes", this.accountLocks.getStripes(), "acquisitions",
+				this.accountLocks.getAcquisitions(), "contendedAcquisitions",
+				this.accountLocks.getContendedAcquisitions(), "waitMicros",
+				this.accountLocks.getWaitTime(TimeUnit.MICROSECONDS), "maxWaitMicros",
+				this.accountLocks.getMaxWaitTime(TimeUnit.MICROSECONDS));
+	}
+
+	private Map<String, Object> admissionMetrics() {
+		return ImmutableMap.of("capacity", this.accountService.getCapacity(), "inFlight",
+				this.accountService.getInFlight(), "waiting", this.accountService.getWaiting(), "rejected",
+				this.accountService.getRejected());
+	}
+}
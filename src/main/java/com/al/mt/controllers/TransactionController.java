@@ -0,0 +1,77 @@
+package com.al.mt.controllers;
+
+import static com.al.mt.controllers.AccountController.VALIDATION_ERROR_MESSAGE;
+import static com.al.mt.controllers.AccountController.isIDNotValid;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+
+import java.util.UUID;
+
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.Status;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Link;
+import com.al.mt.model.Transaction;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import spark.Route;
+
+/**
+ * Transaction Controller.
+ *
+ * <p>
+ * Transfers are read from {@link TransactionIndex}, so neither of their
+ * accounts is replayed.
+ *
+ * <p>
+ * It's possible to:
+ *
+ * <ul>
+ * <li>GET to fetch a single transfer on `/api/transaction/ID`
+ * </ul>
+ */
+public class TransactionController {
+	private final TransactionIndex transactionIndex;
+
+	public TransactionController(final TransactionIndex transactionIndex) {
+		this.transactionIndex = transactionIndex;
+	}
+
+	/**
+	 * Handles GET requests on `/api/transaction/transactionID`
+	 *
+	 * @return {@link Transaction} with accounts of the transfer, its state and
+	 *         reason of cancelling it, HTTP 404 when no event of the transfer
+	 *         is persisted yet.
+	 */
+	public Route getTransaction() {
+		return (request, response) -> {
+			final String id = request.params(":id");
+			if (isIDNotValid(id)) {
+				response.status(HTTP_BAD_REQUEST);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(VALIDATION_ERROR_MESSAGE)
+						.setData(ImmutableMap.of("id", ImmutableList.of("Is not a valid ID value")))
+						.build();
+			}
+
+			final UUID transactionID = UUID.fromString(id);
+			final Transaction transaction = this.transactionIndex.get(transactionID);
+			if (transaction == null) {
+				response.status(HTTP_NOT_FOUND);
+				return APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(String.format("Transaction with ID: %s was not found", transactionID))
+						.build();
+			}
+			return APIResponse.builder()
+					.setStatus(Status.OK)
+					.setMessage("SUCCESS")
+					.setData(transaction)
+					.setLinks(Link.getLinksForTransaction(transaction))
+					.build();
+		};
+	}
+}
@@ -7,7 +7,11 @@ public class AccountCreatedEvent extends DomainEvent {
 	private final String fullName;
 
 	public AccountCreatedEvent(final UUID aggregateID, final String fullName) {
-		super(aggregateID, new Date());
+		this(aggregateID, fullName, new Date());
+	}
+
+	public AccountCreatedEvent(final UUID aggregateID, final String fullName, final Date date) {
+		super(aggregateID, date);
 		this.fullName = fullName;
 	}
 
@@ -15,6 +19,11 @@ public class AccountCreatedEvent extends DomainEvent {
 		return this.fullName;
 	}
 
+	@Override
+	public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+		return visitor.visit(this, argument);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
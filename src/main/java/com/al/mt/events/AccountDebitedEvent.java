@@ -1,22 +1,28 @@
 
 package com.al.mt.events;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
+import com.al.mt.model.Money;
+
 public class AccountDebitedEvent extends DomainEvent {
 	private UUID transactionID;
 	private UUID fromID;
 	private UUID toID;
-	private BigDecimal value;
+	private Money value;
 
 	private AccountDebitedEvent() {
 	}
 
 	public AccountDebitedEvent(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value) {
-		super(aggregateID, new Date());
+			final Money value) {
+		this(aggregateID, fromID, toID, transactionID, value, new Date());
+	}
+
+	public AccountDebitedEvent(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
+			final Money value, final Date date) {
+		super(aggregateID, date);
 		this.transactionID = transactionID;
 		this.fromID = fromID;
 		this.toID = toID;
@@ -35,10 +41,15 @@ public class AccountDebitedEvent extends DomainEvent {
 		return this.toID;
 	}
 
-	public final BigDecimal getValue() {
+	public final Money getValue() {
 		return this.value;
 	}
 
+	@Override
+	public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+		return visitor.visit(this, argument);
+	}
+
 	@Override
 	public String toString() {
 		return new StringBuilder("AccountDebitedEvent [transactionID=")
@@ -84,7 +95,7 @@ public class AccountDebitedEvent extends DomainEvent {
 			return this;
 		}
 
-		public final Builder setValue(final BigDecimal value) {
+		public final Builder setValue(final Money value) {
 			AccountDebitedEvent.this.value = value;
 
 			return this;
@@ -36,6 +36,12 @@ public abstract class DomainEvent {
 		return this.createdAt;
 	}
 
+	/**
+	 * Passes this event to the {@code visit} method of {@code visitor} for the
+	 * type of this event.
+	 */
+	public abstract <T, R> R accept(final EventVisitor<T, R> visitor, final T argument);
+
 	private String classNameToUpperCase() {
 		return CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, this.getClass().getSimpleName());
 	}
@@ -0,0 +1,24 @@
+package com.al.mt.events;
+
+/**
+ * Operation on {@link DomainEvent}s which is selected by the type of the event
+ * through {@link DomainEvent#accept(EventVisitor, Object)}, without any
+ * {@code instanceof} test.
+ *
+ * @param <T> Type of the argument passed along with the event.
+ * @param <R> Type of the result.
+ */
+public interface EventVisitor<T, R> {
+
+	R visit(final AccountCreatedEvent event, final T argument);
+
+	R visit(final MoneyTransferredEvent event, final T argument);
+
+	R visit(final AccountDebitedEvent event, final T argument);
+
+	R visit(final AccountCreditedEvent event, final T argument);
+
+	R visit(final MoneyTransferSucceeded event, final T argument);
+
+	R visit(final MoneyTransferCancelled event, final T argument);
+}
@@ -0,0 +1,47 @@
+package com.al.mt.events;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Money transfers of a single issuer posted together.
+ *
+ * <p>
+ * It's not stored itself, each transfer is saved as its own
+ * {@link MoneyTransferredEvent}, but all of them are checked against the
+ * issuer's balance and saved in one go.
+ */
+public class MoneyTransferBatch {
+	private final UUID fromID;
+	private final List<MoneyTransferredEvent> transfers;
+
+	public MoneyTransferBatch(final UUID fromID, final List<MoneyTransferredEvent> transfers) {
+		for (final MoneyTransferredEvent transfer : transfers) {
+			if (!fromID.equals(transfer.getFromID()) || !fromID.equals(transfer.getAggregateID())) {
+				throw new IllegalArgumentException(
+						String.format("Transfer %s isn't issued by %s", transfer.getTransactionID(), fromID));
+			}
+		}
+		this.fromID = fromID;
+		this.transfers = ImmutableList.copyOf(transfers);
+	}
+
+	public final UUID getFromID() {
+		return this.fromID;
+	}
+
+	/**
+	 * @return Transfers in the order they are applied to the issuer.
+	 */
+	public final List<MoneyTransferredEvent> getTransfers() {
+		return this.transfers;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("MoneyTransferBatch [fromID=").append(this.fromID).append(", transfers=")
+				.append(this.transfers.size()).append("]").toString();
+	}
+}
@@ -1,28 +1,28 @@
 package com.al.mt.events;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
 import com.al.mt.enums.Reason;
+import com.al.mt.model.Money;
 
 public class MoneyTransferCancelled extends DomainEvent {
 	private UUID transactionID;
 	private UUID fromID;
 	private UUID toID;
-	private BigDecimal value;
+	private Money value;
 	private Reason reason;
 
 	private MoneyTransferCancelled() {
 	}
 
 	public MoneyTransferCancelled(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value, final Reason reason) {
+			final Money value, final Reason reason) {
 		this(aggregateID, fromID, toID, transactionID, value, reason, new Date());
 	}
 
 	public MoneyTransferCancelled(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value, final Reason reason, final Date date) {
+			final Money value, final Reason reason, final Date date) {
 		super(aggregateID, date);
 		this.transactionID = transactionID;
 		this.fromID = fromID;
@@ -43,7 +43,7 @@ public class MoneyTransferCancelled extends DomainEvent {
 		return this.toID;
 	}
 
-	public final BigDecimal getValue() {
+	public final Money getValue() {
 		return this.value;
 	}
 
@@ -51,6 +51,11 @@ public class MoneyTransferCancelled extends DomainEvent {
 		return this.reason;
 	}
 
+	@Override
+	public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+		return visitor.visit(this, argument);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -144,7 +149,7 @@ public class MoneyTransferCancelled extends DomainEvent {
 			return this;
 		}
 
-		public final Builder setValue(final BigDecimal value) {
+		public final Builder setValue(final Money value) {
 			MoneyTransferCancelled.this.value = value;
 
 			return this;
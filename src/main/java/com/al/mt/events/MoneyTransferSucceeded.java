@@ -1,18 +1,19 @@
 package com.al.mt.events;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
+import com.al.mt.model.Money;
+
 public class MoneyTransferSucceeded extends DomainEvent {
 
 	private final UUID transactionID;
 	private final UUID fromID;
 	private final UUID toID;
-	private final BigDecimal value;
+	private final Money value;
 
 	public MoneyTransferSucceeded(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value) {
+			final Money value) {
 		super(aggregateID, new Date());
 		this.transactionID = transactionID;
 		this.fromID = fromID;
@@ -21,7 +22,7 @@ public class MoneyTransferSucceeded extends DomainEvent {
 	}
 
 	public MoneyTransferSucceeded(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value, final Date date) {
+			final Money value, final Date date) {
 		super(aggregateID, date);
 		this.transactionID = transactionID;
 		this.fromID = fromID;
@@ -41,10 +42,15 @@ public class MoneyTransferSucceeded extends DomainEvent {
 		return this.toID;
 	}
 
-	public final BigDecimal getValue() {
+	public final Money getValue() {
 		return this.value;
 	}
 
+	@Override
+	public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+		return visitor.visit(this, argument);
+	}
+
 	@Override
 	public String toString() {
 		return new StringBuilder("MoneyTransferSucceeded [transactionID=").append(this.transactionID)
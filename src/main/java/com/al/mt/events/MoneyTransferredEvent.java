@@ -1,22 +1,23 @@
 package com.al.mt.events;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
+import com.al.mt.model.Money;
+
 public class MoneyTransferredEvent extends DomainEvent {
 	private final UUID transactionID;
 	private final UUID fromID;
 	private final UUID toID;
-	private final BigDecimal value;
+	private final Money value;
 
 	public MoneyTransferredEvent(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value) {
+			final Money value) {
 		this(aggregateID, fromID, toID, transactionID, value, new Date());
 	}
 
 	public MoneyTransferredEvent(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			BigDecimal value, final Date date) {
+			Money value, final Date date) {
 		super(aggregateID, date);
 		this.transactionID = transactionID;
 		this.fromID = fromID;
@@ -36,10 +37,15 @@ public class MoneyTransferredEvent extends DomainEvent {
 		return this.toID;
 	}
 
-	public final BigDecimal getValue() {
+	public final Money getValue() {
 		return this.value;
 	}
 
+	@Override
+	public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+		return visitor.visit(this, argument);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,107 @@
+package com.al.mt.events;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link EventBus} which processes events in a fixed number of single-threaded
+ * shards.
+ *
+ * <p>
+ * A {@link DomainEvent} is handled by the shard its aggregate ID hashes to and
+ * a {@link MoneyTransferBatch} by the shard of its issuer, so commands of an
+ * issuer are handled one at a time in the order they were posted. A transfer
+ * is handled entirely by the shard of its issuer, which writes the receiver's
+ * events as well, so a shard isn't the only writer of its aggregates:
+ * {@link com.al.mt.aggregates.AccountLocks} guard accounts written by several
+ * shards and optimistic concurrency of
+ * {@link com.al.mt.aggregates.AccountEventStorage} detects any other conflict.
+ *
+ * <p>
+ * Posting these events only queues them, they're handled asynchronously. Any
+ * other event is handled right away by the posting thread. Queues are
+ * unbounded, so a posting thread never blocks, {@link #getQueueDepths()} should
+ * be watched instead and admission control bounds the work queued by clients.
+ */
+public class ShardedEventBus extends EventBus {
+	private final ThreadPoolExecutor[] shards;
+
+	public ShardedEventBus(final int shards) {
+		this(shards, Executors.defaultThreadFactory());
+	}
+
+	/**
+	 * @param threadFactory Factory of shard threads, e.g. of virtual threads.
+	 */
+	public ShardedEventBus(final int shards, final ThreadFactory threadFactory) {
+		super("sharded");
+		if (shards < 1) {
+			throw new IllegalArgumentException(String.format("Number of shards must be positive: %d", shards));
+		}
+		this.shards = new ThreadPoolExecutor[shards];
+		for (int i = 0; i < shards; i++) {
+			this.shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+					new ThreadFactoryBuilder().setThreadFactory(threadFactory).setNameFormat("event-shard-" + i)
+							.setDaemon(true).build());
+		}
+	}
+
+	@Override
+	public void post(final Object event) {
+		if (event instanceof DomainEvent) {
+			this.shards[shardOf(((DomainEvent) event).getAggregateID())].execute(() -> super.post(event));
+		} else if (event instanceof MoneyTransferBatch) {
+			this.shards[shardOf(((MoneyTransferBatch) event).getFromID())].execute(() -> super.post(event));
+		} else {
+			super.post(event);
+		}
+	}
+
+	/**
+	 * @return Index of the shard which handles events of given aggregate.
+	 */
+	public int shardOf(final UUID aggregateID) {
+		return Math.floorMod(aggregateID.hashCode(), this.shards.length);
+	}
+
+	public int getShards() {
+		return this.shards.length;
+	}
+
+	/**
+	 * @return Number of events waiting in the queue of each shard, not counting
+	 *         events being handled.
+	 */
+	public int[] getQueueDepths() {
+		final int[] depths = new int[this.shards.length];
+		for (int i = 0; i < depths.length; i++) {
+			depths[i] = this.shards[i].getQueue().size();
+		}
+		return depths;
+	}
+
+	/**
+	 * Handles events queued so far and stops all shards.
+	 *
+	 * @return {@code false} when shards didn't stop before the timeout.
+	 */
+	public boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+		for (final ThreadPoolExecutor shard : this.shards) {
+			shard.shutdown();
+		}
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (final ThreadPoolExecutor shard : this.shards) {
+			if (!shard.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
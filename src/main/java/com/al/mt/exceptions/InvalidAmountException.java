@@ -0,0 +1,25 @@
+package com.al.mt.exceptions;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * InvalidAmountException happens when an amount in JSON is well-formed but
+ * isn't a number, e.g. a word or an object, or doesn't fit
+ * {@link com.al.mt.model.Money}.
+ */
+public class InvalidAmountException extends JsonParseException {
+	private final String path;
+
+	public InvalidAmountException(final String path, final String message, final Throwable cause) {
+		super(message, cause);
+		this.path = path;
+	}
+
+	/**
+	 * @return JSON path of the amount, e.g. {@code $.value} or
+	 *         {@code $[1].value}.
+	 */
+	public String getPath() {
+		return this.path;
+	}
+}
@@ -0,0 +1,15 @@
+package com.al.mt.exceptions;
+
+/**
+ * JournalException happens when events cannot be written to or read from the
+ * durable event journal.
+ */
+public class JournalException extends RuntimeException {
+	public JournalException(final String message) {
+		super(message);
+	}
+
+	public JournalException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+}
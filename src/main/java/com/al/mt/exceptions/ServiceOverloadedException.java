@@ -0,0 +1,21 @@
+package com.al.mt.exceptions;
+
+/**
+ * ServiceOverloadedException happens when a command is not admitted because
+ * too many commands are already being processed.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+	private final long retryAfterSeconds;
+
+	public ServiceOverloadedException(final String message, final long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	/**
+	 * @return Number of seconds the client should wait before retrying.
+	 */
+	public long getRetryAfterSeconds() {
+		return this.retryAfterSeconds;
+	}
+}
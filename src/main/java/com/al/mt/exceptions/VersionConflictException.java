@@ -0,0 +1,11 @@
+package com.al.mt.exceptions;
+
+/**
+ * VersionConflictException happens when an event is saved for an aggregate
+ * which changed since the version the event was based on.
+ */
+public class VersionConflictException extends RuntimeException {
+	public VersionConflictException(final String message) {
+		super(message);
+	}
+}
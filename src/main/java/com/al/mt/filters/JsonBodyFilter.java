@@ -1,21 +1,54 @@
 package com.al.mt.filters;
 
+import java.io.EOFException;
+
+import com.al.mt.controllers.AccountController;
 import com.al.mt.enums.Status;
+import com.al.mt.exceptions.InvalidAmountException;
 import com.al.mt.model.APIResponse;
+import com.al.mt.utils.JsonUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
 import spark.Filter;
 import spark.Request;
 import spark.Response;
 
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static spark.Spark.halt;
-import static com.al.mt.utils.JsonUtils.isJSONValid;
 
 /**
  * Verifies if incoming body is not empty and in JSON format.
+ *
+ * <p>
+ * The body is parsed once, straight into the request DTO of the route, and
+ * attached to the request, routes read it with {@link #body(Request)}.
  */
-public class JsonBodyFilter implements Filter {
+public class JsonBodyFilter<T> implements Filter {
 	private static final ImmutableSet<String> HTTP_METHODS_WITH_BODY = ImmutableSet.of("POST", "PUT");
+	private static final String BODY_ATTRIBUTE = JsonBodyFilter.class.getName() + ".body";
+
+	private final Class<T> type;
+	private final String typeMismatchMessage;
+
+	/**
+	 * @param type                Request DTO the body is parsed into.
+	 * @param typeMismatchMessage Error of a body in JSON format which isn't a
+	 *                            {@code type}.
+	 */
+	public JsonBodyFilter(final Class<T> type, final String typeMismatchMessage) {
+		this.type = type;
+		this.typeMismatchMessage = typeMismatchMessage;
+	}
+
+	/**
+	 * @return Body parsed by the filter of the route.
+	 */
+	public static <T> T body(final Request request) {
+		return request.attribute(BODY_ATTRIBUTE);
+	}
 
 	private static void stopRequest(final String message) {
 		halt(HTTP_BAD_REQUEST,
@@ -26,14 +59,44 @@ public class JsonBodyFilter implements Filter {
 				.toJson());
 	}
 
+	/**
+	 * @return Field of a JSON path relative to the body, e.g. {@code value} of
+	 *         {@code $.value}.
+	 */
+	private static String fieldOf(final String path) {
+		return path.startsWith("$.") ? path.substring(2) : path.substring(1);
+	}
+
 	@Override
 	public void handle(final Request request, final Response response) {
 		if (HTTP_METHODS_WITH_BODY.contains(request.requestMethod())) {
 			if (request.body().isEmpty()) {
 				stopRequest("Body is empty");
-			} else if (!isJSONValid(request.body())) {
+			}
+			final T body;
+			try {
+				body = JsonUtils.GSON.fromJson(request.body(), this.type);
+			} catch (final InvalidAmountException e) {
+				// A well-formed body with a bad amount is reported like any invalid field
+				halt(HTTP_BAD_REQUEST,
+						APIResponse.builder()
+						.setStatus(Status.ERROR)
+						.setMessage(AccountController.VALIDATION_ERROR_MESSAGE)
+						.setData(ImmutableMap.of(fieldOf(e.getPath()), ImmutableList.of(e.getMessage())))
+						.build()
+						.toJson());
+				return;
+			} catch (final JsonParseException e) {
+				// Syntax errors are reported apart from JSON of another shape
+				stopRequest(e.getCause() instanceof MalformedJsonException || e.getCause() instanceof EOFException
+						|| e.getCause() == null ? "Body is required and it is not in JSON format"
+								: this.typeMismatchMessage);
+				return;
+			}
+			if (body == null) {
 				stopRequest("Body is required and it is not in JSON format");
 			}
+			request.attribute(BODY_ATTRIBUTE, body);
 		}
 	}
 }
@@ -0,0 +1,45 @@
+package com.al.mt.filters;
+
+import java.io.IOException;
+
+import com.al.mt.utils.JsonUtils;
+
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * Streams results of routes wrapped with {@link #stream(Route)} as JSON onto
+ * the servlet output stream, large responses are sent while they are
+ * serialized instead of being built as a whole string first. List routes
+ * return a {@link com.al.mt.model.Page}, which is read from its projection
+ * while it's written, so the list isn't built first either.
+ *
+ * <p>
+ * Response headers can't change once it's streamed, so it has to be the last
+ * after-after filter. Responses of failed routes, e.g. exception handlers, are
+ * not streamed.
+ */
+public class JsonStreamingFilter implements Filter {
+	private static final String RESULT_ATTRIBUTE = JsonStreamingFilter.class.getName() + ".result";
+
+	/**
+	 * @return Route which keeps the result of {@code route} for this filter.
+	 */
+	public static Route stream(final Route route) {
+		return (request, response) -> {
+			request.attribute(RESULT_ATTRIBUTE, route.handle(request, response));
+			// Any body is skipped once the streamed response is committed
+			return "";
+		};
+	}
+
+	@Override
+	public void handle(final Request request, final Response response) throws IOException {
+		final Object result = request.attribute(RESULT_ATTRIBUTE);
+		if (result != null) {
+			JsonUtils.toJson(result, response.raw().getOutputStream());
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.al.mt.journal;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import com.al.mt.enums.Reason;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+
+/**
+ * Compact binary encoding of events.
+ *
+ * <p>
+ * Every event starts with the format version (1 byte) and the event type tag
+ * (1 byte), followed by the aggregate ID and creation time, and then the fields
+ * of the event type. UUIDs are stored as two longs, amounts as long minor
+ * units and int scale, dates as milliseconds since epoch and strings as UTF-8
+ * bytes prefixed with their length ({@code -1} for {@code null}).
+ *
+ * <p>
+ * A new format version has to be introduced whenever the layout changes,
+ * {@link #decode(ByteBuffer)} rejects versions it doesn't know.
+ */
+public class BinaryEventCodec implements EventCodec {
+	static final byte VERSION = 1;
+
+	private static final byte ACCOUNT_CREATED = 1;
+	private static final byte MONEY_TRANSFERRED = 2;
+	private static final byte ACCOUNT_DEBITED = 3;
+	private static final byte ACCOUNT_CREDITED = 4;
+	private static final byte MONEY_TRANSFER_SUCCEEDED = 5;
+	private static final byte MONEY_TRANSFER_CANCELLED = 6;
+
+	private static final Reason[] REASONS = Reason.values();
+
+	@Override
+	public void encode(final DomainEvent event, final ByteBuffer buffer) {
+		buffer.put(VERSION);
+		buffer.put(tagOf(event));
+		putUUID(buffer, event.getAggregateID());
+		buffer.putLong(event.getCreatedAt().getTime());
+
+		if (event instanceof AccountCreatedEvent) {
+			putString(buffer, ((AccountCreatedEvent) event).getFullName());
+		} else if (event instanceof MoneyTransferredEvent) {
+			final MoneyTransferredEvent transferred = (MoneyTransferredEvent) event;
+			putTransfer(buffer, transferred.getFromID(), transferred.getToID(), transferred.getTransactionID(),
+					transferred.getValue());
+		} else if (event instanceof AccountDebitedEvent) {
+			final AccountDebitedEvent debited = (AccountDebitedEvent) event;
+			putTransfer(buffer, debited.getFromID(), debited.getToID(), debited.getTransactionID(),
+					debited.getValue());
+		} else if (event instanceof AccountCreditedEvent) {
+			final AccountCreditedEvent credited = (AccountCreditedEvent) event;
+			putTransfer(buffer, credited.getFromID(), credited.getToID(), credited.getTransactionID(),
+					credited.getValue());
+		} else if (event instanceof MoneyTransferSucceeded) {
+			final MoneyTransferSucceeded succeeded = (MoneyTransferSucceeded) event;
+			putTransfer(buffer, succeeded.getFromID(), succeeded.getToID(), succeeded.getTransactionID(),
+					succeeded.getValue());
+		} else {
+			final MoneyTransferCancelled cancelled = (MoneyTransferCancelled) event;
+			putTransfer(buffer, cancelled.getFromID(), cancelled.getToID(), cancelled.getTransactionID(),
+					cancelled.getValue());
+			buffer.put(cancelled.getReason() == null ? -1 : (byte) cancelled.getReason().ordinal());
+		}
+	}
+
+	@Override
+	public DomainEvent decode(final ByteBuffer buffer) {
+		final byte version = buffer.get();
+		if (version != VERSION) {
+			throw new IllegalArgumentException(String.format("Unsupported event format version: %d", version));
+		}
+		final byte tag = buffer.get();
+		final UUID aggregateID = getUUID(buffer);
+		final Date createdAt = new Date(buffer.getLong());
+
+		if (tag == ACCOUNT_CREATED) {
+			return new AccountCreatedEvent(aggregateID, getString(buffer), createdAt);
+		}
+		final UUID fromID = getUUID(buffer);
+		final UUID toID = getUUID(buffer);
+		final UUID transactionID = getUUID(buffer);
+		final Money value = getAmount(buffer);
+		switch (tag) {
+		case MONEY_TRANSFERRED:
+			return new MoneyTransferredEvent(aggregateID, fromID, toID, transactionID, value, createdAt);
+		case ACCOUNT_DEBITED:
+			return new AccountDebitedEvent(aggregateID, fromID, toID, transactionID, value, createdAt);
+		case ACCOUNT_CREDITED:
+			return new AccountCreditedEvent(aggregateID, fromID, toID, transactionID, value, createdAt);
+		case MONEY_TRANSFER_SUCCEEDED:
+			return new MoneyTransferSucceeded(aggregateID, fromID, toID, transactionID, value, createdAt);
+		case MONEY_TRANSFER_CANCELLED:
+			final byte reason = buffer.get();
+			return new MoneyTransferCancelled(aggregateID, fromID, toID, transactionID, value,
+					reason < 0 ? null : REASONS[reason], createdAt);
+		default:
+			throw new IllegalArgumentException(String.format("Unknown event tag: %d", tag));
+		}
+	}
+
+	private static byte tagOf(final DomainEvent event) {
+		if (event instanceof AccountCreatedEvent) {
+			return ACCOUNT_CREATED;
+		} else if (event instanceof MoneyTransferredEvent) {
+			return MONEY_TRANSFERRED;
+		} else if (event instanceof AccountDebitedEvent) {
+			return ACCOUNT_DEBITED;
+		} else if (event instanceof AccountCreditedEvent) {
+			return ACCOUNT_CREDITED;
+		} else if (event instanceof MoneyTransferSucceeded) {
+			return MONEY_TRANSFER_SUCCEEDED;
+		} else if (event instanceof MoneyTransferCancelled) {
+			return MONEY_TRANSFER_CANCELLED;
+		}
+		throw new IllegalArgumentException(String.format("Unknown event type: %s", event.getEventType()));
+	}
+
+	private static void putTransfer(final ByteBuffer buffer, final UUID fromID, final UUID toID,
+			final UUID transactionID, final Money value) {
+		putUUID(buffer, fromID);
+		putUUID(buffer, toID);
+		putUUID(buffer, transactionID);
+		buffer.putLong(value.getMinorUnits());
+		buffer.putInt(value.getScale());
+	}
+
+	private static Money getAmount(final ByteBuffer buffer) {
+		final long minorUnits = buffer.getLong();
+		return Money.ofMinor(minorUnits, buffer.getInt());
+	}
+
+	private static void putUUID(final ByteBuffer buffer, final UUID uuid) {
+		buffer.putLong(uuid.getMostSignificantBits());
+		buffer.putLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID getUUID(final ByteBuffer buffer) {
+		final long mostSignificantBits = buffer.getLong();
+		return new UUID(mostSignificantBits, buffer.getLong());
+	}
+
+	private static void putString(final ByteBuffer buffer, final String value) {
+		if (value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String getString(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		final String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+					StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			final byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,51 @@
+package com.al.mt.journal;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.al.mt.events.DomainEvent;
+
+/**
+ * Payload of a journal record which holds several events written by
+ * {@link EventJournal#appendAll(List)}. Each event is prefixed with the length
+ * of its encoding (4 bytes), so the whole batch is covered by the checksum of
+ * one record and is recovered either completely or not at all.
+ */
+final class EventBatch {
+
+	private EventBatch() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Writes {@code events} at the current position of {@code buffer}.
+	 *
+	 * @throws BufferOverflowException when the events don't fit into the
+	 *                                 buffer.
+	 */
+	static void encode(final EventCodec codec, final List<DomainEvent> events, final ByteBuffer buffer) {
+		for (final DomainEvent event : events) {
+			final int start = buffer.position();
+			buffer.putInt(0);
+			codec.encode(event, buffer);
+			buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+		}
+	}
+
+	/**
+	 * Passes events read from the remaining bytes of {@code payload} to
+	 * {@code consumer}.
+	 */
+	static void decode(final EventCodec codec, final ByteBuffer payload, final Consumer<DomainEvent> consumer) {
+		final ByteBuffer batch = payload.duplicate();
+		while (batch.hasRemaining()) {
+			final int length = batch.getInt();
+			final ByteBuffer event = batch.duplicate();
+			event.limit(batch.position() + length);
+			consumer.accept(codec.decode(event));
+			batch.position(batch.position() + length);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.al.mt.journal;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import com.al.mt.events.DomainEvent;
+
+/**
+ * Translates {@link DomainEvent} to bytes stored in {@link EventJournal} and
+ * back.
+ */
+public interface EventCodec {
+
+	/**
+	 * Writes {@code event} at the current position of {@code buffer}.
+	 *
+	 * @throws BufferOverflowException when the event doesn't fit into the
+	 *                                 buffer.
+	 */
+	void encode(final DomainEvent event, final ByteBuffer buffer);
+
+	/**
+	 * Reads event from the remaining bytes of {@code buffer}.
+	 */
+	DomainEvent decode(final ByteBuffer buffer);
+}
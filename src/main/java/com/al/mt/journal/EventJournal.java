@@ -0,0 +1,87 @@
+package com.al.mt.journal;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.al.mt.events.DomainEvent;
+import com.al.mt.exceptions.JournalException;
+
+/**
+ * Durable, append-only journal of all stored {@link DomainEvent}s.
+ *
+ * <p>
+ * Writing an event and making it durable are separate steps, so that many
+ * writers can share one sync of the underlying storage (group commit).
+ */
+public interface EventJournal extends AutoCloseable {
+
+	/**
+	 * Writes event to the journal.
+	 *
+	 * @return Position of the journal after the event, it's durable once
+	 *         {@link #awaitDurable(long)} returns for it.
+	 * @throws JournalException when the event cannot be written.
+	 */
+	long append(final DomainEvent event);
+
+	/**
+	 * Writes events to the journal as one unit, after a crash either all of them
+	 * are replayed or none. Journals that can't write them as one record append
+	 * them one by one.
+	 *
+	 * @return Position of the journal after the events, they are durable once
+	 *         {@link #awaitDurable(long)} returns for it.
+	 * @throws JournalException when the events cannot be written.
+	 */
+	default long appendAll(final List<DomainEvent> events) {
+		long position = 0;
+		for (final DomainEvent event : events) {
+			position = append(event);
+		}
+		return position;
+	}
+
+	/**
+	 * Blocks until everything written up to {@code position} is durable.
+	 *
+	 * @throws JournalException when syncing the journal failed.
+	 */
+	void awaitDurable(final long position);
+
+	/**
+	 * Passes all journaled events in order they were written to
+	 * {@code consumer}.
+	 */
+	void replay(final Consumer<DomainEvent> consumer);
+
+	@Override
+	void close();
+
+	/**
+	 * @return Journal which doesn't store anything, events live only in memory.
+	 */
+	static EventJournal none() {
+		return NoJournal.INSTANCE;
+	}
+
+	enum NoJournal implements EventJournal {
+		INSTANCE;
+
+		@Override
+		public long append(final DomainEvent event) {
+			return 0;
+		}
+
+		@Override
+		public void awaitDurable(final long position) {
+		}
+
+		@Override
+		public void replay(final Consumer<DomainEvent> consumer) {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package com.al.mt.journal;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.al.mt.events.DomainEvent;
+import com.al.mt.exceptions.JournalException;
+
+/**
+ * {@link EventJournal} stored in a single append-only file.
+ *
+ * <p>
+ * Each event is stored as a record: length of the encoded event (4 bytes),
+ * CRC32 checksum of the encoded event (4 bytes) and the event encoded by
+ * {@link EventCodec}. A record that is cut off or doesn't match its checksum
+ * marks the end of the journal, it's truncated when the journal is opened.
+ * Events appended together by {@link #appendAll(List)} are stored in one
+ * {@link EventBatch} record marked by a negative length.
+ *
+ * <p>
+ * Writes go straight to the {@link FileChannel}, syncing them to disk is done
+ * by {@link GroupCommit} so concurrent writers share a single sync.
+ */
+public class FileEventJournal implements EventJournal {
+	private final static Logger LOG = LoggerFactory.getLogger(FileEventJournal.class);
+
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+	private final FileChannel channel;
+	private final EventCodec codec;
+	private final GroupCommit groupCommit;
+
+	// Guarded by this
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private long position;
+
+	private FileEventJournal(final Path path, final FileChannel channel, final long position,
+			final EventCodec codec, final long syncInterval, final TimeUnit unit, final int syncBatchSize) {
+		this.channel = channel;
+		this.position = position;
+		this.codec = codec;
+		this.groupCommit = new GroupCommit("journal-sync-" + path.getFileName(), () -> channel.force(false),
+				syncInterval, unit, syncBatchSize);
+	}
+
+	/**
+	 * Opens journal stored in {@code path}, the file is created when it doesn't
+	 * exist.
+	 *
+	 * @param syncInterval  Maximum time a write waits for other writes to join
+	 *                      its sync.
+	 * @param syncBatchSize Number of writes which are synced right away without
+	 *                      waiting for {@code syncInterval}.
+	 */
+	public static FileEventJournal open(final Path path, final EventCodec codec, final long syncInterval,
+			final TimeUnit unit, final int syncBatchSize) {
+		try {
+			final FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+			final long end = scan(channel, codec, null);
+			if (end < channel.size()) {
+				LOG.warn("Truncating {} bytes of incomplete record at the end of journal {}", channel.size() - end,
+						path);
+				channel.truncate(end);
+				channel.force(true);
+			}
+			channel.position(end);
+			return new FileEventJournal(path, channel, end, codec, syncInterval, unit, syncBatchSize);
+		} catch (final IOException e) {
+			throw new JournalException(String.format("Journal %s could not be opened", path), e);
+		}
+	}
+
+	@Override
+	public synchronized long append(final DomainEvent event) {
+		final ByteBuffer record = encode(buffer -> this.codec.encode(event, buffer), false);
+		try {
+			write(record);
+		} catch (final IOException e) {
+			throw new JournalException(String.format("Event %s could not be written", event), e);
+		}
+		return this.position;
+	}
+
+	@Override
+	public synchronized long appendAll(final List<DomainEvent> events) {
+		if (events.size() <= 1) {
+			// Nothing to keep together
+			return EventJournal.super.appendAll(events);
+		}
+		final ByteBuffer record = encode(buffer -> EventBatch.encode(this.codec, events, buffer), true);
+		try {
+			write(record);
+		} catch (final IOException e) {
+			throw new JournalException(String.format("Events %s could not be written", events), e);
+		}
+		return this.position;
+	}
+
+	private void write(final ByteBuffer record) throws IOException {
+		while (record.hasRemaining()) {
+			this.channel.write(record);
+		}
+		this.position += record.limit();
+		this.groupCommit.written(this.position);
+	}
+
+	@Override
+	public void awaitDurable(final long position) {
+		this.groupCommit.awaitDurable(position);
+	}
+
+	@Override
+	public void replay(final Consumer<DomainEvent> consumer) {
+		try {
+			scan(this.channel, this.codec, consumer);
+		} catch (final IOException e) {
+			throw new JournalException("Journal could not be read", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.groupCommit.close();
+		try {
+			this.channel.close();
+		} catch (final IOException e) {
+			throw new JournalException("Journal could not be closed", e);
+		}
+	}
+
+	/**
+	 * @return Number of syncs done so far.
+	 */
+	long syncs() {
+		return this.groupCommit.syncs();
+	}
+
+	/**
+	 * Encodes payload written by {@code encoder} into a record prefixed with
+	 * length and checksum.
+	 */
+	private ByteBuffer encode(final Consumer<ByteBuffer> encoder, final boolean batch) {
+		while (true) {
+			this.buffer.clear();
+			this.buffer.position(HEADER_SIZE);
+			try {
+				encoder.accept(this.buffer);
+				break;
+			} catch (final BufferOverflowException e) {
+				this.buffer = ByteBuffer.allocate(this.buffer.capacity() * 2);
+			}
+		}
+		final int length = this.buffer.position() - HEADER_SIZE;
+		this.buffer.flip();
+		this.buffer.position(HEADER_SIZE);
+		final int checksum = checksum(this.buffer);
+		this.buffer.putInt(0, batch ? -length : length);
+		this.buffer.putInt(Integer.BYTES, checksum);
+		this.buffer.position(0);
+		return this.buffer;
+	}
+
+	private static int checksum(final ByteBuffer payload) {
+		final CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Reads valid records from the beginning of the journal and passes their
+	 * events to {@code consumer} when it's given.
+	 *
+	 * @return Position right after the last valid record.
+	 */
+	private static long scan(final FileChannel channel, final EventCodec codec, final Consumer<DomainEvent> consumer)
+			throws IOException {
+		final long size = channel.size();
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		long position = 0;
+		while (position + HEADER_SIZE <= size) {
+			header.clear();
+			readFully(channel, header, position);
+			header.flip();
+			final int storedLength = header.getInt();
+			final boolean batch = storedLength < 0;
+			final int length = batch ? -storedLength : storedLength;
+			final int checksum = header.getInt();
+			if (length <= 0 || position + HEADER_SIZE + length > size) {
+				break;
+			}
+			final ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(channel, payload, position + HEADER_SIZE);
+			payload.flip();
+			if (checksum(payload) != checksum) {
+				break;
+			}
+			if (consumer != null && batch) {
+				EventBatch.decode(codec, payload, consumer);
+			} else if (consumer != null) {
+				consumer.accept(codec.decode(payload));
+			}
+			position += HEADER_SIZE + length;
+		}
+		return position;
+	}
+
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+			throws IOException {
+		long offset = position;
+		while (buffer.hasRemaining()) {
+			final int read = channel.read(buffer, offset);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			offset += read;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.al.mt.journal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.al.mt.exceptions.JournalException;
+
+/**
+ * Syncs written data of a journal on behalf of many writers at once.
+ *
+ * <p>
+ * Writers report what they wrote with {@link #written(long)} and wait in
+ * {@link #awaitDurable(long)}. A background thread syncs the journal once
+ * {@code batchSize} writes are pending or {@code interval} passed since the
+ * first pending write, whichever comes first, and then releases all writers
+ * whose data got synced.
+ */
+final class GroupCommit implements AutoCloseable {
+	private final static Logger LOG = LoggerFactory.getLogger(GroupCommit.class);
+
+	/**
+	 * Makes everything written so far durable.
+	 */
+	@FunctionalInterface
+	interface Sync {
+		void sync() throws IOException;
+	}
+
+	private final Sync sync;
+	private final long intervalNanos;
+	private final int batchSize;
+	private final Thread thread;
+
+	private final Lock lock = new ReentrantLock();
+	private final Condition pendingWrites = this.lock.newCondition();
+	private final Condition synced = this.lock.newCondition();
+
+	// Guarded by lock
+	private long writtenPosition;
+	private long durablePosition;
+	private int pending;
+	private boolean closed;
+	private IOException failure;
+	private long syncs;
+
+	GroupCommit(final String name, final Sync sync, final long interval, final TimeUnit unit, final int batchSize) {
+		this.sync = sync;
+		this.intervalNanos = unit.toNanos(interval);
+		this.batchSize = Math.max(1, batchSize);
+		this.thread = new Thread(this::run, name);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Records that data up to {@code position} was written and should be synced.
+	 * Must be called with non-decreasing positions.
+	 */
+	void written(final long position) {
+		this.lock.lock();
+		try {
+			this.writtenPosition = position;
+			if (++this.pending == 1 || this.pending >= this.batchSize) {
+				this.pendingWrites.signal();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	void awaitDurable(final long position) {
+		this.lock.lock();
+		try {
+			while (this.durablePosition < position) {
+				if (this.failure != null) {
+					throw new JournalException("Journal could not be synced", this.failure);
+				}
+				if (this.closed) {
+					throw new JournalException("Journal is closed");
+				}
+				this.synced.awaitUninterruptibly();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Number of syncs done so far.
+	 */
+	long syncs() {
+		this.lock.lock();
+		try {
+			return this.syncs;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void run() {
+		while (true) {
+			final long position;
+			this.lock.lock();
+			try {
+				while (this.pending == 0 && !this.closed) {
+					this.pendingWrites.awaitUninterruptibly();
+				}
+				// Gives other writers a chance to join the batch
+				long remainingNanos = this.intervalNanos;
+				while (this.pending < this.batchSize && remainingNanos > 0 && !this.closed) {
+					try {
+						remainingNanos = this.pendingWrites.awaitNanos(remainingNanos);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+				if (this.pending == 0) {
+					// Closed without anything to sync
+					this.synced.signalAll();
+					return;
+				}
+				position = this.writtenPosition;
+				this.pending = 0;
+			} finally {
+				this.lock.unlock();
+			}
+
+			IOException failure = null;
+			try {
+				this.sync.sync();
+			} catch (final IOException e) {
+				LOG.error("Journal sync failed", e);
+				failure = e;
+			}
+
+			this.lock.lock();
+			try {
+				if (failure == null) {
+					this.durablePosition = position;
+					this.syncs++;
+				} else {
+					this.failure = failure;
+				}
+				this.synced.signalAll();
+				if (failure != null) {
+					return;
+				}
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Syncs pending writes and stops the syncing thread.
+	 */
+	@Override
+	public void close() {
+		this.lock.lock();
+		try {
+			this.closed = true;
+			this.pendingWrites.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		try {
+			this.thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.al.mt.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Stores events as UTF-8 encoded JSON. The type of the event is resolved from
+ * its {@code eventType} field, dates are stored as milliseconds since epoch so
+ * they are restored exactly.
+ */
+public class JsonEventCodec implements EventCodec {
+	private static final ImmutableMap<String, Class<? extends DomainEvent>> EVENT_TYPES = ImmutableSet
+			.of(AccountCreatedEvent.class, MoneyTransferredEvent.class, AccountDebitedEvent.class,
+					AccountCreditedEvent.class, MoneyTransferSucceeded.class, MoneyTransferCancelled.class)
+			.stream().collect(ImmutableMap.toImmutableMap(
+					type -> CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, type.getSimpleName()),
+					type -> type));
+
+	private static final Gson GSON = new GsonBuilder().registerTypeAdapter(Date.class, new TypeAdapter<Date>() {
+		@Override
+		public void write(final JsonWriter out, final Date value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+			} else {
+				out.value(value.getTime());
+			}
+		}
+
+		@Override
+		public Date read(final JsonReader in) throws IOException {
+			return new Date(in.nextLong());
+		}
+	}).create();
+
+	@Override
+	public void encode(final DomainEvent event, final ByteBuffer buffer) {
+		buffer.put(GSON.toJson(event).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public DomainEvent decode(final ByteBuffer buffer) {
+		final JsonObject json = GSON.fromJson(StandardCharsets.UTF_8.decode(buffer).toString(), JsonObject.class);
+		final String eventType = json.get("eventType").getAsString();
+		final Class<? extends DomainEvent> type = EVENT_TYPES.get(eventType);
+		if (type == null) {
+			throw new IllegalArgumentException(String.format("Unknown event type: %s", eventType));
+		}
+		return GSON.fromJson(json, type);
+	}
+}
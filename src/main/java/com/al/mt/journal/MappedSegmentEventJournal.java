@@ -0,0 +1,380 @@
+package com.al.mt.journal;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.al.mt.events.DomainEvent;
+import com.al.mt.exceptions.JournalException;
+
+/**
+ * {@link EventJournal} stored in a directory of fixed-size, memory-mapped
+ * segment files.
+ *
+ * <p>
+ * Records have the same layout as in {@link FileEventJournal}: length (4
+ * bytes), CRC32 checksum (4 bytes) and the encoded event, or an
+ * {@link EventBatch} marked by a negative length. Events are encoded
+ * straight into the mapped tail segment, the length is written last so a
+ * record becomes visible only when it's complete. A zero length marks the end
+ * of a segment, a record that doesn't fit into the tail segment starts a new
+ * one. A record larger than a whole segment is rejected.
+ *
+ * <p>
+ * Only the tail segment can contain a torn record, so opening the journal
+ * scans just the tail segment and clears a torn record at its end. Sealed
+ * segments are mapped read-only and are read only by {@link #replay(Consumer)},
+ * which decodes events directly from the mapped pages.
+ */
+public class MappedSegmentEventJournal implements EventJournal {
+	private final static Logger LOG = LoggerFactory.getLogger(MappedSegmentEventJournal.class);
+
+	private static final String SEGMENT_SUFFIX = ".segment";
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	private static final int END = -1;
+	private static final int INVALID = -2;
+	private static final byte[] ZEROS = new byte[4096];
+
+	private final Path directory;
+	private final EventCodec codec;
+	private final int segmentSize;
+	private final GroupCommit groupCommit;
+
+	// Guarded by this
+	private final List<Segment> sealed;
+	private long tailIndex;
+	private long tailBase;
+	private FileChannel tailChannel;
+	private volatile MappedByteBuffer tail;
+
+	private MappedSegmentEventJournal(final Path directory, final EventCodec codec, final int segmentSize,
+			final List<Segment> sealed, final long tailIndex, final long tailBase, final FileChannel tailChannel,
+			final MappedByteBuffer tail, final long syncInterval, final TimeUnit unit, final int syncBatchSize) {
+		this.directory = directory;
+		this.codec = codec;
+		this.segmentSize = segmentSize;
+		this.sealed = sealed;
+		this.tailIndex = tailIndex;
+		this.tailBase = tailBase;
+		this.tailChannel = tailChannel;
+		this.tail = tail;
+		this.groupCommit = new GroupCommit("journal-sync-" + directory.getFileName(), () -> this.tail.force(),
+				syncInterval, unit, syncBatchSize);
+	}
+
+	/**
+	 * Opens journal stored in {@code directory}, the directory is created when
+	 * it doesn't exist.
+	 *
+	 * @param segmentSize   Size of new segment files in bytes.
+	 * @param syncInterval  Maximum time a write waits for other writes to join
+	 *                      its sync.
+	 * @param syncBatchSize Number of writes which are synced right away without
+	 *                      waiting for {@code syncInterval}.
+	 */
+	public static MappedSegmentEventJournal open(final Path directory, final EventCodec codec, final int segmentSize,
+			final long syncInterval, final TimeUnit unit, final int syncBatchSize) {
+		try {
+			Files.createDirectories(directory);
+			final List<Path> paths;
+			try (Stream<Path> files = Files.list(directory)) {
+				paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted()
+						.collect(Collectors.toList());
+			}
+
+			final List<Segment> sealed = new ArrayList<>();
+			long tailBase = 0;
+			for (final Path path : paths.subList(0, Math.max(0, paths.size() - 1))) {
+				final Segment segment = Segment.readOnly(path);
+				sealed.add(segment);
+				tailBase += segment.buffer.capacity();
+			}
+
+			final long tailIndex;
+			final FileChannel tailChannel;
+			if (paths.isEmpty()) {
+				tailIndex = 0;
+				tailChannel = FileChannel.open(segmentPath(directory, tailIndex), CREATE_NEW, READ, WRITE);
+			} else {
+				final Path tailPath = paths.get(paths.size() - 1);
+				tailIndex = segmentIndex(tailPath);
+				tailChannel = FileChannel.open(tailPath, READ, WRITE);
+			}
+			final MappedByteBuffer tail = tailChannel.map(MapMode.READ_WRITE, 0,
+					Math.max(tailChannel.size(), segmentSize));
+			recoverTail(tail, segmentPath(directory, tailIndex));
+
+			return new MappedSegmentEventJournal(directory, codec, segmentSize, sealed, tailIndex, tailBase,
+					tailChannel, tail, syncInterval, unit, syncBatchSize);
+		} catch (final IOException e) {
+			throw new JournalException(String.format("Journal %s could not be opened", directory), e);
+		}
+	}
+
+	@Override
+	public synchronized long append(final DomainEvent event) {
+		final Consumer<ByteBuffer> encoder = buffer -> this.codec.encode(event, buffer);
+		if (!tryWrite(encoder, false)) {
+			if (!fitsIntoSegment(encoder)) {
+				throw new JournalException(String.format("Event %s doesn't fit into a segment", event));
+			}
+			roll();
+			tryWrite(encoder, false);
+		}
+		return written();
+	}
+
+	@Override
+	public synchronized long appendAll(final List<DomainEvent> events) {
+		if (events.size() <= 1) {
+			// Nothing to keep together
+			return EventJournal.super.appendAll(events);
+		}
+		final Consumer<ByteBuffer> encoder = buffer -> EventBatch.encode(this.codec, events, buffer);
+		if (!tryWrite(encoder, true)) {
+			if (!fitsIntoSegment(encoder)) {
+				throw new JournalException(String.format("Events %s don't fit into a segment", events));
+			}
+			roll();
+			tryWrite(encoder, true);
+		}
+		return written();
+	}
+
+	private long written() {
+		final long position = this.tailBase + this.tail.position();
+		this.groupCommit.written(position);
+		return position;
+	}
+
+	@Override
+	public void awaitDurable(final long position) {
+		this.groupCommit.awaitDurable(position);
+	}
+
+	@Override
+	public synchronized void replay(final Consumer<DomainEvent> consumer) {
+		for (final Segment segment : this.sealed) {
+			if (read(segment.buffer, segment.buffer.capacity(), consumer) == INVALID) {
+				throw new JournalException(String.format("Segment %s is corrupted", segment.path));
+			}
+		}
+		read(this.tail, this.tail.position(), consumer);
+	}
+
+	@Override
+	public void close() {
+		this.groupCommit.close();
+		synchronized (this) {
+			this.tail.force();
+			try {
+				this.tailChannel.close();
+			} catch (final IOException e) {
+				throw new JournalException("Journal could not be closed", e);
+			}
+		}
+	}
+
+	/**
+	 * @return Number of segments, including the tail segment.
+	 */
+	synchronized int segments() {
+		return this.sealed.size() + 1;
+	}
+
+	/**
+	 * Encodes payload written by {@code encoder} into a record at the end of the
+	 * tail segment.
+	 *
+	 * @return {@code false} when the record doesn't fit into the tail segment.
+	 */
+	private boolean tryWrite(final Consumer<ByteBuffer> encoder, final boolean batch) {
+		final MappedByteBuffer tail = this.tail;
+		final int start = tail.position();
+		if (tail.remaining() <= HEADER_SIZE) {
+			return false;
+		}
+		final ByteBuffer payload = tail.duplicate();
+		payload.position(start + HEADER_SIZE);
+		try {
+			encoder.accept(payload);
+		} catch (final BufferOverflowException e) {
+			// Leaves no partially encoded event behind the end of the segment
+			zero(tail, start + HEADER_SIZE, payload.position());
+			return false;
+		}
+		final int length = payload.position() - start - HEADER_SIZE;
+		payload.flip();
+		payload.position(start + HEADER_SIZE);
+		tail.putInt(start + Integer.BYTES, checksum(payload));
+		// Record becomes visible to recovery once its length is written
+		tail.putInt(start, batch ? -length : length);
+		tail.position(start + HEADER_SIZE + length);
+		return true;
+	}
+
+	/**
+	 * Encodes payload written by {@code encoder} into a scratch buffer, so a
+	 * record that doesn't fit even into an empty segment is rejected before the
+	 * tail segment is sealed.
+	 *
+	 * @return {@code false} when the record is larger than a new segment.
+	 */
+	private boolean fitsIntoSegment(final Consumer<ByteBuffer> encoder) {
+		try {
+			encoder.accept(ByteBuffer.allocate(this.segmentSize - HEADER_SIZE));
+			return true;
+		} catch (final BufferOverflowException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Seals the tail segment and starts a new one.
+	 */
+	private void roll() {
+		final Path path = segmentPath(this.directory, this.tailIndex);
+		try {
+			this.tail.force();
+			this.tailChannel.close();
+			this.sealed.add(Segment.readOnly(path));
+			this.tailBase += this.tail.capacity();
+			this.tailIndex++;
+			this.tailChannel = FileChannel.open(segmentPath(this.directory, this.tailIndex), CREATE_NEW, READ,
+					WRITE);
+			this.tail = this.tailChannel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+		} catch (final IOException e) {
+			throw new JournalException(String.format("Segment after %s could not be created", path), e);
+		}
+	}
+
+	/**
+	 * Finds the end of records in the tail segment and clears a torn record
+	 * after it.
+	 */
+	private static void recoverTail(final MappedByteBuffer tail, final Path path) {
+		int offset = 0;
+		int end;
+		while ((end = recordEnd(tail, offset)) > 0) {
+			offset = end;
+		}
+		if (end == INVALID) {
+			LOG.warn("Clearing incomplete record at offset {} of journal segment {}", offset, path);
+			zero(tail, offset, tail.capacity());
+			tail.force();
+		}
+		tail.position(offset);
+	}
+
+	/**
+	 * Passes events of records stored in {@code segment} before {@code limit} to
+	 * {@code consumer}.
+	 *
+	 * @return {@link #END} or {@link #INVALID} when an invalid record was found.
+	 */
+	private int read(final ByteBuffer segment, final int limit, final Consumer<DomainEvent> consumer) {
+		int offset = 0;
+		while (offset < limit) {
+			final int end = recordEnd(segment, offset);
+			if (end < 0) {
+				return end;
+			}
+			final ByteBuffer payload = segment.duplicate();
+			payload.limit(end);
+			payload.position(offset + HEADER_SIZE);
+			if (segment.getInt(offset) < 0) {
+				EventBatch.decode(this.codec, payload, consumer);
+			} else {
+				consumer.accept(this.codec.decode(payload));
+			}
+			offset = end;
+		}
+		return END;
+	}
+
+	/**
+	 * @return Offset right after the record at {@code offset}, {@link #END} when
+	 *         there are no more records or {@link #INVALID} when the record is
+	 *         torn or corrupted.
+	 */
+	private static int recordEnd(final ByteBuffer segment, final int offset) {
+		if (offset + HEADER_SIZE > segment.capacity()) {
+			return END;
+		}
+		final int storedLength = segment.getInt(offset);
+		if (storedLength == 0) {
+			return END;
+		}
+		// Negative length marks a batch
+		final int length = storedLength < 0 ? -storedLength : storedLength;
+		if (length < 0 || length > segment.capacity() - offset - HEADER_SIZE) {
+			return INVALID;
+		}
+		final ByteBuffer payload = segment.duplicate();
+		payload.limit(offset + HEADER_SIZE + length);
+		payload.position(offset + HEADER_SIZE);
+		if (checksum(payload) != segment.getInt(offset + Integer.BYTES)) {
+			return INVALID;
+		}
+		return offset + HEADER_SIZE + length;
+	}
+
+	private static int checksum(final ByteBuffer payload) {
+		final CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		return (int) crc.getValue();
+	}
+
+	private static void zero(final ByteBuffer segment, final int from, final int to) {
+		final ByteBuffer range = segment.duplicate();
+		range.limit(to);
+		range.position(from);
+		while (range.hasRemaining()) {
+			range.put(ZEROS, 0, Math.min(ZEROS.length, range.remaining()));
+		}
+	}
+
+	private static Path segmentPath(final Path directory, final long index) {
+		return directory.resolve(String.format("%019d%s", index, SEGMENT_SUFFIX));
+	}
+
+	private static long segmentIndex(final Path path) {
+		final String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static final class Segment {
+		private final Path path;
+		private final ByteBuffer buffer;
+
+		private Segment(final Path path, final ByteBuffer buffer) {
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		static Segment readOnly(final Path path) throws IOException {
+			try (FileChannel channel = FileChannel.open(path, READ)) {
+				return new Segment(path, channel.map(MapMode.READ_ONLY, 0, channel.size()));
+			}
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.al.mt.model;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import com.al.mt.enums.Status;
 import com.al.mt.utils.JsonUtils;
@@ -10,6 +11,8 @@ public class APIResponse {
 	private String message;
 	private Object data;
 	private List<Link> links;
+	// Not read from JSON, it's only there to write links
+	private transient Supplier<List<Link>> linksAfterData;
 
 	private APIResponse() {
 	}
@@ -26,8 +29,12 @@ public class APIResponse {
 		return this.data;
 	}
 
+	/**
+	 * @return Links set by {@link Builder#setLinksAfterData(Supplier)} are
+	 *         computed on each call, they are complete once data is written.
+	 */
 	public final List<Link> getLinks() {
-		return this.links;
+		return this.linksAfterData == null ? this.links : this.linksAfterData.get();
 	}
 
 	public static Builder builder() {
@@ -63,6 +70,16 @@ public class APIResponse {
 			return this;
 		}
 
+		/**
+		 * Sets links which depend on the data, e.g. a link to the page after a
+		 * {@link Page} which is read only while it's written.
+		 */
+		public final Builder setLinksAfterData(final Supplier<List<Link>> links) {
+			APIResponse.this.linksAfterData = links;
+
+			return this;
+		}
+
 		public APIResponse build() {
 			return APIResponse.this;
 		}
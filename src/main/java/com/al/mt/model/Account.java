@@ -2,22 +2,30 @@ package com.al.mt.model;
 
 import static com.al.mt.model.Link.getLinksForAccount;
 
-import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.al.mt.aggregates.AccountAggregate;
 import com.al.mt.events.DomainEvent;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 public class Account {
+	/**
+	 * Names of all fields of an account, in the order they are serialized.
+	 */
+	public static final ImmutableSet<String> FIELDS = ImmutableSet.of("accountNumber", "fullName", "balance",
+			"transactionToReservedBalance", "events", "transactions", "createdAt", "lastUpdatedAt", "links");
+
 	private UUID accountNumber;
 	private String fullName;
-	private BigDecimal balance;
-	private Map<UUID, BigDecimal> transactionToReservedBalance;
+	private Money balance;
+	private Map<UUID, Money> transactionToReservedBalance;
 	private Collection<DomainEvent> events;
 	private Map<UUID, MoneyTransaction> transactions;
 	private Date createdAt;
@@ -27,6 +35,42 @@ public class Account {
 	private Account() {
 	}
 
+	public final UUID getAccountNumber() {
+		return this.accountNumber;
+	}
+
+	public final String getFullName() {
+		return this.fullName;
+	}
+
+	public final Money getBalance() {
+		return this.balance;
+	}
+
+	public final Map<UUID, Money> getTransactionToReservedBalance() {
+		return this.transactionToReservedBalance;
+	}
+
+	public final Collection<DomainEvent> getEvents() {
+		return this.events;
+	}
+
+	public final Map<UUID, MoneyTransaction> getTransactions() {
+		return this.transactions;
+	}
+
+	public final Date getCreatedAt() {
+		return this.createdAt;
+	}
+
+	public final Date getLastUpdatedAt() {
+		return this.lastUpdatedAt;
+	}
+
+	public final List<Link> getLinks() {
+		return this.links;
+	}
+
 	public static Builder builder() {
 		return new Account().new Builder();
 	}
@@ -48,13 +92,13 @@ public class Account {
 			return this;
 		}
 
-		public final Builder setBalance(final BigDecimal balance) {
+		public final Builder setBalance(final Money balance) {
 			Account.this.balance = balance;
 
 			return this;
 		}
 
-		public final Builder setTransactionToReservedBalance(final Map<UUID, BigDecimal> transactionToReservedBalance) {
+		public final Builder setTransactionToReservedBalance(final Map<UUID, Money> transactionToReservedBalance) {
 			Account.this.transactionToReservedBalance = transactionToReservedBalance;
 
 			return this;
@@ -96,21 +140,53 @@ public class Account {
 	}
 
 	public static Account from(final AccountAggregate aggregate) {
-		return Account.builder().setAccountNumber(aggregate.getId()).setFullName(aggregate.getFullName())
-				.setBalance(aggregate.getBalance())
-				.setTransactionToReservedBalance(aggregate.getTransactionToReservedBalance())
-				.setEvents(aggregate.getDomainEvents())
-				.setTransactions(aggregate.getTransactions().entrySet().stream().map(idToTransaction -> MoneyTransaction
-						.builder().setTransactionID(idToTransaction.getValue().getTransactionID())
-						.setFromID(idToTransaction.getValue().getFromID()).setToID(idToTransaction.getValue().getToID())
-						.setValue(idToTransaction.getValue().getValue()).setState(idToTransaction.getValue().getState())
-						.setType(idToTransaction.getValue().getType())
-						.setLastUpdatedAt(idToTransaction.getValue().getLastUpdatedAt())
-						.setCreatedAt(idToTransaction.getValue().getCreatedAt()).build())
-						.collect(Collectors.toMap(MoneyTransaction::getTransactionID,
-								moneyTransactionDTO -> moneyTransactionDTO)))
-				.setCreatedAt(aggregate.getCreatedAt()).setLastUpdatedAt(aggregate.getLastUpdatedAt())
-				.setLinks(getLinksForAccount(aggregate.getId())).build();
+		return from(aggregate, FIELDS);
+	}
+
+	/**
+	 * @param fields Names of fields to copy from {@code aggregate}, the others
+	 *               are left {@code null} and aren't serialized, so e.g.
+	 *               {@code events} and {@code transactions} are built only when
+	 *               asked for.
+	 */
+	public static Account from(final AccountAggregate aggregate, final Set<String> fields) {
+		final Builder builder = Account.builder();
+		if (fields.contains("accountNumber")) {
+			builder.setAccountNumber(aggregate.getId());
+		}
+		if (fields.contains("fullName")) {
+			builder.setFullName(aggregate.getFullName());
+		}
+		if (fields.contains("balance")) {
+			builder.setBalance(aggregate.getBalance());
+		}
+		if (fields.contains("transactionToReservedBalance")) {
+			builder.setTransactionToReservedBalance(ImmutableMap.copyOf(aggregate.getTransactionToReservedBalance()));
+		}
+		if (fields.contains("events")) {
+			builder.setEvents(aggregate.getDomainEvents());
+		}
+		if (fields.contains("transactions")) {
+			builder.setTransactions(aggregate.getTransactions().entrySet().stream().map(idToTransaction -> MoneyTransaction
+					.builder().setTransactionID(idToTransaction.getValue().getTransactionID())
+					.setFromID(idToTransaction.getValue().getFromID()).setToID(idToTransaction.getValue().getToID())
+					.setValue(idToTransaction.getValue().getValue()).setState(idToTransaction.getValue().getState())
+					.setType(idToTransaction.getValue().getType())
+					.setLastUpdatedAt(idToTransaction.getValue().getLastUpdatedAt())
+					.setCreatedAt(idToTransaction.getValue().getCreatedAt()).build())
+					.collect(Collectors.toMap(MoneyTransaction::getTransactionID,
+							moneyTransactionDTO -> moneyTransactionDTO)));
+		}
+		if (fields.contains("createdAt")) {
+			builder.setCreatedAt(aggregate.getCreatedAt());
+		}
+		if (fields.contains("lastUpdatedAt")) {
+			builder.setLastUpdatedAt(aggregate.getLastUpdatedAt());
+		}
+		if (fields.contains("links")) {
+			builder.setLinks(getLinksForAccount(aggregate.getId()));
+		}
+		return builder.build();
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.UUID;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.net.UrlEscapers;
 
 import spark.route.HttpMethod;
 
@@ -56,6 +57,62 @@ public class Link {
 				 .build(); 
 	}
 
+	/**
+	 * @return Link to the transfer followed by links to its issuer and receiver.
+	 */
+	public static List<Link> getLinksForTransaction(final Transaction transaction) {
+		return ImmutableList.<Link>builder()
+				.add(Link.builder()
+						.setRel("self")
+						.setHref(String.format("/api/transaction/%s", transaction.getTransactionID()))
+						.setHttpMethod(HttpMethod.get)
+						.build())
+				.add(Link.builder()
+						.setRel("issuer")
+						.setHref(String.format("/api/account/%s", transaction.getFromID()))
+						.setHttpMethod(HttpMethod.get)
+						.build())
+				.add(Link.builder()
+						.setRel("receiver")
+						.setHref(String.format("/api/account/%s", transaction.getToID()))
+						.setHttpMethod(HttpMethod.get)
+						.build())
+				.build();
+	}
+
+	/**
+	 * @return Link to the page of accounts after {@code lastID}, with the same
+	 *         {@code limit} and {@code fields}.
+	 */
+	public static Link getLinkForNextAccounts(final UUID lastID, final int limit, final String fields) {
+		final StringBuilder href = new StringBuilder("/api/account?limit=").append(limit).append("&after=")
+				.append(lastID);
+		if (fields != null) {
+			href.append("&fields=").append(UrlEscapers.urlFormParameterEscaper().escape(fields));
+		}
+		return Link.builder().setRel("next").setHref(href.toString()).setHttpMethod(HttpMethod.get).build();
+	}
+
+	/**
+	 * @return Link to the page of transfers of an account after {@code lastID},
+	 *         with the same {@code limit} and filters.
+	 */
+	public static Link getLinkForNextTransactions(final UUID accountID, final UUID lastID, final int limit,
+			final String from, final String to, final String state) {
+		final StringBuilder href = new StringBuilder("/api/account/").append(accountID)
+				.append("/transactions?limit=").append(limit).append("&after=").append(lastID);
+		if (from != null) {
+			href.append("&from=").append(UrlEscapers.urlFormParameterEscaper().escape(from));
+		}
+		if (to != null) {
+			href.append("&to=").append(UrlEscapers.urlFormParameterEscaper().escape(to));
+		}
+		if (state != null) {
+			href.append("&state=").append(UrlEscapers.urlFormParameterEscaper().escape(state));
+		}
+		return Link.builder().setRel("next").setHref(href.toString()).setHttpMethod(HttpMethod.get).build();
+	}
+
 	public static Builder builder() {
 		return new Link().new Builder();
 	}
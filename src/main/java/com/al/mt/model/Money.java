@@ -0,0 +1,230 @@
+package com.al.mt.model;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.al.mt.exceptions.InvalidAmountException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Amount of money stored as a {@code long} count of minor units, e.g. cents,
+ * together with the scale of the currency.
+ *
+ * <p>
+ * Unlike {@link BigDecimal}, comparing amounts and summing their minor units
+ * doesn't allocate, so balances can be kept as plain {@code long}s. Arithmetic
+ * is overflow-checked and throws {@link ArithmeticException} instead of
+ * wrapping around, amounts of different scales can't be mixed.
+ *
+ * <p>
+ * In JSON the amount is written as a decimal number with all decimal places of
+ * its scale, e.g. {@code 10.00}, and is read back without loss. Amounts with
+ * more decimal places than {@link #DEFAULT_SCALE} are rejected when read.
+ */
+@JsonAdapter(Money.GsonAdapter.class)
+public final class Money implements Comparable<Money> {
+	/**
+	 * Scale of the only currency accounts are kept in.
+	 */
+	public static final int DEFAULT_SCALE = 2;
+
+	// Powers of ten that fit into a long, indexed by scale
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	public static final Money ZERO = new Money(0, DEFAULT_SCALE);
+
+	private final long minorUnits;
+	private final int scale;
+
+	private Money(final long minorUnits, final int scale) {
+		if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+			throw new IllegalArgumentException(String.format("Unsupported scale: %d", scale));
+		}
+		this.minorUnits = minorUnits;
+		this.scale = scale;
+	}
+
+	/**
+	 * @return Amount of {@code minorUnits} in {@link #DEFAULT_SCALE}.
+	 */
+	public static Money ofMinor(final long minorUnits) {
+		return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_SCALE);
+	}
+
+	public static Money ofMinor(final long minorUnits, final int scale) {
+		return new Money(minorUnits, scale);
+	}
+
+	/**
+	 * @return Amount of whole {@code units} in {@link #DEFAULT_SCALE}.
+	 * @throws ArithmeticException when the amount doesn't fit into a long.
+	 */
+	public static Money valueOf(final long units) {
+		return ofMinor(Math.multiplyExact(units, POWERS_OF_TEN[DEFAULT_SCALE]));
+	}
+
+	/**
+	 * Converts {@code value} without rounding, keeping its scale if it's
+	 * greater than {@link #DEFAULT_SCALE}.
+	 *
+	 * @throws ArithmeticException when the amount doesn't fit into a long.
+	 */
+	public static Money of(final BigDecimal value) {
+		return of(value, Math.max(DEFAULT_SCALE, value.scale()));
+	}
+
+	/**
+	 * Converts {@code value} to given {@code scale} without rounding.
+	 *
+	 * @throws ArithmeticException when {@code value} has more decimal places
+	 *                             than {@code scale} or the amount doesn't fit
+	 *                             into a long.
+	 */
+	public static Money of(final BigDecimal value, final int scale) {
+		return new Money(value.setScale(scale).unscaledValue().longValueExact(), scale);
+	}
+
+	public long getMinorUnits() {
+		return this.minorUnits;
+	}
+
+	public int getScale() {
+		return this.scale;
+	}
+
+	public Money plus(final Money other) {
+		return new Money(Math.addExact(this.minorUnits, checkScale(other).minorUnits), this.scale);
+	}
+
+	public Money minus(final Money other) {
+		return new Money(Math.subtractExact(this.minorUnits, checkScale(other).minorUnits), this.scale);
+	}
+
+	public Money negate() {
+		return new Money(Math.negateExact(this.minorUnits), this.scale);
+	}
+
+	public int signum() {
+		return Long.signum(this.minorUnits);
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(this.minorUnits, this.scale);
+	}
+
+	@Override
+	public int compareTo(final Money other) {
+		return Long.compare(this.minorUnits, checkScale(other).minorUnits);
+	}
+
+	private Money checkScale(final Money other) {
+		if (other.scale != this.scale) {
+			throw new IllegalArgumentException(
+					String.format("Amounts of different scales: %d and %d", this.scale, other.scale));
+		}
+		return other;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(this.minorUnits);
+		result = prime * result + this.scale;
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final Money other = (Money) obj;
+		return this.minorUnits == other.minorUnits && this.scale == other.scale;
+	}
+
+	@Override
+	public String toString() {
+		return toBigDecimal().toPlainString();
+	}
+
+	/**
+	 * Reads a JSON number or a string holding one.
+	 *
+	 * @return {@code null} for a JSON null.
+	 * @throws InvalidAmountException when the value is anything else.
+	 */
+	static BigDecimal readAmount(final JsonReader in) throws IOException {
+		final JsonToken token = in.peek();
+		if (token == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		final String path = in.getPath();
+		if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+			in.skipValue();
+			throw new InvalidAmountException(path, String.format("Must be a number, not %s", token), null);
+		}
+		final String value = in.nextString();
+		try {
+			return new BigDecimal(value);
+		} catch (final NumberFormatException e) {
+			throw new InvalidAmountException(path, String.format("Must be a number: %s", value), e);
+		}
+	}
+
+	/**
+	 * Writes the amount as a JSON number and reads it in {@link #DEFAULT_SCALE}.
+	 */
+	static final class GsonAdapter extends TypeAdapter<Money> {
+		@Override
+		public void write(final JsonWriter out, final Money value) throws IOException {
+			out.value(value.toBigDecimal());
+		}
+
+		@Override
+		public Money read(final JsonReader in) throws IOException {
+			final String path = in.getPath();
+			final BigDecimal value = readAmount(in);
+			if (value == null) {
+				return null;
+			}
+			try {
+				return of(value, DEFAULT_SCALE);
+			} catch (final ArithmeticException e) {
+				throw new InvalidAmountException(path, String.format(
+						"Not an amount with at most %d decimal places: %s", DEFAULT_SCALE, value.toPlainString()), e);
+			}
+		}
+	}
+
+	/**
+	 * Reads an amount of a request as it's sent, so its scale is validated along
+	 * with the rest of the request.
+	 */
+	public static final class AmountGsonAdapter extends TypeAdapter<BigDecimal> {
+		@Override
+		public void write(final JsonWriter out, final BigDecimal value) throws IOException {
+			out.value(value);
+		}
+
+		@Override
+		public BigDecimal read(final JsonReader in) throws IOException {
+			return readAmount(in);
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package com.al.mt.model;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
@@ -12,7 +11,7 @@ public class MoneyTransaction {
 	private UUID transactionID;
 	private UUID fromID;
 	private UUID toID;
-	private BigDecimal value;
+	private Money value;
 	private State state;
 	private Type type;
 	private Date createdAt;
@@ -45,11 +44,11 @@ public class MoneyTransaction {
 		this.toID = toID;
 	}
 
-	public final BigDecimal getValue() {
+	public final Money getValue() {
 		return this.value;
 	}
 
-	public final void setValue(final BigDecimal value) {
+	public final void setValue(final Money value) {
 		this.value = value;
 	}
 
@@ -154,6 +153,15 @@ public class MoneyTransaction {
 				.append(this.createdAt).append(", lastUpdatedAt=").append(this.lastUpdatedAt).append("]").toString();
 	}
 
+	/**
+	 * @return Independent copy of this transaction.
+	 */
+	public MoneyTransaction copy() {
+		return MoneyTransaction.builder().setTransactionID(this.transactionID).setFromID(this.fromID)
+				.setToID(this.toID).setValue(this.value).setState(this.state).setType(this.type)
+				.setCreatedAt(this.createdAt).setLastUpdatedAt(this.lastUpdatedAt).build();
+	}
+
 	public static Builder builder() {
 		return new MoneyTransaction().new Builder();
 	}
@@ -181,7 +189,7 @@ public class MoneyTransaction {
 			return this;
 		}
 
-		public final Builder setValue(final BigDecimal value) {
+		public final Builder setValue(final Money value) {
 			MoneyTransaction.this.value = value;
 
 			return this;
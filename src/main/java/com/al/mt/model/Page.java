@@ -0,0 +1,74 @@
+package com.al.mt.model;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Page of a list which is read from its source while it's written, e.g. from
+ * {@link com.al.mt.aggregates.AccountProjection}, so a streamed response never
+ * holds all of its items at once.
+ *
+ * <p>
+ * A page can be iterated only once, {@link #size()}, {@link #isFull()} and
+ * {@link #getLast()} tell what was read so far, e.g. by links written after
+ * the page.
+ */
+public final class Page<T> implements Iterable<T> {
+	private final Iterator<T> source;
+	private final int limit;
+
+	private boolean iterated;
+	private int size;
+	private T last;
+
+	/**
+	 * @param source Items of the page and those after it, at most {@code limit}
+	 *               of them are read.
+	 */
+	public Page(final Iterator<T> source, final int limit) {
+		this.source = source;
+		this.limit = limit;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		if (this.iterated) {
+			throw new IllegalStateException("Page can be iterated only once");
+		}
+		this.iterated = true;
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return Page.this.size < Page.this.limit && Page.this.source.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Page.this.last = Page.this.source.next();
+				Page.this.size++;
+				return Page.this.last;
+			}
+		};
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return Whether {@code limit} items were read, so there may be a next page.
+	 */
+	public boolean isFull() {
+		return this.size == this.limit;
+	}
+
+	/**
+	 * @return Last item read, {@code null} if none was.
+	 */
+	public T getLast() {
+		return this.last;
+	}
+}
@@ -0,0 +1,155 @@
+package com.al.mt.model;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+
+/**
+ * Money transfer between two accounts as a whole, unlike
+ * {@link MoneyTransaction} which is one side of it as seen by one account.
+ */
+public class Transaction {
+	private UUID transactionID;
+	private UUID fromID;
+	private UUID toID;
+	private Money value;
+	private State state;
+	private Reason reason;
+	private Date createdAt;
+	private Date lastUpdatedAt;
+
+	private Transaction() {
+	}
+
+	public final UUID getTransactionID() {
+		return this.transactionID;
+	}
+
+	public final UUID getFromID() {
+		return this.fromID;
+	}
+
+	public final UUID getToID() {
+		return this.toID;
+	}
+
+	public final Money getValue() {
+		return this.value;
+	}
+
+	public final State getState() {
+		return this.state;
+	}
+
+	/**
+	 * @return Why the transfer was cancelled, {@code null} unless it's
+	 *         {@link State#CANCELLED}.
+	 */
+	public final Reason getReason() {
+		return this.reason;
+	}
+
+	public final Date getCreatedAt() {
+		return this.createdAt;
+	}
+
+	public final Date getLastUpdatedAt() {
+		return this.lastUpdatedAt;
+	}
+
+	public static Builder builder() {
+		return new Transaction().new Builder();
+	}
+
+	public class Builder {
+
+		private Builder() {
+		}
+
+		public final Builder setTransactionID(final UUID transactionID) {
+			Transaction.this.transactionID = transactionID;
+
+			return this;
+		}
+
+		public final Builder setFromID(final UUID fromID) {
+			Transaction.this.fromID = fromID;
+
+			return this;
+		}
+
+		public final Builder setToID(final UUID toID) {
+			Transaction.this.toID = toID;
+
+			return this;
+		}
+
+		public final Builder setValue(final Money value) {
+			Transaction.this.value = value;
+
+			return this;
+		}
+
+		public final Builder setState(final State state) {
+			Transaction.this.state = state;
+
+			return this;
+		}
+
+		public final Builder setReason(final Reason reason) {
+			Transaction.this.reason = reason;
+
+			return this;
+		}
+
+		public final Builder setCreatedAt(final Date createdAt) {
+			Transaction.this.createdAt = createdAt;
+
+			return this;
+		}
+
+		public final Builder setLastUpdatedAt(final Date lastUpdatedAt) {
+			Transaction.this.lastUpdatedAt = lastUpdatedAt;
+
+			return this;
+		}
+
+		public Transaction build() {
+			return Transaction.this;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.transactionID, this.fromID, this.toID, this.value, this.state, this.reason,
+				this.createdAt, this.lastUpdatedAt);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final Transaction other = (Transaction) obj;
+		return Objects.equals(this.transactionID, other.transactionID) && Objects.equals(this.fromID, other.fromID)
+				&& Objects.equals(this.toID, other.toID) && Objects.equals(this.value, other.value)
+				&& this.state == other.state && this.reason == other.reason
+				&& Objects.equals(this.createdAt, other.createdAt)
+				&& Objects.equals(this.lastUpdatedAt, other.lastUpdatedAt);
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("Transaction [transactionID=").append(this.transactionID).append(", fromID=")
+				.append(this.fromID).append(", toID=").append(this.toID).append(", value=").append(this.value)
+				.append(", state=").append(this.state).append(", reason=").append(this.reason)
+				.append(", createdAt=").append(this.createdAt).append(", lastUpdatedAt=")
+				.append(this.lastUpdatedAt).append("]").toString();
+	}
+}
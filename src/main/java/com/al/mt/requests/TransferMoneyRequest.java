@@ -2,9 +2,13 @@ package com.al.mt.requests;
 
 import java.math.BigDecimal;
 
+import com.al.mt.model.Money;
+import com.google.gson.annotations.JsonAdapter;
+
 public class TransferMoneyRequest {
 	private String fromAccountNumber;
 	private String toAccountNumber;
+	@JsonAdapter(Money.AmountGsonAdapter.class)
 	private BigDecimal value;
 
 	private TransferMoneyRequest() {
@@ -1,17 +1,39 @@
 package com.al.mt.services;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import com.al.mt.enums.Reason;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
 
 public interface AccountService {
 
 	UUID createAccount(final String fullName);
 
-	void transferMoney(final UUID fromID, final UUID toID, final BigDecimal value);
+	/**
+	 * Issues money transfer under a new transaction ID.
+	 *
+	 * @return ID of the transaction.
+	 */
+	default UUID transferMoney(final UUID fromID, final UUID toID, final Money value) {
+		final UUID transactionID = UUID.randomUUID();
+		transferMoney(transactionID, fromID, toID, value);
+		return transactionID;
+	}
+
+	/**
+	 * Issues money transfer under given transaction ID, so its completion can be
+	 * awaited before it's issued.
+	 */
+	void transferMoney(final UUID transactionID, final UUID fromID, final UUID toID, final Money value);
+
+	/**
+	 * Issues money transfers together, each under its own transaction ID.
+	 */
+	void transferMoneyBatch(final List<MoneyTransaction> transfers);
 
 	void cancelTransaction(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value, final Reason reason);
+			final Money value, final Reason reason);
 
 }
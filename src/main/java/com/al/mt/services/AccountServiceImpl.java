@@ -1,14 +1,19 @@
 package com.al.mt.services;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import com.al.mt.aggregates.AccountAggregate;
 import com.al.mt.aggregates.EventManager;
 import com.al.mt.enums.Reason;
 import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.MoneyTransferBatch;
 import com.al.mt.events.MoneyTransferCancelled;
 import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
 import com.google.common.eventbus.EventBus;
 
 /**
@@ -38,8 +43,23 @@ public class AccountServiceImpl implements AccountService {
 	 * {@link MoneyTransferredEvent}. 
 	 * This event is then received by the {@link EventManager}.
 	 */
-	public void transferMoney(final UUID fromID, final UUID toID, final BigDecimal value) {
-		this.eventBus.post(new MoneyTransferredEvent(fromID, fromID, toID, UUID.randomUUID(), value));
+	public void transferMoney(final UUID transactionID, final UUID fromID, final UUID toID, final Money value) {
+		this.eventBus.post(new MoneyTransferredEvent(fromID, fromID, toID, transactionID, value));
+	}
+
+	/**
+	 * Command which initializes money transfers grouped by issuer, as one
+	 * {@link MoneyTransferBatch} per issuer.
+	 * These batches are then received by the {@link EventManager}.
+	 */
+	public void transferMoneyBatch(final List<MoneyTransaction> transfers) {
+		transfers.stream()
+				.map(transfer -> new MoneyTransferredEvent(transfer.getFromID(), transfer.getFromID(),
+						transfer.getToID(), transfer.getTransactionID(), transfer.getValue()))
+				.collect(Collectors.groupingBy(MoneyTransferredEvent::getFromID, LinkedHashMap::new,
+						Collectors.toList()))
+				.forEach((fromID, transfersOfIssuer) -> this.eventBus
+						.post(new MoneyTransferBatch(fromID, transfersOfIssuer)));
 	}
 
 	/**
@@ -47,7 +67,7 @@ public class AccountServiceImpl implements AccountService {
 	 * This event is then received by the {@link EventManager}.
 	 */
 	public void cancelTransaction(final UUID aggregateID, final UUID fromID, final UUID toID, final UUID transactionID,
-			final BigDecimal value, final Reason reason) {
+			final Money value, final Reason reason) {
 		this.eventBus.post(new MoneyTransferCancelled(aggregateID, fromID, toID, transactionID, value, reason));
 	}
 	
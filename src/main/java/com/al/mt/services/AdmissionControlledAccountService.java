@@ -0,0 +1,168 @@
+package com.al.mt.services;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+import com.al.mt.exceptions.ServiceOverloadedException;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+
+/**
+ * {@link AccountService} which admits only a bounded number of commands at a
+ * time.
+ *
+ * <p>
+ * A command waits for one of {@code capacity} permits for at most
+ * {@code timeout}, when none frees up in time it's rejected with
+ * {@link ServiceOverloadedException} instead of queueing up more work.
+ *
+ * <p>
+ * The permit of a transfer is held until {@link PendingTransfers} completes
+ * it, i.e. until {@link com.al.mt.aggregates.EventManager} persisted or failed
+ * it, so transfers queued in {@link com.al.mt.events.ShardedEventBus} shards
+ * still count against the capacity. Permits of other commands are held until
+ * the delegate returns.
+ */
+public class AdmissionControlledAccountService implements AccountService {
+	private final AccountService delegate;
+	private final PendingTransfers pendingTransfers;
+	private final int capacity;
+	private final Semaphore permits;
+	private final long timeoutNanos;
+	private final long retryAfterSeconds;
+
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * @param capacity          Number of commands processed at the same time.
+	 * @param timeout           Longest time a command waits to be admitted.
+	 * @param retryAfterSeconds Time clients are told to wait after a rejection.
+	 */
+	public AdmissionControlledAccountService(final AccountService delegate, final PendingTransfers pendingTransfers,
+			final int capacity, final long timeout, final TimeUnit unit, final long retryAfterSeconds) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(String.format("Capacity must be positive: %d", capacity));
+		}
+		this.delegate = delegate;
+		this.pendingTransfers = pendingTransfers;
+		this.capacity = capacity;
+		// Fair, so commands are admitted in the order they arrived
+		this.permits = new Semaphore(capacity, true);
+		this.timeoutNanos = unit.toNanos(timeout);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	@Override
+	public UUID createAccount(final String fullName) {
+		admit();
+		try {
+			return this.delegate.createAccount(fullName);
+		} finally {
+			this.permits.release();
+		}
+	}
+
+	@Override
+	public void transferMoney(final UUID transactionID, final UUID fromID, final UUID toID, final Money value) {
+		admit();
+		final CompletableFuture<State> transfer = holdPermitUntilDone(
+				this.pendingTransfers.register(transactionID));
+		try {
+			this.delegate.transferMoney(transactionID, fromID, toID, value);
+		} catch (final RuntimeException e) {
+			transfer.cancel(false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Admits all transfers of the batch as one command, it's done once all of
+	 * them are.
+	 */
+	@Override
+	public void transferMoneyBatch(final List<MoneyTransaction> transfers) {
+		admit();
+		final CompletableFuture<?>[] futures = transfers.stream()
+				.map(transfer -> this.pendingTransfers.register(transfer.getTransactionID()))
+				.toArray(CompletableFuture<?>[]::new);
+		holdPermitUntilDone(CompletableFuture.allOf(futures));
+		try {
+			this.delegate.transferMoneyBatch(transfers);
+		} catch (final RuntimeException e) {
+			for (final CompletableFuture<?> future : futures) {
+				future.cancel(false);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Releases the permit once {@code done} completes in any way, including
+	 * cancellation when the command couldn't be issued.
+	 */
+	private <T> CompletableFuture<T> holdPermitUntilDone(final CompletableFuture<T> done) {
+		done.whenComplete((result, e) -> this.permits.release());
+		return done;
+	}
+
+	@Override
+	public void cancelTransaction(final UUID aggregateID, final UUID fromID, final UUID toID,
+			final UUID transactionID, final Money value, final Reason reason) {
+		admit();
+		try {
+			this.delegate.cancelTransaction(aggregateID, fromID, toID, transactionID, value, reason);
+		} finally {
+			this.permits.release();
+		}
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return Number of commands being processed right now.
+	 */
+	public int getInFlight() {
+		return this.capacity - this.permits.availablePermits();
+	}
+
+	/**
+	 * @return Number of commands waiting to be admitted.
+	 */
+	public int getWaiting() {
+		return this.permits.getQueueLength();
+	}
+
+	/**
+	 * @return Number of commands rejected so far.
+	 */
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * @throws ServiceOverloadedException when no permit freed up in time.
+	 */
+	private void admit() {
+		boolean admitted;
+		try {
+			admitted = this.permits.tryAcquire(this.timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			admitted = false;
+		}
+		if (!admitted) {
+			this.rejected.increment();
+			throw new ServiceOverloadedException(
+					String.format("All %d command slots are busy", this.capacity), this.retryAfterSeconds);
+		}
+	}
+}
@@ -0,0 +1,415 @@
+package com.al.mt.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.EventVisitor;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Account;
+import com.al.mt.model.Link;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.al.mt.model.Page;
+import com.al.mt.model.Transaction;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes {@link APIResponse}, {@link Account}, {@link MoneyTransaction},
+ * {@link Transaction}, {@link Link} and {@link DomainEvent}s field by field
+ * through their getters, without the reflective field access of the default
+ * adapters. A {@link Page} is written as an array while it's read.
+ *
+ * <p>
+ * The JSON is exactly the one of the default adapters: fields in the order
+ * they are declared, those of a subclass before those of its superclass,
+ * {@code null}s left out and dates in the default {@link DateFormat} of
+ * {@link Locale#US}. Reading is left to the default adapters, a page is read
+ * as a list of its items.
+ */
+final class ApiTypeAdapterFactory implements TypeAdapterFactory {
+	/**
+	 * Same format as Gson's default {@link Date} adapter, but it's thread safe, so
+	 * it isn't formatted under a lock.
+	 */
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter
+			.ofPattern(((SimpleDateFormat) DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT,
+					Locale.US)).toPattern(), Locale.US)
+			.withZone(ZoneId.systemDefault());
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+		final Class<? super T> rawType = type.getRawType();
+		if (rawType == APIResponse.class) {
+			return (TypeAdapter<T>) new APIResponseAdapter(gson,
+					gson.getDelegateAdapter(this, (TypeToken<APIResponse>) type));
+		} else if (rawType == Account.class) {
+			return (TypeAdapter<T>) new AccountAdapter(gson,
+					gson.getDelegateAdapter(this, (TypeToken<Account>) type));
+		} else if (rawType == MoneyTransaction.class) {
+			return (TypeAdapter<T>) new MoneyTransactionAdapter(gson,
+					gson.getDelegateAdapter(this, (TypeToken<MoneyTransaction>) type));
+		} else if (rawType == Transaction.class) {
+			return (TypeAdapter<T>) new TransactionAdapter(gson,
+					gson.getDelegateAdapter(this, (TypeToken<Transaction>) type));
+		} else if (rawType == Link.class) {
+			return (TypeAdapter<T>) new LinkAdapter(gson.getDelegateAdapter(this, (TypeToken<Link>) type));
+		} else if (rawType == Page.class) {
+			return (TypeAdapter<T>) new PageAdapter(gson, type.getType() instanceof ParameterizedType
+					? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+					: Object.class);
+		} else if (DomainEvent.class.isAssignableFrom(rawType)) {
+			return (TypeAdapter<T>) new DomainEventAdapter(gson,
+					gson.getDelegateAdapter(this, (TypeToken<DomainEvent>) type));
+		}
+		return null;
+	}
+
+	private static void writeField(final JsonWriter out, final String name, final String value) throws IOException {
+		out.name(name).value(value);
+	}
+
+	private static void writeField(final JsonWriter out, final String name, final UUID value) throws IOException {
+		out.name(name).value(value == null ? null : value.toString());
+	}
+
+	private static void writeField(final JsonWriter out, final String name, final Enum<?> value) throws IOException {
+		out.name(name).value(value == null ? null : value.name());
+	}
+
+	private static void writeField(final JsonWriter out, final String name, final Date value) throws IOException {
+		out.name(name).value(value == null ? null : DATE_FORMAT.format(value.toInstant()));
+	}
+
+	private static <V> void writeField(final JsonWriter out, final String name, final V value,
+			final TypeAdapter<V> adapter) throws IOException {
+		out.name(name);
+		if (value == null) {
+			out.nullValue();
+		} else {
+			adapter.write(out, value);
+		}
+	}
+
+	private static <V> void writeField(final JsonWriter out, final String name, final Collection<? extends V> values,
+			final TypeAdapter<V> adapter) throws IOException {
+		out.name(name);
+		if (values == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginArray();
+		for (final V value : values) {
+			adapter.write(out, value);
+		}
+		out.endArray();
+	}
+
+	private static <V> void writeField(final JsonWriter out, final String name, final Map<UUID, ? extends V> values,
+			final TypeAdapter<V> adapter) throws IOException {
+		out.name(name);
+		if (values == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		for (final Map.Entry<UUID, ? extends V> entry : values.entrySet()) {
+			writeField(out, String.valueOf(entry.getKey()), entry.getValue(), adapter);
+		}
+		out.endObject();
+	}
+
+	/**
+	 * Writes an object by {@link #writeFields(JsonWriter, Object)} and reads it by
+	 * the reflective adapter.
+	 */
+	private abstract static class ObjectAdapter<T> extends TypeAdapter<T> {
+		private final TypeAdapter<T> reflective;
+
+		ObjectAdapter(final TypeAdapter<T> reflective) {
+			this.reflective = reflective;
+		}
+
+		abstract void writeFields(final JsonWriter out, final T value) throws IOException;
+
+		@Override
+		public final void write(final JsonWriter out, final T value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			writeFields(out, value);
+			out.endObject();
+		}
+
+		@Override
+		public final T read(final JsonReader in) throws IOException {
+			return this.reflective.read(in);
+		}
+	}
+
+	private static final class APIResponseAdapter extends ObjectAdapter<APIResponse> {
+		private final Gson gson;
+		private final TypeAdapter<Link> links;
+
+		APIResponseAdapter(final Gson gson, final TypeAdapter<APIResponse> reflective) {
+			super(reflective);
+			this.gson = gson;
+			this.links = gson.getAdapter(Link.class);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void writeFields(final JsonWriter out, final APIResponse value) throws IOException {
+			writeField(out, "status", value.getStatus());
+			writeField(out, "message", value.getMessage());
+			final Object data = value.getData();
+			// Data is written by the adapter of its runtime type, as Gson does
+			writeField(out, "data", data,
+					data == null ? null : (TypeAdapter<Object>) this.gson.getAdapter(data.getClass()));
+			writeField(out, "links", value.getLinks(), this.links);
+		}
+	}
+
+	/**
+	 * Writes items by the adapter of their runtime type and reads them by the
+	 * adapter of the item type of the page, as for a list.
+	 */
+	private static final class PageAdapter extends TypeAdapter<Page<?>> {
+		private final Gson gson;
+		private final Type itemType;
+
+		PageAdapter(final Gson gson, final Type itemType) {
+			this.gson = gson;
+			this.itemType = itemType;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void write(final JsonWriter out, final Page<?> value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginArray();
+			for (final Object item : value) {
+				if (item == null) {
+					out.nullValue();
+				} else {
+					((TypeAdapter<Object>) this.gson.getAdapter(item.getClass())).write(out, item);
+				}
+			}
+			out.endArray();
+		}
+
+		@Override
+		public Page<?> read(final JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			final TypeAdapter<?> items = this.gson.getAdapter(TypeToken.get(this.itemType));
+			final List<Object> values = new ArrayList<>();
+			in.beginArray();
+			while (in.hasNext()) {
+				values.add(items.read(in));
+			}
+			in.endArray();
+			return new Page<>(values.iterator(), values.size());
+		}
+	}
+
+	private static final class AccountAdapter extends ObjectAdapter<Account> {
+		private final TypeAdapter<Money> money;
+		private final TypeAdapter<DomainEvent> events;
+		private final TypeAdapter<MoneyTransaction> transactions;
+		private final TypeAdapter<Link> links;
+
+		AccountAdapter(final Gson gson, final TypeAdapter<Account> reflective) {
+			super(reflective);
+			this.money = gson.getAdapter(Money.class);
+			this.events = gson.getAdapter(DomainEvent.class);
+			this.transactions = gson.getAdapter(MoneyTransaction.class);
+			this.links = gson.getAdapter(Link.class);
+		}
+
+		@Override
+		void writeFields(final JsonWriter out, final Account value) throws IOException {
+			writeField(out, "accountNumber", value.getAccountNumber());
+			writeField(out, "fullName", value.getFullName());
+			writeField(out, "balance", value.getBalance(), this.money);
+			writeField(out, "transactionToReservedBalance", value.getTransactionToReservedBalance(), this.money);
+			writeField(out, "events", value.getEvents(), this.events);
+			writeField(out, "transactions", value.getTransactions(), this.transactions);
+			writeField(out, "createdAt", value.getCreatedAt());
+			writeField(out, "lastUpdatedAt", value.getLastUpdatedAt());
+			writeField(out, "links", value.getLinks(), this.links);
+		}
+	}
+
+	private static final class MoneyTransactionAdapter extends ObjectAdapter<MoneyTransaction> {
+		private final TypeAdapter<Money> money;
+
+		MoneyTransactionAdapter(final Gson gson, final TypeAdapter<MoneyTransaction> reflective) {
+			super(reflective);
+			this.money = gson.getAdapter(Money.class);
+		}
+
+		@Override
+		void writeFields(final JsonWriter out, final MoneyTransaction value) throws IOException {
+			writeField(out, "transactionID", value.getTransactionID());
+			writeField(out, "fromID", value.getFromID());
+			writeField(out, "toID", value.getToID());
+			writeField(out, "value", value.getValue(), this.money);
+			writeField(out, "state", value.getState());
+			writeField(out, "type", value.getType());
+			writeField(out, "createdAt", value.getCreatedAt());
+			writeField(out, "lastUpdatedAt", value.getLastUpdatedAt());
+		}
+	}
+
+	private static final class TransactionAdapter extends ObjectAdapter<Transaction> {
+		private final TypeAdapter<Money> money;
+
+		TransactionAdapter(final Gson gson, final TypeAdapter<Transaction> reflective) {
+			super(reflective);
+			this.money = gson.getAdapter(Money.class);
+		}
+
+		@Override
+		void writeFields(final JsonWriter out, final Transaction value) throws IOException {
+			writeField(out, "transactionID", value.getTransactionID());
+			writeField(out, "fromID", value.getFromID());
+			writeField(out, "toID", value.getToID());
+			writeField(out, "value", value.getValue(), this.money);
+			writeField(out, "state", value.getState());
+			writeField(out, "reason", value.getReason());
+			writeField(out, "createdAt", value.getCreatedAt());
+			writeField(out, "lastUpdatedAt", value.getLastUpdatedAt());
+		}
+	}
+
+	private static final class LinkAdapter extends ObjectAdapter<Link> {
+
+		LinkAdapter(final TypeAdapter<Link> reflective) {
+			super(reflective);
+		}
+
+		@Override
+		void writeFields(final JsonWriter out, final Link value) throws IOException {
+			writeField(out, "rel", value.getRel());
+			writeField(out, "href", value.getHref());
+			writeField(out, "method", value.getMethod());
+		}
+	}
+
+	/**
+	 * Writes the fields of the type of an event, through {@link EventVisitor},
+	 * and then those of {@link DomainEvent}.
+	 */
+	private static final class DomainEventAdapter extends ObjectAdapter<DomainEvent>
+			implements EventVisitor<JsonWriter, Void> {
+		private final TypeAdapter<Money> money;
+
+		DomainEventAdapter(final Gson gson, final TypeAdapter<DomainEvent> reflective) {
+			super(reflective);
+			this.money = gson.getAdapter(Money.class);
+		}
+
+		@Override
+		void writeFields(final JsonWriter out, final DomainEvent value) throws IOException {
+			try {
+				value.accept(this, out);
+			} catch (final UncheckedIOException e) {
+				throw e.getCause();
+			}
+			writeField(out, "aggregateID", value.getAggregateID());
+			writeField(out, "eventType", value.getEventType());
+			writeField(out, "createdAt", value.getCreatedAt());
+		}
+
+		private void writeTransfer(final JsonWriter out, final UUID transactionID, final UUID fromID,
+				final UUID toID, final Money value) {
+			try {
+				writeField(out, "transactionID", transactionID);
+				writeField(out, "fromID", fromID);
+				writeField(out, "toID", toID);
+				writeField(out, "value", value, this.money);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public Void visit(final AccountCreatedEvent event, final JsonWriter out) {
+			try {
+				writeField(out, "fullName", event.getFullName());
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferredEvent event, final JsonWriter out) {
+			writeTransfer(out, event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(final AccountDebitedEvent event, final JsonWriter out) {
+			writeTransfer(out, event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(final AccountCreditedEvent event, final JsonWriter out) {
+			writeTransfer(out, event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferSucceeded event, final JsonWriter out) {
+			writeTransfer(out, event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(final MoneyTransferCancelled event, final JsonWriter out) {
+			writeTransfer(out, event.getTransactionID(), event.getFromID(), event.getToID(), event.getValue());
+			try {
+				writeField(out, "reason", event.getReason());
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		}
+	}
+}
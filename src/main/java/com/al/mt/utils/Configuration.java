@@ -0,0 +1,173 @@
+package com.al.mt.utils;
+
+/**
+ * Runtime settings of the application, read from system properties, e.g.
+ * {@code java -Dmt.snapshot.events=500 -jar money-transfer.jar}.
+ */
+public final class Configuration {
+	public static final String SNAPSHOT_EVENTS = "mt.snapshot.events";
+	public static final String SNAPSHOT_REPLAY_MILLIS = "mt.snapshot.replayMillis";
+	public static final String JOURNAL_PATH = "mt.journal.path";
+	public static final String JOURNAL_TYPE = "mt.journal.type";
+	public static final String JOURNAL_SEGMENT_MEGABYTES = "mt.journal.segmentMegabytes";
+	public static final String JOURNAL_SYNC_MILLIS = "mt.journal.syncMillis";
+	public static final String JOURNAL_SYNC_BATCH = "mt.journal.syncBatch";
+	public static final String RECOVERY_PARALLELISM = "mt.recovery.parallelism";
+	public static final String EVENT_BUS_SHARDS = "mt.eventBus.shards";
+	public static final String ACCOUNT_LOCK_STRIPES = "mt.accountLocks.stripes";
+	public static final String VIRTUAL_THREADS = "mt.virtualThreads";
+	public static final String ADMISSION_CAPACITY = "mt.admission.capacity";
+	public static final String ADMISSION_TIMEOUT_MILLIS = "mt.admission.timeoutMillis";
+	public static final String ADMISSION_RETRY_AFTER_SECONDS = "mt.admission.retryAfterSeconds";
+	public static final String TRANSFER_MAX_WAIT_MILLIS = "mt.transfer.maxWaitMillis";
+	public static final String TRANSFER_MAX_BATCH_SIZE = "mt.transfer.maxBatchSize";
+	public static final String ACCOUNTS_MAX_PAGE_SIZE = "mt.accounts.maxPageSize";
+
+	private static final int DEFAULT_SNAPSHOT_EVENTS = 100;
+	private static final long DEFAULT_SNAPSHOT_REPLAY_MILLIS = 0;
+	private static final String DEFAULT_JOURNAL_TYPE = "file";
+	private static final int DEFAULT_JOURNAL_SEGMENT_MEGABYTES = 64;
+	private static final long DEFAULT_JOURNAL_SYNC_MILLIS = 2;
+	private static final int DEFAULT_JOURNAL_SYNC_BATCH = 64;
+	private static final int DEFAULT_EVENT_BUS_SHARDS = 0;
+	private static final int DEFAULT_ACCOUNT_LOCK_STRIPES = 1024;
+	private static final int DEFAULT_ADMISSION_CAPACITY = 128;
+	private static final long DEFAULT_ADMISSION_TIMEOUT_MILLIS = 100;
+	private static final long DEFAULT_ADMISSION_RETRY_AFTER_SECONDS = 1;
+	private static final long DEFAULT_TRANSFER_MAX_WAIT_MILLIS = 10_000;
+	private static final int DEFAULT_TRANSFER_MAX_BATCH_SIZE = 1000;
+	private static final int DEFAULT_ACCOUNTS_MAX_PAGE_SIZE = 1000;
+
+	private Configuration() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Number of replayed events after which an aggregate snapshot is taken, 0
+	 * disables it.
+	 */
+	public static int snapshotEvents() {
+		return Integer.getInteger(SNAPSHOT_EVENTS, DEFAULT_SNAPSHOT_EVENTS);
+	}
+
+	/**
+	 * Replay time in milliseconds after which an aggregate snapshot is taken, 0
+	 * disables it.
+	 */
+	public static long snapshotReplayMillis() {
+		return Long.getLong(SNAPSHOT_REPLAY_MILLIS, DEFAULT_SNAPSHOT_REPLAY_MILLIS);
+	}
+
+	/**
+	 * File events are journaled to, {@code null} keeps events in memory only.
+	 */
+	public static String journalPath() {
+		return System.getProperty(JOURNAL_PATH);
+	}
+
+	/**
+	 * Journal implementation, {@code file} for a single append-only file or
+	 * {@code mapped} for a directory of memory-mapped segments.
+	 */
+	public static String journalType() {
+		return System.getProperty(JOURNAL_TYPE, DEFAULT_JOURNAL_TYPE);
+	}
+
+	/**
+	 * Size of memory-mapped journal segments in megabytes.
+	 */
+	public static int journalSegmentMegabytes() {
+		return Integer.getInteger(JOURNAL_SEGMENT_MEGABYTES, DEFAULT_JOURNAL_SEGMENT_MEGABYTES);
+	}
+
+	/**
+	 * Maximum time in milliseconds a journal write waits for other writes to
+	 * share a sync with.
+	 */
+	public static long journalSyncMillis() {
+		return Long.getLong(JOURNAL_SYNC_MILLIS, DEFAULT_JOURNAL_SYNC_MILLIS);
+	}
+
+	/**
+	 * Number of pending journal writes which are synced without waiting.
+	 */
+	public static int journalSyncBatch() {
+		return Integer.getInteger(JOURNAL_SYNC_BATCH, DEFAULT_JOURNAL_SYNC_BATCH);
+	}
+
+	/**
+	 * Number of threads replaying the journal on startup, defaults to the number
+	 * of available processors.
+	 */
+	public static int recoveryParallelism() {
+		return Integer.getInteger(RECOVERY_PARALLELISM, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Number of single-threaded shards processing events, 0 processes events
+	 * synchronously in request threads.
+	 */
+	public static int eventBusShards() {
+		return Integer.getInteger(EVENT_BUS_SHARDS, DEFAULT_EVENT_BUS_SHARDS);
+	}
+
+	/**
+	 * Number of locks accounts are striped over while transferring money.
+	 */
+	public static int accountLockStripes() {
+		return Integer.getInteger(ACCOUNT_LOCK_STRIPES, DEFAULT_ACCOUNT_LOCK_STRIPES);
+	}
+
+	/**
+	 * Whether requests and event shards run on virtual threads instead of platform
+	 * threads.
+	 */
+	public static boolean virtualThreads() {
+		return Boolean.getBoolean(VIRTUAL_THREADS);
+	}
+
+	/**
+	 * Number of account commands processed at the same time.
+	 */
+	public static int admissionCapacity() {
+		return Integer.getInteger(ADMISSION_CAPACITY, DEFAULT_ADMISSION_CAPACITY);
+	}
+
+	/**
+	 * Longest time in milliseconds an account command waits to be admitted
+	 * before it's rejected.
+	 */
+	public static long admissionTimeoutMillis() {
+		return Long.getLong(ADMISSION_TIMEOUT_MILLIS, DEFAULT_ADMISSION_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Seconds sent in {@code Retry-After} of rejected requests.
+	 */
+	public static long admissionRetryAfterSeconds() {
+		return Long.getLong(ADMISSION_RETRY_AFTER_SECONDS, DEFAULT_ADMISSION_RETRY_AFTER_SECONDS);
+	}
+
+	/**
+	 * Longest time in milliseconds a client may wait for a money transfer to
+	 * complete.
+	 */
+	public static long transferMaxWaitMillis() {
+		return Long.getLong(TRANSFER_MAX_WAIT_MILLIS, DEFAULT_TRANSFER_MAX_WAIT_MILLIS);
+	}
+
+	/**
+	 * Largest number of transfers accepted in a single batch request.
+	 */
+	public static int transferMaxBatchSize() {
+		return Integer.getInteger(TRANSFER_MAX_BATCH_SIZE, DEFAULT_TRANSFER_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Largest number of accounts or transfers of an account listed on a single
+	 * page.
+	 */
+	public static int accountsMaxPageSize() {
+		return Integer.getInteger(ACCOUNTS_MAX_PAGE_SIZE, DEFAULT_ACCOUNTS_MAX_PAGE_SIZE);
+	}
+}
@@ -1,10 +1,21 @@
 package com.al.mt.utils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.GsonBuilder;
 
 public interface JsonUtils {
-	final static Gson GSON = new Gson();
+	/**
+	 * Writes the API and event types by {@link ApiTypeAdapterFactory}, any other
+	 * type as a default {@link Gson}.
+	 */
+	final static Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new ApiTypeAdapterFactory()).create();
 
 	/**
 	 * Translates any {@code} model to JSON formatted string.
@@ -14,14 +25,12 @@ public interface JsonUtils {
 	}
 
 	/**
-	 * Checks whether {@code jsonInString} is a valid JSON formatted string.
+	 * Writes the same JSON as {@link #toJson(Object)} to {@code out} while the
+	 * model is serialized and closes it, the whole string is never built.
 	 */
-	static boolean isJSONValid(final String jsonInString) {
-		try {
-			GSON.fromJson(jsonInString, Object.class);
-			return true;
-		} catch (final JsonSyntaxException e) {
-			return false;
+	static void toJson(final Object model, final OutputStream out) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			GSON.toJson(model, writer);
 		}
 	}
 }
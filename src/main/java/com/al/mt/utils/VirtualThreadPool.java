@@ -0,0 +1,82 @@
+package com.al.mt.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Jetty {@link ThreadPool} which runs requests in virtual threads from
+ * {@link VirtualThreads}.
+ *
+ * <p>
+ * Virtual threads are cheap to start and to block, so there's no pool to
+ * exhaust: a request blocked on a transfer doesn't keep other requests from
+ * being handled. The number of requests processed at the same time is bounded
+ * by admission of commands instead.
+ *
+ * <p>
+ * Jobs submitted from outside of the pool, i.e. acceptors and selectors Jetty
+ * starts with the server, get a platform thread of their own. Virtual threads
+ * are not time-sliced, so accepting connections in a virtual thread would
+ * wait behind busy requests and overflow the accept queue under a burst.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+	private static final ThreadLocal<Boolean> IN_POOL = ThreadLocal.withInitial(() -> false);
+
+	private final ThreadFactory virtualThreads;
+	private final ThreadFactory platformThreads = new ThreadFactoryBuilder().setNameFormat("jetty-%d").build();
+	private final AtomicInteger threads = new AtomicInteger();
+
+	public VirtualThreadPool(final ThreadFactory virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	@Override
+	public void execute(final Runnable job) {
+		final ThreadFactory threadFactory = IN_POOL.get() ? this.virtualThreads : this.platformThreads;
+		this.threads.incrementAndGet();
+		threadFactory.newThread(() -> {
+			IN_POOL.set(true);
+			try {
+				job.run();
+			} finally {
+				this.threads.decrementAndGet();
+			}
+		}).start();
+	}
+
+	@Override
+	public synchronized void join() throws InterruptedException {
+		while (!isStopped()) {
+			wait();
+		}
+	}
+
+	@Override
+	protected synchronized void doStop() throws Exception {
+		super.doStop();
+		notifyAll();
+	}
+
+	/**
+	 * @return Number of jobs running right now.
+	 */
+	@Override
+	public int getThreads() {
+		return this.threads.get();
+	}
+
+	@Override
+	public int getIdleThreads() {
+		return 0;
+	}
+
+	@Override
+	public boolean isLowOnThreads() {
+		return false;
+	}
+}
@@ -0,0 +1,22 @@
+package com.al.mt.utils;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factories of virtual threads, which are named so thread dumps tell
+ * requests and event shards apart.
+ */
+public final class VirtualThreads {
+
+	private VirtualThreads() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * @return Factory of virtual threads named {@code prefix} followed by a
+	 *         counter.
+	 */
+	public static ThreadFactory factory(final String prefix) {
+		return Thread.ofVirtual().name(prefix, 0).factory();
+	}
+}
@@ -3,8 +3,6 @@ package com.al.mt.aggregates;
 import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
 import static com.google.common.truth.Truth.assertThat;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -19,6 +17,7 @@ import com.al.mt.events.DomainEvent;
 import com.al.mt.events.MoneyTransferCancelled;
 import com.al.mt.events.MoneyTransferSucceeded;
 import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
 import com.al.mt.model.MoneyTransaction;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -28,7 +27,7 @@ public class AccountAggregateTest {
 	private static final UUID TO_ID = UUID.randomUUID();
 	private static final AccountCreatedEvent ACCOUNT_CREATED = new AccountCreatedEvent(UUID.randomUUID(), FIRST_ACCOUT_FULL_NAME);
 	private static final MoneyTransferredEvent ISSUER_MONEY_TRANSFERRED = new MoneyTransferredEvent(FROM_ID,
-			FROM_ID, TO_ID, UUID.randomUUID(), BigDecimal.TEN);
+			FROM_ID, TO_ID, UUID.randomUUID(), Money.valueOf(10));
 	private static final MoneyTransferredEvent RECEIVER_MONEY_TRANSFERRED = new MoneyTransferredEvent(
 			ISSUER_MONEY_TRANSFERRED.getToID(), ISSUER_MONEY_TRANSFERRED.getFromID(),
 			ISSUER_MONEY_TRANSFERRED.getToID(), ISSUER_MONEY_TRANSFERRED.getTransactionID(),
@@ -69,7 +68,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEmpty();
 		assertThat(aggregate.getTransactionToReservedBalance()).isEmpty();
 		assertThat(aggregate.getCreatedAt()).isEqualTo(ACCOUNT_CREATED.getCreatedAt());
@@ -88,7 +87,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -113,7 +112,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(RECEIVER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(RECEIVER_MONEY_TRANSFERRED.getFromID())
 						.setToID(RECEIVER_MONEY_TRANSFERRED.getToID())
@@ -139,7 +138,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(990).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(990));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -165,7 +164,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(990).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(990));
 		assertThat(aggregate.getTransactions()).isEmpty();
 		assertThat(aggregate.getTransactionToReservedBalance())
 				.isEqualTo(ImmutableMap.of(ACCOUNT_DEBITED.getTransactionID(), ACCOUNT_DEBITED.getValue().negate()));
@@ -186,7 +185,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(RECEIVER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(RECEIVER_MONEY_TRANSFERRED.getFromID())
 						.setToID(RECEIVER_MONEY_TRANSFERRED.getToID())
@@ -212,7 +211,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEmpty();
 		assertThat(aggregate.getTransactionToReservedBalance())
 				.isEqualTo(ImmutableMap.of(ACCOUNT_CREDITED.getTransactionID(), ACCOUNT_CREDITED.getValue()));
@@ -233,7 +232,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -259,7 +258,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(990).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(990));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -285,7 +284,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1010).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1010));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(RECEIVER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(RECEIVER_MONEY_TRANSFERRED.getFromID())
 						.setToID(RECEIVER_MONEY_TRANSFERRED.getToID())
@@ -311,7 +310,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -337,7 +336,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(ISSUER_MONEY_TRANSFERRED.getFromID())
 						.setToID(ISSUER_MONEY_TRANSFERRED.getToID())
@@ -363,7 +362,7 @@ public class AccountAggregateTest {
 		// assert
 		assertThat(aggregate.getFullName()).isEqualTo(ACCOUNT_CREATED.getFullName());
 		assertThat(aggregate.getId()).isEqualTo(ACCOUNT_CREATED.getAggregateID());
-		assertThat(aggregate.getBalance()).isEqualTo(BigDecimal.valueOf(1000).setScale(2, RoundingMode.HALF_EVEN));
+		assertThat(aggregate.getBalance()).isEqualTo(Money.valueOf(1000));
 		assertThat(aggregate.getTransactions()).isEqualTo(ImmutableMap.of(RECEIVER_MONEY_TRANSFERRED.getTransactionID(),
 				MoneyTransaction.builder().setFromID(RECEIVER_MONEY_TRANSFERRED.getFromID())
 						.setToID(RECEIVER_MONEY_TRANSFERRED.getToID())
@@ -2,18 +2,66 @@ package com.al.mt.aggregates;
 
 import com.al.mt.aggregates.AccountAggregate;
 import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.enums.Reason;
 import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.exceptions.JournalException;
+import com.al.mt.exceptions.VersionConflictException;
+import com.al.mt.journal.EventJournal;
+import com.al.mt.model.Money;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
 
 import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
 import static com.al.mt.utils.Constants.SECOND_ACCOUT_FULL_NAME;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 
 public class AccountEventStorageTest {
+	private static final UUID ACCOUNT_ID = UUID.randomUUID();
+	private static final UUID OTHER_ACCOUNT_ID = UUID.randomUUID();
+
+	/**
+	 * History of {@link #ACCOUNT_ID} with outgoing, incoming and cancelled money
+	 * transfers.
+	 */
+	private static ImmutableList<DomainEvent> history(final int transfers) {
+		final ImmutableList.Builder<DomainEvent> events = ImmutableList.builder();
+		events.add(new AccountCreatedEvent(ACCOUNT_ID, FIRST_ACCOUT_FULL_NAME));
+		for (int i = 0; i < transfers; i++) {
+			final Money value = Money.valueOf(i + 1);
+			final UUID outgoingID = UUID.randomUUID();
+			events.add(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+			events.add(new AccountDebitedEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+			events.add(new MoneyTransferSucceeded(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+
+			final UUID incomingID = UUID.randomUUID();
+			events.add(new MoneyTransferredEvent(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+			events.add(new AccountCreditedEvent(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+			events.add(new MoneyTransferSucceeded(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+
+			final UUID cancelledID = UUID.randomUUID();
+			events.add(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, cancelledID, value));
+			events.add(new MoneyTransferCancelled(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, cancelledID, value,
+					Reason.BALANCE_TOO_LOW));
+		}
+		return events.build();
+	}
 
 	@Test
 	public void loadAll() {
@@ -25,7 +73,8 @@ public class AccountEventStorageTest {
 		storage.save(event2);
 
 		// when
-		final ImmutableList<AccountAggregate> aggregates = storage.findAll();
+		final ImmutableList<AccountAggregate> aggregates = storage.getAggregateIDs().stream().map(storage::get)
+				.collect(ImmutableList.toImmutableList());
 		// assert
 		assertThat(aggregates).containsExactly(AccountEventStorage.recreate(ImmutableList.of(event1)),
 				AccountEventStorage.recreate(ImmutableList.of(event2)));
@@ -73,4 +122,172 @@ public class AccountEventStorageTest {
 		// when & assert
 		assertThat(storage.exists(UUID.randomUUID())).isFalse();
 	}
+
+	@Test
+	public void snapshotAndTailReplayEqualsFullReplay() {
+		// given
+		final ImmutableList<DomainEvent> events = history(20);
+		final List<Integer> replayedEvents = new ArrayList<>();
+		final AccountEventStorage storage = new AccountEventStorage((replayed, nanos) -> {
+			replayedEvents.add(replayed);
+			return replayed >= 5;
+		});
+
+		for (int i = 0; i < events.size(); i++) {
+			// when
+			storage.save(events.get(i));
+			final AccountAggregate aggregate = storage.get(ACCOUNT_ID);
+
+			// assert
+			assertThat(aggregate).isEqualTo(AccountEventStorage.recreate(events.subList(0, i + 1)));
+		}
+		assertThat(replayedEvents).doesNotContain(6);
+		assertThat(storage.getAggregateIDs()).containsExactly(ACCOUNT_ID);
+	}
+
+	@Test
+	public void snapshotAndTailReplayEqualsFullReplayWhenReadRarely() {
+		// given
+		final ImmutableList<DomainEvent> events = history(30);
+		final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.everyEvents(10));
+
+		for (int i = 0; i < events.size(); i++) {
+			// when
+			storage.save(events.get(i));
+			if (i % 17 == 0) {
+				// assert
+				assertThat(storage.get(ACCOUNT_ID)).isEqualTo(AccountEventStorage.recreate(events.subList(0, i + 1)));
+			}
+		}
+		assertThat(storage.get(ACCOUNT_ID)).isEqualTo(AccountEventStorage.recreate(events));
+	}
+
+	@Test
+	public void snapshotIsNotAffectedByChangesOfReplayedAggregate() {
+		// given
+		final ImmutableList<DomainEvent> events = history(3);
+		final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.everyEvents(1));
+		events.forEach(storage::save);
+		final AccountAggregate dirtyAggregate = storage.get(ACCOUNT_ID);
+		final UUID transactionID = UUID.randomUUID();
+
+		// when
+		dirtyAggregate.apply(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, transactionID,
+				Money.valueOf(10)));
+		dirtyAggregate.apply(new AccountDebitedEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, transactionID,
+				Money.valueOf(10)));
+
+		// assert
+		assertThat(storage.get(ACCOUNT_ID)).isEqualTo(AccountEventStorage.recreate(events));
+	}
+
+	@Test
+	public void saveWithExpectedVersion() {
+		// given
+		final ImmutableList<DomainEvent> events = history(1);
+		final AccountEventStorage storage = new AccountEventStorage();
+		events.forEach(storage::save);
+		final AccountAggregate aggregate = storage.get(ACCOUNT_ID);
+		final MoneyTransferredEvent event = new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID,
+				UUID.randomUUID(), Money.valueOf(10));
+
+		// when
+		storage.save(event, aggregate.getVersion());
+
+		// assert
+		assertThat(aggregate.getVersion()).isEqualTo(events.size());
+		assertThat(storage.get(ACCOUNT_ID).getVersion()).isEqualTo(events.size() + 1);
+		assertThat(storage.getEvents(ACCOUNT_ID)).contains(event);
+	}
+
+	@Test
+	public void saveWithStaleVersionIsRejected() {
+		// given
+		final ImmutableList<DomainEvent> events = history(1);
+		final AccountEventStorage storage = new AccountEventStorage();
+		events.forEach(storage::save);
+		final int staleVersion = storage.get(ACCOUNT_ID).getVersion();
+		storage.save(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, UUID.randomUUID(),
+				Money.valueOf(1)));
+
+		// when
+		assertThrows(VersionConflictException.class, () -> storage.save(new MoneyTransferredEvent(ACCOUNT_ID,
+				ACCOUNT_ID, OTHER_ACCOUNT_ID, UUID.randomUUID(), Money.valueOf(10)), staleVersion));
+
+		// assert
+		assertThat(storage.get(ACCOUNT_ID).getVersion()).isEqualTo(staleVersion + 1);
+	}
+
+	@Test
+	public void saveAllStoresEventsOfEachAggregate() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountCreatedEvent accountCreated = new AccountCreatedEvent(ACCOUNT_ID, FIRST_ACCOUT_FULL_NAME);
+		final AccountCreatedEvent otherAccountCreated = new AccountCreatedEvent(OTHER_ACCOUNT_ID,
+				SECOND_ACCOUT_FULL_NAME);
+		final MoneyTransferredEvent moneyTransferred = new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID,
+				OTHER_ACCOUNT_ID, UUID.randomUUID(), Money.valueOf(10));
+
+		// when
+		storage.saveAll(ImmutableList.of(accountCreated, otherAccountCreated, moneyTransferred));
+
+		// assert
+		assertThat(storage.getEvents(ACCOUNT_ID)).containsExactly(accountCreated, moneyTransferred).inOrder();
+		assertThat(storage.getEvents(OTHER_ACCOUNT_ID)).containsExactly(otherAccountCreated);
+	}
+
+	@Test
+	public void saveAllWithStaleVersionSavesNothing() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		storage.save(new AccountCreatedEvent(ACCOUNT_ID, FIRST_ACCOUT_FULL_NAME));
+		storage.save(new AccountCreatedEvent(OTHER_ACCOUNT_ID, SECOND_ACCOUT_FULL_NAME));
+		final UUID transactionID = UUID.randomUUID();
+		final ImmutableList<DomainEvent> events = ImmutableList.of(
+				new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, transactionID, Money.valueOf(10)),
+				new MoneyTransferredEvent(OTHER_ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, transactionID,
+						Money.valueOf(10)));
+
+		// when
+		assertThrows(VersionConflictException.class,
+				() -> storage.saveAll(events, ImmutableMap.of(ACCOUNT_ID, 0, OTHER_ACCOUNT_ID, 1)));
+		storage.saveAll(events, ImmutableMap.of(ACCOUNT_ID, 1, OTHER_ACCOUNT_ID, 1));
+
+		// assert
+		assertThat(storage.get(ACCOUNT_ID).getVersion()).isEqualTo(2);
+		assertThat(storage.get(OTHER_ACCOUNT_ID).getVersion()).isEqualTo(2);
+	}
+
+	@Test
+	public void eventsAreNotVisibleWhenSyncFails() {
+		// given
+		final EventJournal journal = mock(EventJournal.class);
+		final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.never(), journal);
+		storage.save(new AccountCreatedEvent(ACCOUNT_ID, FIRST_ACCOUT_FULL_NAME));
+		doThrow(new JournalException("Journal could not be synced")).when(journal).awaitDurable(anyLong());
+		final MoneyTransferredEvent event = new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID,
+				UUID.randomUUID(), Money.valueOf(10));
+
+		// when
+		assertThrows(JournalException.class, () -> storage.save(event));
+		assertThrows(JournalException.class, () -> storage.saveAll(ImmutableList.of(event)));
+
+		// assert
+		assertThat(storage.get(ACCOUNT_ID).getVersion()).isEqualTo(1);
+		doNothing().when(journal).awaitDurable(anyLong());
+		storage.save(event, 1);
+		assertThat(storage.getEvents(ACCOUNT_ID)).hasSize(2);
+	}
+
+	@Test
+	public void matchReplayEqualsVisitorReplay() {
+		// given
+		final ImmutableList<DomainEvent> events = history(10);
+
+		// when
+		final AccountAggregate aggregate = MatchReplay.recreate(events);
+
+		// assert
+		assertThat(aggregate).isEqualTo(AccountEventStorage.recreate(events));
+	}
 }
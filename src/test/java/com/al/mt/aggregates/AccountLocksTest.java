@@ -0,0 +1,91 @@
+package com.al.mt.aggregates;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AccountLocksTest {
+	private static final UUID FIRST_ID = UUID.randomUUID();
+	private static final UUID SECOND_ID = UUID.randomUUID();
+
+	private int transfers;
+
+	@Test
+	public void oppositeTransfersDoNotDeadlock() throws Exception {
+		// given
+		final AccountLocks locks = new AccountLocks(1024);
+		final int iterations = 10_000;
+		final Thread forward = new Thread(() -> {
+			for (int i = 0; i < iterations; i++) {
+				try (AccountLocks.Locked locked = locks.lock(FIRST_ID, SECOND_ID)) {
+					this.transfers++;
+				}
+			}
+		});
+		final Thread backward = new Thread(() -> {
+			for (int i = 0; i < iterations; i++) {
+				try (AccountLocks.Locked locked = locks.lock(SECOND_ID, FIRST_ID)) {
+					this.transfers++;
+				}
+			}
+		});
+
+		// when
+		forward.start();
+		backward.start();
+		forward.join(TimeUnit.SECONDS.toMillis(10));
+		backward.join(TimeUnit.SECONDS.toMillis(10));
+
+		// assert
+		assertThat(forward.isAlive()).isFalse();
+		assertThat(backward.isAlive()).isFalse();
+		assertThat(this.transfers).isEqualTo(2 * iterations);
+		assertThat(locks.getAcquisitions()).isEqualTo(2 * iterations);
+	}
+
+	@Test
+	public void waitForHeldStripeIsRecorded() throws Exception {
+		// given
+		final AccountLocks locks = new AccountLocks(16);
+		final CountDownLatch waiting = new CountDownLatch(1);
+		final Thread other = new Thread(() -> {
+			waiting.countDown();
+			locks.lock(SECOND_ID, FIRST_ID).close();
+		});
+
+		// when
+		try (AccountLocks.Locked locked = locks.lock(FIRST_ID, SECOND_ID)) {
+			other.start();
+			waiting.await();
+			Thread.sleep(50);
+		}
+		other.join(TimeUnit.SECONDS.toMillis(10));
+
+		// assert
+		assertThat(locks.getAcquisitions()).isEqualTo(2L);
+		assertThat(locks.getContendedAcquisitions()).isAtLeast(1L);
+		assertThat(locks.getWaitTime(TimeUnit.MILLISECONDS)).isAtLeast(40L);
+		assertThat(locks.getMaxWaitTime(TimeUnit.MILLISECONDS)).isAtLeast(40L);
+	}
+
+	@Test
+	public void sameAccountIsUnlockedCompletely() throws Exception {
+		// given
+		final AccountLocks locks = new AccountLocks(16);
+		final Thread other = new Thread(() -> locks.lock(FIRST_ID, SECOND_ID).close());
+
+		// when
+		locks.lock(FIRST_ID, FIRST_ID).close();
+		other.start();
+		other.join(TimeUnit.SECONDS.toMillis(10));
+
+		// assert
+		assertThat(other.isAlive()).isFalse();
+		assertThat(locks.getAcquisitions()).isEqualTo(2L);
+		assertThat(locks.getContendedAcquisitions()).isEqualTo(0L);
+	}
+}
@@ -0,0 +1,160 @@
+package com.al.mt.aggregates;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.Constants.SECOND_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Account;
+import com.al.mt.model.Money;
+import com.al.mt.utils.JsonUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+
+public class AccountProjectionTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+	private static final AccountCreatedEvent ACCOUNT_CREATED = new AccountCreatedEvent(FROM_ID,
+			FIRST_ACCOUT_FULL_NAME);
+	private static final MoneyTransferredEvent MONEY_TRANSFERRED = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID,
+			TRANSACTION_ID, Money.valueOf(10));
+	private static final AccountDebitedEvent ACCOUNT_DEBITED = new AccountDebitedEvent(FROM_ID, FROM_ID, TO_ID,
+			TRANSACTION_ID, Money.valueOf(10));
+
+	private static String expected(final DomainEvent... events) {
+		return toJson(Account.from(AccountEventStorage.recreate(ImmutableList.copyOf(events))));
+	}
+
+	@Test
+	public void refreshAppliesStoredEvents() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountProjection projection = new AccountProjection(storage);
+		storage.save(ACCOUNT_CREATED);
+		storage.save(MONEY_TRANSFERRED);
+		storage.save(ACCOUNT_DEBITED);
+
+		// when
+		projection.refresh(FROM_ID);
+
+		// assert
+		assertThat(toJson(projection.get(FROM_ID)))
+				.isEqualTo(expected(ACCOUNT_CREATED, MONEY_TRANSFERRED, ACCOUNT_DEBITED));
+		assertThat(projection.exists(FROM_ID)).isTrue();
+	}
+
+	@Test
+	public void viewIsNotChangedByLaterEvents() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountProjection projection = new AccountProjection(storage);
+		storage.save(ACCOUNT_CREATED);
+		storage.save(MONEY_TRANSFERRED);
+		projection.refresh(FROM_ID);
+		final Account before = projection.get(FROM_ID);
+
+		// when
+		storage.save(ACCOUNT_DEBITED);
+		projection.refresh(FROM_ID);
+
+		// assert
+		assertThat(toJson(before)).isEqualTo(expected(ACCOUNT_CREATED, MONEY_TRANSFERRED));
+		assertThat(toJson(projection.get(FROM_ID)))
+				.isEqualTo(expected(ACCOUNT_CREATED, MONEY_TRANSFERRED, ACCOUNT_DEBITED));
+		assertThat(projection.get(FROM_ID)).isSameAs(projection.get(FROM_ID));
+	}
+
+	@Test
+	public void repeatedRefreshAppliesEventsOnce() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountProjection projection = new AccountProjection(storage);
+		storage.save(ACCOUNT_CREATED);
+		projection.refresh(FROM_ID);
+		storage.save(MONEY_TRANSFERRED);
+		storage.save(ACCOUNT_DEBITED);
+
+		// when
+		projection.refresh(FROM_ID);
+		projection.refresh(FROM_ID);
+
+		// assert
+		assertThat(toJson(projection.get(FROM_ID)))
+				.isEqualTo(expected(ACCOUNT_CREATED, MONEY_TRANSFERRED, ACCOUNT_DEBITED));
+		assertThat(projection.get(FROM_ID).toString())
+				.contains(BigDecimal.valueOf(990).setScale(2, RoundingMode.HALF_EVEN).toString());
+		assertThat(projection.version(FROM_ID)).isEqualTo(3);
+	}
+
+	@Test
+	public void rebuild() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountCreatedEvent otherAccountCreated = new AccountCreatedEvent(TO_ID, SECOND_ACCOUT_FULL_NAME);
+		storage.save(ACCOUNT_CREATED);
+		storage.save(otherAccountCreated);
+		final AccountProjection projection = new AccountProjection(storage);
+
+		// when
+		projection.rebuild();
+
+		// assert
+		assertThat(Streams.stream(projection.iterate(null, Account.FIELDS)).map(JsonUtils::toJson).collect(toImmutableList()))
+				.containsExactly(expected(ACCOUNT_CREATED), expected(otherAccountCreated));
+	}
+
+	@Test
+	public void pagesContinueAfterLastAccount() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountProjection projection = new AccountProjection(storage);
+		final ImmutableList<UUID> ids = ImmutableList.sortedCopyOf(ImmutableList.of(UUID.randomUUID(),
+				UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+		for (final UUID id : ids) {
+			storage.save(new AccountCreatedEvent(id, FIRST_ACCOUT_FULL_NAME));
+			projection.refresh(id);
+		}
+
+		// when
+		final ImmutableList<Account> firstPage = ImmutableList.copyOf(Iterators.limit(projection.iterate(null, Account.FIELDS), 2));
+		final ImmutableList<Account> lastPage = ImmutableList.copyOf(Iterators.limit(projection.iterate(ids.get(3),
+				ImmutableSet.of("accountNumber", "balance")), 2));
+
+		// assert
+		assertThat(firstPage.stream().map(Account::getAccountNumber).collect(toImmutableList()))
+				.containsExactly(ids.get(0), ids.get(1)).inOrder();
+		assertThat(toJson(firstPage.get(0)))
+				.isEqualTo(expected(new AccountCreatedEvent(ids.get(0), FIRST_ACCOUT_FULL_NAME)));
+		assertThat(lastPage).hasSize(1);
+		assertThat(toJson(lastPage.get(0)))
+				.isEqualTo(String.format("{\"accountNumber\":\"%s\",\"balance\":1000.00}", ids.get(4)));
+	}
+
+	@Test
+	public void getNotExistingAccount() {
+		// given
+		final AccountProjection projection = new AccountProjection(new AccountEventStorage());
+
+		// when
+		projection.refresh(FROM_ID);
+
+		// assert
+		assertThat(projection.get(FROM_ID)).isNull();
+		assertThat(projection.exists(FROM_ID)).isFalse();
+		assertThat(projection.version(FROM_ID)).isEqualTo(0);
+	}
+}
@@ -0,0 +1,106 @@
+package com.al.mt.aggregates;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+import com.google.common.collect.ImmutableList;
+
+public class EventLogTest {
+	private static final UUID AGGREGATE_ID = UUID.randomUUID();
+
+	private static ImmutableList<DomainEvent> events(final int count) {
+		final ImmutableList.Builder<DomainEvent> events = ImmutableList.builder();
+		events.add(new AccountCreatedEvent(AGGREGATE_ID, FIRST_ACCOUT_FULL_NAME));
+		for (int i = 1; i < count; i++) {
+			events.add(new MoneyTransferredEvent(AGGREGATE_ID, AGGREGATE_ID, UUID.randomUUID(), UUID.randomUUID(),
+					Money.valueOf(i)));
+		}
+		return events.build();
+	}
+
+	@Test
+	public void appendKeepsOrderAcrossChunks() {
+		// given
+		final ImmutableList<DomainEvent> events = events(1000);
+		final EventLog log = new EventLog();
+
+		// when
+		events.forEach(log::append);
+
+		// assert
+		assertThat(log.size()).isEqualTo(events.size());
+		assertThat(log.view()).containsExactlyElementsIn(events).inOrder();
+		assertThat(log.view()).isEqualTo(events);
+	}
+
+	@Test
+	public void viewIsNotAffectedByLaterAppends() {
+		// given
+		final ImmutableList<DomainEvent> events = events(100);
+		final EventLog log = new EventLog();
+		events.subList(0, 10).forEach(log::append);
+		final List<DomainEvent> view = log.view();
+
+		// when
+		events.subList(10, events.size()).forEach(log::append);
+
+		// assert
+		assertThat(view).isEqualTo(events.subList(0, 10));
+		assertThat(log.view(50)).isEqualTo(events.subList(0, 50));
+	}
+
+	@Test
+	public void viewIsImmutable() {
+		// given
+		final EventLog log = new EventLog();
+		events(3).forEach(log::append);
+
+		// when & assert
+		assertThrows(UnsupportedOperationException.class, () -> log.view().add(events(1).get(0)));
+		assertThrows(IndexOutOfBoundsException.class, () -> log.view().get(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> log.view(4));
+	}
+
+	@Test
+	public void tryClaimWaitsForAppendInProgress() throws Exception {
+		// given
+		final ImmutableList<DomainEvent> events = events(2);
+		final EventLog log = new EventLog();
+		final int released = log.claim();
+		final CompletableFuture<Boolean> afterRelease = CompletableFuture.supplyAsync(() -> log.tryClaim(0));
+
+		// when
+		Thread.sleep(50);
+		final boolean doneBeforeRelease = afterRelease.isDone();
+		log.release(released);
+
+		// assert
+		assertThat(doneBeforeRelease).isFalse();
+		assertThat(afterRelease.get(5, TimeUnit.SECONDS)).isTrue();
+
+		// given
+		final CompletableFuture<Boolean> afterPublish = CompletableFuture.supplyAsync(() -> log.tryClaim(0));
+
+		// when
+		Thread.sleep(50);
+		log.publish(0, events.get(0));
+
+		// assert
+		assertThat(afterPublish.get(5, TimeUnit.SECONDS)).isFalse();
+		assertThat(log.tryClaim(1)).isTrue();
+		log.publish(1, events.get(1));
+		assertThat(log.view()).isEqualTo(events);
+	}
+}
@@ -1,32 +1,53 @@
 package com.al.mt.aggregates;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
 import com.al.mt.events.AccountCreatedEvent;
 import com.al.mt.events.AccountCreditedEvent;
 import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferBatch;
 import com.al.mt.events.MoneyTransferCancelled;
 import com.al.mt.events.MoneyTransferSucceeded;
 import com.al.mt.events.MoneyTransferredEvent;
 import com.al.mt.exceptions.AggregateDoesNotExistException;
+import com.al.mt.exceptions.VersionConflictException;
+import com.al.mt.model.Money;
+import com.al.mt.model.Transaction;
+import com.al.mt.utils.JsonUtils;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +57,7 @@ public class EventManagerTest {
 	private static final UUID TO_ID = UUID.randomUUID();
 	private static final AccountCreatedEvent ACCOUNT_CREATED = new AccountCreatedEvent(UUID.randomUUID(), "Sam Willis");
 	private static final MoneyTransferredEvent ISSUER_MONEY_TRANSFERRED = new MoneyTransferredEvent(FROM_ID, FROM_ID,
-			TO_ID, UUID.randomUUID(), BigDecimal.TEN);
+			TO_ID, UUID.randomUUID(), Money.valueOf(10));
 	private static final MoneyTransferredEvent RECEIVER_MONEY_TRANSFERRED = new MoneyTransferredEvent(
 			ISSUER_MONEY_TRANSFERRED.getToID(), ISSUER_MONEY_TRANSFERRED.getFromID(),
 			ISSUER_MONEY_TRANSFERRED.getToID(), ISSUER_MONEY_TRANSFERRED.getTransactionID(),
@@ -57,15 +78,41 @@ public class EventManagerTest {
 			ISSUER_MONEY_TRANSFERRED.getAggregateID(), ISSUER_MONEY_TRANSFERRED.getFromID(),
 			ISSUER_MONEY_TRANSFERRED.getToID(), ISSUER_MONEY_TRANSFERRED.getTransactionID(),
 			ISSUER_MONEY_TRANSFERRED.getValue());
+	private static final MoneyTransferSucceeded RECEIVER_MONEY_TRANSFER_SUCCEEDED = new MoneyTransferSucceeded(
+			RECEIVER_MONEY_TRANSFERRED.getAggregateID(), RECEIVER_MONEY_TRANSFERRED.getFromID(),
+			RECEIVER_MONEY_TRANSFERRED.getToID(), RECEIVER_MONEY_TRANSFERRED.getTransactionID(),
+			RECEIVER_MONEY_TRANSFERRED.getValue());
 	@Mock
 	private EventBus eventBus;
 
 	@Mock
 	private AccountEventStorage accountEventStorage;
 
+	@Mock
+	private AccountProjection accountProjection;
+
+	@Spy
+	private AccountLocks accountLocks = new AccountLocks(16);
+
+	@Spy
+	private PendingTransfers pendingTransfers = new PendingTransfers();
+
+	@Spy
+	private TransactionIndex transactionIndex = new TransactionIndex();
+
+	@Captor
+	private ArgumentCaptor<List<DomainEvent>> events;
+
 	@InjectMocks
 	private EventManager eventManager;
 
+	/**
+	 * Events created by the handler differ only in the creation time.
+	 */
+	private static List<String> describe(final List<DomainEvent> events) {
+		return Lists.transform(events, event -> JsonUtils.toJson(event).replaceAll(",\"createdAt\":\"[^\"]*\"", ""));
+	}
+
 	@Test
 	public void accountCreatedEvent() {
 		// when
@@ -73,6 +120,7 @@ public class EventManagerTest {
 
 		// assert
 		verify(this.accountEventStorage).save(ACCOUNT_CREATED);
+		verify(this.accountProjection).refresh(ACCOUNT_CREATED.getAggregateID());
 	}
 
 	@Test
@@ -86,108 +134,256 @@ public class EventManagerTest {
 		// assert
 		verify(this.accountEventStorage).exists(ISSUER_MONEY_TRANSFERRED.getAggregateID());
 		verifyNoMoreInteractions(this.accountEventStorage);
-		verifyZeroInteractions(this.eventBus);
+		verifyNoInteractions(this.eventBus);
+		verifyNoInteractions(this.accountProjection);
 	}
 
 	@Test
-	public void accountDebitedEventAggregateExists() {
+	public void moneyTransferredEventSavesTransferAsOneBatch() {
 		// given
 		when(this.accountEventStorage.exists(any())).thenReturn(true);
-		when(this.accountEventStorage.get(ACCOUNT_DEBITED.getAggregateID()))
-				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED, ISSUER_MONEY_TRANSFERRED)));
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
+		final InOrder inOrder = inOrder(this.accountLocks, this.accountEventStorage);
 
 		// when
-		this.eventManager.handle(ACCOUNT_DEBITED);
+		this.eventManager.handle(ISSUER_MONEY_TRANSFERRED);
 
 		// assert
-		verify(this.accountEventStorage).save(ACCOUNT_DEBITED);
-		verify(this.accountEventStorage).save(RECEIVER_MONEY_TRANSFERRED);
-		verify(this.eventBus).post(ACCOUNT_CREDITED);
+		inOrder.verify(this.accountLocks).lock(FROM_ID, TO_ID);
+		inOrder.verify(this.accountEventStorage).saveAll(this.events.capture(), eq(ImmutableMap.of(FROM_ID, 1)));
+		assertThat(describe(this.events.getValue()))
+				.containsExactlyElementsIn(describe(ImmutableList.of(ISSUER_MONEY_TRANSFERRED, ACCOUNT_DEBITED,
+						RECEIVER_MONEY_TRANSFERRED, ACCOUNT_CREDITED, ISSUER_MONEY_TRANSFER_SUCCEEDED,
+						RECEIVER_MONEY_TRANSFER_SUCCEEDED)))
+				.inOrder();
+		verify(this.accountEventStorage, never()).save(any());
+		verify(this.accountProjection).refresh(FROM_ID);
+		verify(this.accountProjection).refresh(TO_ID);
+		verifyNoInteractions(this.eventBus);
 	}
 
 	@Test
-	public void accountDebitedEventAggregateDoesNotExist() {
+	public void moneyTransferredEventCompletesAwaitedTransfer() {
 		// given
-		when(this.accountEventStorage.exists(any())).thenReturn(false);
-		when(this.accountEventStorage.get(ACCOUNT_DEBITED.getAggregateID())).thenReturn(null);
+		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
+		final CompletableFuture<State> transfer = this.pendingTransfers
+				.register(ISSUER_MONEY_TRANSFERRED.getTransactionID());
 
 		// when
-		assertThrows(AggregateDoesNotExistException.class, () -> this.eventManager.handle(ACCOUNT_DEBITED));
+		this.eventManager.handle(ISSUER_MONEY_TRANSFERRED);
 
 		// assert
-		verify(this.accountEventStorage).get(ACCOUNT_DEBITED.getAggregateID());
-		verifyNoMoreInteractions(this.accountEventStorage);
-		verifyZeroInteractions(this.eventBus);
+		assertThat(transfer.getNow(null)).isEqualTo(State.SUCCEEDED);
+		assertThat(this.pendingTransfers.size()).isEqualTo(0);
 	}
 
 	@Test
-	public void accountDebitedEventAggregateExistsNotEnoughMoney() {
+	public void moneyTransferredEventIndexesTransfer() {
 		// given
-		final AccountDebitedEvent accountDebited = ACCOUNT_DEBITED.toBuilder().setValue(BigDecimal.valueOf(2000))
-				.build();
-		final MoneyTransferCancelled moneyTransferCancelled = MONEY_TRANSFER_CANCELLED.toBuilder()
-				.setValue(accountDebited.getValue()).build();
 		when(this.accountEventStorage.exists(any())).thenReturn(true);
-		when(this.accountEventStorage.get(ACCOUNT_DEBITED.getAggregateID()))
-				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED, ISSUER_MONEY_TRANSFERRED)));
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
 
 		// when
-		this.eventManager.handle(accountDebited);
+		this.eventManager.handle(ISSUER_MONEY_TRANSFERRED);
 
 		// assert
-		verify(this.accountEventStorage).get(ACCOUNT_DEBITED.getAggregateID());
-		verify(this.eventBus).post(moneyTransferCancelled);
-		verifyNoMoreInteractions(this.accountEventStorage);
-		verifyNoMoreInteractions(this.eventBus);
+		final Transaction transaction = this.transactionIndex.get(ISSUER_MONEY_TRANSFERRED.getTransactionID());
+		assertThat(transaction.getState()).isEqualTo(State.SUCCEEDED);
+		assertThat(transaction.getReason()).isNull();
+		assertThat(transaction.getFromID()).isEqualTo(FROM_ID);
+		assertThat(transaction.getToID()).isEqualTo(TO_ID);
+		assertThat(transaction.getCreatedAt()).isEqualTo(ISSUER_MONEY_TRANSFERRED.getCreatedAt());
 	}
 
 	@Test
-	public void moneyTransferCancelledEventAggregateExists() {
+	public void moneyTransferredEventFailsAwaitedTransfer() {
+		// given
+		when(this.accountEventStorage.exists(FROM_ID)).thenReturn(true);
+		when(this.accountEventStorage.exists(TO_ID)).thenReturn(false);
+		final CompletableFuture<State> transfer = this.pendingTransfers
+				.register(ISSUER_MONEY_TRANSFERRED.getTransactionID());
+
+		// when
+		assertThrows(AggregateDoesNotExistException.class, () -> this.eventManager.handle(ISSUER_MONEY_TRANSFERRED));
+
+		// assert
+		assertThat(transfer.isCompletedExceptionally()).isTrue();
+		assertThat(this.pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void moneyTransferredEventFailsAwaitedTransferOnError() {
 		// given
 		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID)).thenThrow(new OutOfMemoryError());
+		final CompletableFuture<State> transfer = this.pendingTransfers
+				.register(ISSUER_MONEY_TRANSFERRED.getTransactionID());
 
 		// when
-		this.eventManager.handle(MONEY_TRANSFER_CANCELLED);
+		assertThrows(OutOfMemoryError.class, () -> this.eventManager.handle(ISSUER_MONEY_TRANSFERRED));
 
 		// assert
-		verify(this.accountEventStorage).save(MONEY_TRANSFER_CANCELLED);
+		assertThat(transfer.isCompletedExceptionally()).isTrue();
+		assertThat(this.pendingTransfers.size()).isEqualTo(0);
 	}
 
 	@Test
-	public void moneyTransferCancelledEventAggregateDoesNotExist() {
+	public void moneyTransferBatchFailsAwaitedTransfersOnError() {
 		// given
-		when(this.accountEventStorage.exists(any())).thenReturn(false);
+		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID)).thenThrow(new OutOfMemoryError());
+		final CompletableFuture<State> transfer = this.pendingTransfers
+				.register(ISSUER_MONEY_TRANSFERRED.getTransactionID());
 
 		// when
-		assertThrows(AggregateDoesNotExistException.class, () -> this.eventManager.handle(MONEY_TRANSFER_CANCELLED));
+		assertThrows(OutOfMemoryError.class, () -> this.eventManager
+				.handle(new MoneyTransferBatch(FROM_ID, ImmutableList.of(ISSUER_MONEY_TRANSFERRED))));
 
 		// assert
-		verify(this.accountEventStorage).exists(MONEY_TRANSFER_CANCELLED.getAggregateID());
+		assertThat(transfer.isCompletedExceptionally()).isTrue();
+		assertThat(this.pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void moneyTransferBatchChecksEachTransferAgainstBalanceLeft() {
+		// given
+		final MoneyTransferredEvent first = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, UUID.randomUUID(),
+				Money.valueOf(600));
+		final MoneyTransferredEvent second = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, UUID.randomUUID(),
+				Money.valueOf(600));
+		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
+		final CompletableFuture<State> secondTransfer = this.pendingTransfers.register(second.getTransactionID());
+
+		// when
+		this.eventManager.handle(new MoneyTransferBatch(FROM_ID, ImmutableList.of(first, second)));
+
+		// assert
+		verify(this.accountLocks).lock(ImmutableSet.of(FROM_ID, TO_ID));
+		verify(this.accountEventStorage).saveAll(this.events.capture(), eq(ImmutableMap.of(FROM_ID, 1)));
+		assertThat(describe(this.events.getValue().subList(6, 8))).containsExactlyElementsIn(
+				describe(ImmutableList.of(second, new MoneyTransferCancelled(FROM_ID, FROM_ID, TO_ID,
+						second.getTransactionID(), second.getValue(), Reason.BALANCE_TOO_LOW))))
+				.inOrder();
+		assertThat(this.events.getValue()).hasSize(8);
+		assertThat(secondTransfer.getNow(null)).isEqualTo(State.CANCELLED);
+		verify(this.accountProjection).refresh(FROM_ID);
+		verify(this.accountProjection).refresh(TO_ID);
+	}
+
+	@Test
+	public void moneyTransferBatchSkipsTransfersToMissingReceivers() {
+		// given
+		final UUID missingID = UUID.randomUUID();
+		final MoneyTransferredEvent missing = new MoneyTransferredEvent(FROM_ID, FROM_ID, missingID,
+				UUID.randomUUID(), Money.valueOf(10));
+		when(this.accountEventStorage.exists(FROM_ID)).thenReturn(true);
+		when(this.accountEventStorage.exists(TO_ID)).thenReturn(true);
+		when(this.accountEventStorage.exists(missingID)).thenReturn(false);
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
+		final CompletableFuture<State> missingTransfer = this.pendingTransfers.register(missing.getTransactionID());
+
+		// when
+		this.eventManager.handle(new MoneyTransferBatch(FROM_ID, ImmutableList.of(missing, ISSUER_MONEY_TRANSFERRED)));
+
+		// assert
+		verify(this.accountEventStorage).saveAll(this.events.capture(), eq(ImmutableMap.of(FROM_ID, 1)));
+		assertThat(this.events.getValue()).hasSize(6);
+		assertThat(this.events.getValue().stream().map(DomainEvent::getAggregateID).distinct().toArray())
+				.asList().containsExactly(FROM_ID, TO_ID);
+		assertThat(missingTransfer.isCompletedExceptionally()).isTrue();
+	}
+
+	@Test
+	public void moneyTransferredEventRetriedAfterVersionConflict() {
+		// given
+		final MoneyTransferredEvent otherMoneyTransferred = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID,
+				UUID.randomUUID(), Money.valueOf(1));
+		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED, otherMoneyTransferred)));
+		doThrow(new VersionConflictException("Conflict")).when(this.accountEventStorage).saveAll(any(),
+				eq(ImmutableMap.of(FROM_ID, 1)));
+
+		// when
+		this.eventManager.handle(ISSUER_MONEY_TRANSFERRED);
+
+		// assert
+		verify(this.accountEventStorage, times(2)).get(FROM_ID);
+		verify(this.accountEventStorage).saveAll(any(), eq(ImmutableMap.of(FROM_ID, 2)));
+	}
+
+	@Test
+	public void moneyTransferredEventReceiverDoesNotExist() {
+		// given
+		when(this.accountEventStorage.exists(FROM_ID)).thenReturn(true);
+		when(this.accountEventStorage.exists(TO_ID)).thenReturn(false);
+
+		// when
+		assertThrows(AggregateDoesNotExistException.class, () -> this.eventManager.handle(ISSUER_MONEY_TRANSFERRED));
+
+		// assert
+		verify(this.accountEventStorage).exists(FROM_ID);
+		verify(this.accountEventStorage).exists(TO_ID);
 		verifyNoMoreInteractions(this.accountEventStorage);
+		verifyNoInteractions(this.eventBus);
 	}
 
 	@Test
-	public void moneyTransferSucceededEventAggregateExists() {
+	public void moneyTransferredEventNotEnoughMoney() {
 		// given
+		final MoneyTransferredEvent moneyTransferred = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID,
+				ISSUER_MONEY_TRANSFERRED.getTransactionID(), Money.valueOf(2000));
+		final MoneyTransferCancelled moneyTransferCancelled = MONEY_TRANSFER_CANCELLED.toBuilder()
+				.setValue(moneyTransferred.getValue()).build();
 		when(this.accountEventStorage.exists(any())).thenReturn(true);
+		when(this.accountEventStorage.get(FROM_ID))
+				.thenReturn(AccountEventStorage.recreate(ImmutableList.of(ACCOUNT_CREATED)));
 
 		// when
-		this.eventManager.handle(ISSUER_MONEY_TRANSFER_SUCCEEDED);
+		this.eventManager.handle(moneyTransferred);
 
 		// assert
-		verify(this.accountEventStorage).save(ISSUER_MONEY_TRANSFER_SUCCEEDED);
+		verify(this.accountEventStorage).saveAll(ImmutableList.of(moneyTransferred, moneyTransferCancelled),
+				ImmutableMap.of(FROM_ID, 1));
+		verify(this.accountProjection).refresh(FROM_ID);
+		verify(this.accountProjection, never()).refresh(TO_ID);
+		verify(this.pendingTransfers).complete(moneyTransferred.getTransactionID(), State.CANCELLED);
+		assertThat(this.transactionIndex.get(moneyTransferred.getTransactionID()).getReason())
+				.isEqualTo(Reason.BALANCE_TOO_LOW);
+		verifyNoInteractions(this.eventBus);
 	}
 
 	@Test
-	public void moneyTransferSucceededEventAggregateDoesNotExist() {
+	public void moneyTransferCancelledEventAggregateExists() {
 		// given
-		when(accountEventStorage.exists(any())).thenReturn(false);
+		when(this.accountEventStorage.exists(any())).thenReturn(true);
 
 		// when
-		assertThrows(AggregateDoesNotExistException.class, () -> eventManager.handle(ISSUER_MONEY_TRANSFER_SUCCEEDED));
+		this.eventManager.handle(MONEY_TRANSFER_CANCELLED);
 
 		// assert
-		verify(accountEventStorage).exists(ISSUER_MONEY_TRANSFER_SUCCEEDED.getAggregateID());
-		verifyNoMoreInteractions(accountEventStorage);
+		verify(this.accountEventStorage).save(MONEY_TRANSFER_CANCELLED);
+		verify(this.accountProjection).refresh(MONEY_TRANSFER_CANCELLED.getAggregateID());
+	}
+
+	@Test
+	public void moneyTransferCancelledEventAggregateDoesNotExist() {
+		// given
+		when(this.accountEventStorage.exists(any())).thenReturn(false);
+
+		// when
+		assertThrows(AggregateDoesNotExistException.class, () -> this.eventManager.handle(MONEY_TRANSFER_CANCELLED));
+
+		// assert
+		verify(this.accountEventStorage).exists(MONEY_TRANSFER_CANCELLED.getAggregateID());
+		verifyNoMoreInteractions(this.accountEventStorage);
 	}
 }
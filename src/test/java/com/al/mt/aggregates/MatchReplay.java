@@ -0,0 +1,43 @@
+package com.al.mt.aggregates;
+
+import static io.vavr.API.Case;
+import static io.vavr.API.Match.Pattern0.of;
+import static io.vavr.collection.List.ofAll;
+
+import java.util.Collection;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+
+import io.vavr.API;
+
+/**
+ * Replays {@link AccountAggregate} the way {@link AccountEventStorage} did
+ * before events were dispatched by {@link DomainEvent#accept}: a vavr fold
+ * which routes each event to its handler with {@code Match}. It's kept only to
+ * compare both in {@link com.al.mt.benchmarks.EventDispatchBenchmark}.
+ */
+public final class MatchReplay {
+
+	private MatchReplay() {
+		throw new AssertionError();
+	}
+
+	public static AccountAggregate recreate(final Collection<DomainEvent> events) {
+		return ofAll(events).foldLeft(new AccountAggregate(events), MatchReplay::apply);
+	}
+
+	private static AccountAggregate apply(final AccountAggregate aggregate, final DomainEvent event) {
+		return API.Match(event).of(Case(of(AccountCreatedEvent.class), aggregate::apply),
+				Case(of(MoneyTransferredEvent.class), aggregate::apply),
+				Case(of(AccountDebitedEvent.class), aggregate::apply),
+				Case(of(AccountCreditedEvent.class), aggregate::apply),
+				Case(of(MoneyTransferCancelled.class), aggregate::apply),
+				Case(of(MoneyTransferSucceeded.class), aggregate::apply));
+	}
+}
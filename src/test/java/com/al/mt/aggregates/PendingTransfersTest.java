@@ -0,0 +1,76 @@
+package com.al.mt.aggregates;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.enums.State;
+
+public class PendingTransfersTest {
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+
+	@Test
+	public void completedTransferIsForgotten() {
+		// given
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+		final CompletableFuture<State> transfer = pendingTransfers.register(TRANSACTION_ID);
+
+		// when
+		pendingTransfers.complete(TRANSACTION_ID, State.CANCELLED);
+		pendingTransfers.complete(TRANSACTION_ID, State.SUCCEEDED);
+
+		// assert
+		assertThat(transfer.getNow(null)).isEqualTo(State.CANCELLED);
+		assertThat(pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void abandonedTransferIsForgotten() {
+		// given
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+		final CompletableFuture<State> transfer = pendingTransfers.register(TRANSACTION_ID);
+
+		// when
+		transfer.cancel(false);
+		pendingTransfers.complete(TRANSACTION_ID, State.SUCCEEDED);
+
+		// assert
+		assertThat(transfer.isCancelled()).isTrue();
+		assertThat(pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void transferAwaitedTwiceCompletesBoth() {
+		// given
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+		final CompletableFuture<State> first = pendingTransfers.register(TRANSACTION_ID);
+		final CompletableFuture<State> second = pendingTransfers.register(TRANSACTION_ID);
+		final CompletableFuture<State> abandoned = pendingTransfers.register(TRANSACTION_ID);
+
+		// when
+		abandoned.cancel(false);
+		final int size = pendingTransfers.size();
+		pendingTransfers.complete(TRANSACTION_ID, State.SUCCEEDED);
+
+		// assert
+		assertThat(size).isEqualTo(1);
+		assertThat(first.getNow(null)).isEqualTo(State.SUCCEEDED);
+		assertThat(second.getNow(null)).isEqualTo(State.SUCCEEDED);
+		assertThat(pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void transferNobodyWaitsForIsNotTracked() {
+		// given
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+
+		// when
+		pendingTransfers.complete(TRANSACTION_ID, State.SUCCEEDED);
+
+		// assert
+		assertThat(pendingTransfers.size()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,48 @@
+package com.al.mt.aggregates;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class SnapshotPolicyTest {
+
+	@Test
+	public void never() {
+		assertThat(SnapshotPolicy.never().shouldSnapshot(Integer.MAX_VALUE, Long.MAX_VALUE)).isFalse();
+	}
+
+	@Test
+	public void everyEvents() {
+		// given
+		final SnapshotPolicy policy = SnapshotPolicy.everyEvents(10);
+
+		// when & assert
+		assertThat(policy.shouldSnapshot(9, Long.MAX_VALUE)).isFalse();
+		assertThat(policy.shouldSnapshot(10, 0)).isTrue();
+	}
+
+	@Test
+	public void replayTimeAbove() {
+		// given
+		final SnapshotPolicy policy = SnapshotPolicy.replayTimeAbove(5, TimeUnit.MILLISECONDS);
+
+		// when & assert
+		assertThat(policy.shouldSnapshot(1, TimeUnit.MILLISECONDS.toNanos(4))).isFalse();
+		assertThat(policy.shouldSnapshot(1, TimeUnit.MILLISECONDS.toNanos(5))).isTrue();
+		assertThat(policy.shouldSnapshot(0, Long.MAX_VALUE)).isFalse();
+	}
+
+	@Test
+	public void or() {
+		// given
+		final SnapshotPolicy policy = SnapshotPolicy.everyEvents(10)
+				.or(SnapshotPolicy.replayTimeAbove(5, TimeUnit.MILLISECONDS));
+
+		// when & assert
+		assertThat(policy.shouldSnapshot(1, 0)).isFalse();
+		assertThat(policy.shouldSnapshot(10, 0)).isTrue();
+		assertThat(policy.shouldSnapshot(1, TimeUnit.MILLISECONDS.toNanos(5))).isTrue();
+	}
+}
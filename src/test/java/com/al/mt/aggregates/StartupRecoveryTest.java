@@ -0,0 +1,97 @@
+package com.al.mt.aggregates;
+
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.journal.EventJournal;
+import com.al.mt.model.Account;
+import com.al.mt.model.Money;
+
+public class StartupRecoveryTest {
+
+	/**
+	 * Journal which replays given events.
+	 */
+	private static EventJournal journalOf(final List<DomainEvent> events) {
+		return new EventJournal() {
+			@Override
+			public long append(final DomainEvent event) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void awaitDurable(final long position) {
+			}
+
+			@Override
+			public void replay(final Consumer<DomainEvent> consumer) {
+				events.forEach(consumer);
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	@Test
+	public void recoversInterleavedAggregatesInOrder() {
+		// given
+		final List<UUID> ids = new ArrayList<>();
+		final List<DomainEvent> journaled = new ArrayList<>();
+		final AccountEventStorage expected = new AccountEventStorage();
+		for (int i = 0; i < 500; i++) {
+			final UUID id = UUID.randomUUID();
+			ids.add(id);
+			journaled.add(new AccountCreatedEvent(id, "Account " + i));
+		}
+		for (int round = 1; round <= 5; round++) {
+			for (final UUID id : ids) {
+				journaled.add(new MoneyTransferredEvent(id, id, UUID.randomUUID(), UUID.randomUUID(),
+						Money.valueOf(round)));
+			}
+		}
+		journaled.forEach(expected::save);
+		final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.never(), journalOf(journaled));
+		final AccountProjection projection = new AccountProjection(storage);
+		final TransactionIndex transactionIndex = new TransactionIndex();
+
+		// when
+		final long recovered = new StartupRecovery(storage, projection, transactionIndex, 4).run();
+
+		// assert
+		assertThat(recovered).isEqualTo(journaled.size());
+		assertThat(storage.getAggregateIDs()).containsExactlyElementsIn(ids);
+		assertThat(transactionIndex.size()).isEqualTo(5 * ids.size());
+		for (final UUID id : ids) {
+			assertThat(storage.getEvents(id)).containsExactlyElementsIn(expected.getEvents(id)).inOrder();
+			assertThat(toJson(projection.get(id))).isEqualTo(toJson(Account.from(expected.get(id))));
+		}
+	}
+
+	@Test
+	public void emptyJournal() {
+		// given
+		final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.never(),
+				journalOf(new ArrayList<>()));
+		final AccountProjection projection = new AccountProjection(storage);
+
+		// when
+		final long recovered = new StartupRecovery(storage, projection, new TransactionIndex(), 2).run();
+
+		// assert
+		assertThat(recovered).isEqualTo(0);
+		assertThat(storage.getAggregateIDs()).isEmpty();
+		assertThat(projection.iterate(null, Account.FIELDS).hasNext()).isFalse();
+	}
+}
@@ -0,0 +1,143 @@
+package com.al.mt.aggregates;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+import com.al.mt.model.Transaction;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+
+public class TransactionIndexTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+	private static final Money VALUE = Money.valueOf(10);
+	private static final Date CREATED_AT = new Date(1000);
+	private static final Date SUCCEEDED_AT = new Date(2000);
+
+	/**
+	 * Page of at most {@code limit} transfers as a list route reads it.
+	 */
+	private static ImmutableList<Transaction> page(final TransactionIndex index, final UUID accountID,
+			final Date from, final Date to, final Set<State> states, final UUID after, final int limit) {
+		return ImmutableList.copyOf(Iterators.limit(index.iterate(accountID, from, to, states, after), limit));
+	}
+
+	@Test
+	public void receiverEventsAppliedFirstDontRevertState() {
+		// given
+		final TransactionIndex index = new TransactionIndex();
+
+		// when
+		index.applyAll(ImmutableList.of(
+				new AccountCreatedEvent(TO_ID, FIRST_ACCOUT_FULL_NAME),
+				new AccountCreditedEvent(TO_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, CREATED_AT),
+				new MoneyTransferSucceeded(TO_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, SUCCEEDED_AT)));
+		index.apply(new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, new Date(500)));
+
+		// assert
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.get(TRANSACTION_ID)).isEqualTo(Transaction.builder()
+				.setTransactionID(TRANSACTION_ID)
+				.setFromID(FROM_ID)
+				.setToID(TO_ID)
+				.setValue(VALUE)
+				.setState(State.SUCCEEDED)
+				.setCreatedAt(new Date(500))
+				.setLastUpdatedAt(SUCCEEDED_AT)
+				.build());
+		assertThat(page(index, TO_ID, null, null, EnumSet.allOf(State.class), null, 10)).hasSize(1);
+		assertThat(page(index, FROM_ID, null, null, EnumSet.allOf(State.class), null, 10)).hasSize(1);
+	}
+
+	@Test
+	public void cancelledTransferKeepsReason() {
+		// given
+		final TransactionIndex index = new TransactionIndex();
+		index.apply(new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, CREATED_AT));
+
+		// when
+		index.apply(new MoneyTransferCancelled(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE,
+				Reason.BALANCE_TOO_LOW, SUCCEEDED_AT));
+
+		// assert
+		assertThat(index.get(TRANSACTION_ID).getState()).isEqualTo(State.CANCELLED);
+		assertThat(index.get(TRANSACTION_ID).getReason()).isEqualTo(Reason.BALANCE_TOO_LOW);
+		assertThat(index.get(TRANSACTION_ID).getCreatedAt()).isEqualTo(CREATED_AT);
+		assertThat(index.get(UUID.randomUUID())).isNull();
+		assertThat(page(index, FROM_ID, null, null, EnumSet.allOf(State.class), null, 10)).hasSize(1);
+		assertThat(page(index, TO_ID, null, null, EnumSet.allOf(State.class), null, 10)).isEmpty();
+	}
+
+	@Test
+	public void transferIsInReceiverHistoryOnceItReachedReceiver() {
+		// given
+		final TransactionIndex index = new TransactionIndex();
+		index.apply(new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, CREATED_AT));
+		final ImmutableList<Transaction> pending = page(index, TO_ID, null, null, EnumSet.allOf(State.class), null,
+				10);
+
+		// when
+		index.apply(new MoneyTransferredEvent(TO_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, CREATED_AT));
+		index.apply(new MoneyTransferSucceeded(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, SUCCEEDED_AT));
+
+		// assert
+		assertThat(pending).isEmpty();
+		assertThat(Lists.transform(page(index, TO_ID, null, null, EnumSet.allOf(State.class), null, 10),
+				Transaction::getTransactionID)).containsExactly(TRANSACTION_ID);
+		assertThat(Lists.transform(page(index, FROM_ID, null, null, EnumSet.allOf(State.class), null, 10),
+				Transaction::getTransactionID)).containsExactly(TRANSACTION_ID);
+	}
+
+	@Test
+	public void pageReadsTransfersOfAccountByCreationTime() {
+		// given
+		final TransactionIndex index = new TransactionIndex();
+		final UUID[] transactionIDs = new UUID[5];
+		for (int i = 0; i < transactionIDs.length; i++) {
+			transactionIDs[i] = UUID.randomUUID();
+			final UUID fromID = i % 2 == 0 ? FROM_ID : TO_ID;
+			final UUID toID = i % 2 == 0 ? TO_ID : FROM_ID;
+			index.apply(new MoneyTransferredEvent(fromID, fromID, toID, transactionIDs[i], VALUE, new Date(i * 1000)));
+			index.apply(new MoneyTransferredEvent(toID, fromID, toID, transactionIDs[i], VALUE, new Date(i * 1000)));
+		}
+		index.apply(new MoneyTransferSucceeded(FROM_ID, FROM_ID, TO_ID, transactionIDs[2], VALUE, new Date(9000)));
+		index.apply(new MoneyTransferredEvent(TO_ID, TO_ID, UUID.randomUUID(), UUID.randomUUID(), VALUE,
+				new Date(500)));
+
+		// when
+		final ImmutableList<Transaction> firstPage = page(index, FROM_ID, new Date(1000), new Date(4000),
+				EnumSet.allOf(State.class), null, 2);
+		final ImmutableList<Transaction> secondPage = page(index, FROM_ID, new Date(1000), new Date(4000),
+				EnumSet.allOf(State.class), transactionIDs[2], 2);
+		final ImmutableList<Transaction> pending = page(index, FROM_ID, null, null, EnumSet.of(State.PENDING),
+				null, 10);
+
+		// assert
+		assertThat(Lists.transform(firstPage, Transaction::getTransactionID))
+				.containsExactly(transactionIDs[1], transactionIDs[2]).inOrder();
+		assertThat(Lists.transform(secondPage, Transaction::getTransactionID))
+				.containsExactly(transactionIDs[3]);
+		assertThat(Lists.transform(pending, Transaction::getTransactionID))
+				.containsExactly(transactionIDs[0], transactionIDs[1], transactionIDs[3], transactionIDs[4])
+				.inOrder();
+		assertThat(page(index, TO_ID, null, null, EnumSet.allOf(State.class), null, 10)).hasSize(6);
+		assertThat(page(index, UUID.randomUUID(), null, null, EnumSet.allOf(State.class), null, 10)).isEmpty();
+	}
+}
@@ -0,0 +1,110 @@
+package com.al.mt.benchmarks;
+
+import static com.al.mt.utils.Constants.SERVER_URL;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.MainApp;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import spark.Spark;
+
+/**
+ * Measures the time per transfer when {@link #TRANSFERS} transfers are sent one
+ * request each compared to a single request on
+ * `/api/account/transferMoney/batch`.
+ *
+ * <p>
+ * Requests are sent one after another by a single client over a kept-alive
+ * connection, so the time is spent serving them rather than connecting.
+ * Transfers go round {@link #ACCOUNTS} accounts and move a cent each, so none
+ * of them is cancelled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchTransferBenchmark {
+	private static final int ACCOUNTS = 16;
+	private static final int TRANSFERS = 1000;
+	private static final Gson GSON = new Gson();
+
+	private HttpClient client;
+	private final List<String> transfers = new ArrayList<>(TRANSFERS);
+	private String batch;
+
+	@Setup(Level.Trial)
+	public void startServer() throws Exception {
+		MainApp.main();
+		this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		final List<String> accountIDs = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			final HttpResponse<String> response = this.client.send(
+					post("/api/account", String.format("{\"fullName\":\"Account %d\"}", i)),
+					HttpResponse.BodyHandlers.ofString());
+			accountIDs.add(GSON.fromJson(response.body(), JsonObject.class).get("data").getAsString());
+		}
+		final StringJoiner batch = new StringJoiner(",", "[", "]");
+		for (int i = 0; i < TRANSFERS; i++) {
+			final String transfer = String.format(
+					"{\"fromAccountNumber\":\"%s\",\"toAccountNumber\":\"%s\",\"value\":0.01}",
+					accountIDs.get(i % ACCOUNTS), accountIDs.get((i + 1) % ACCOUNTS));
+			this.transfers.add(transfer);
+			batch.add(transfer);
+		}
+		this.batch = batch.toString();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopServer() {
+		Spark.stop();
+		Spark.awaitStop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TRANSFERS)
+	public int singleRequests() throws Exception {
+		int ok = 0;
+		for (final String transfer : this.transfers) {
+			ok += this.client.send(post("/api/account/transferMoney", transfer),
+					HttpResponse.BodyHandlers.discarding()).statusCode() == 200 ? 1 : 0;
+		}
+		return ok;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TRANSFERS)
+	public int batchRequest() throws Exception {
+		return this.client.send(post("/api/account/transferMoney/batch", this.batch),
+				HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private static HttpRequest post(final String path, final String body) {
+		return HttpRequest.newBuilder(URI.create(SERVER_URL + path)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+}
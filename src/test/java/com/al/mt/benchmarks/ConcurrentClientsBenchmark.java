@@ -0,0 +1,110 @@
+package com.al.mt.benchmarks;
+
+import static com.al.mt.utils.Constants.SERVER_URL;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.MainApp;
+import com.al.mt.utils.Configuration;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import spark.Spark;
+
+/**
+ * Measures how long the server takes to answer {@code clients} money transfers
+ * sent at the same time, with requests served by Jetty's pool of platform
+ * threads compared to a virtual thread per request.
+ *
+ * <p>
+ * Each trial starts the server in a fresh fork. Transfers go between
+ * {@link #ACCOUNTS} accounts, so they contend on account locks only a little.
+ * Clients and the server share the fork, every client opens its own
+ * connection, so the limit of open files has to be above {@code 2 * clients}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentClientsBenchmark {
+	private static final int ACCOUNTS = 64;
+	private static final Gson GSON = new Gson();
+
+	@Param({ "platform", "virtual" })
+	private String threads;
+
+	@Param({ "1000", "10000", "50000" })
+	private int clients;
+
+	private HttpClient client;
+	private final List<String> accountIDs = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void startServer() throws Exception {
+		System.setProperty(Configuration.VIRTUAL_THREADS, String.valueOf("virtual".equals(this.threads)));
+		// Every client is admitted, it's the thread pool that is measured
+		System.setProperty(Configuration.ADMISSION_CAPACITY, String.valueOf(this.clients));
+		System.setProperty(Configuration.ADMISSION_TIMEOUT_MILLIS, String.valueOf(TimeUnit.MINUTES.toMillis(1)));
+		MainApp.main();
+		this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofMinutes(1)).build();
+		for (int i = 0; i < ACCOUNTS; i++) {
+			final HttpResponse<String> response = this.client.send(
+					post("/api/account", String.format("{\"fullName\":\"Account %d\"}", i)),
+					HttpResponse.BodyHandlers.ofString());
+			this.accountIDs.add(GSON.fromJson(response.body(), JsonObject.class).get("data").getAsString());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stopServer() {
+		Spark.stop();
+		Spark.awaitStop();
+	}
+
+	/**
+	 * @return Number of transfers answered with HTTP 200.
+	 */
+	@Benchmark
+	public long transfers() {
+		final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(this.clients);
+		for (int i = 0; i < this.clients; i++) {
+			final String body = String.format(
+					"{\"fromAccountNumber\":\"%s\",\"toAccountNumber\":\"%s\",\"value\":0.01}",
+					this.accountIDs.get(i % ACCOUNTS), this.accountIDs.get((i + 1) % ACCOUNTS));
+			responses.add(this.client.sendAsync(post("/api/account/transferMoney", body),
+					HttpResponse.BodyHandlers.discarding()));
+		}
+		return responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 200)
+				.count();
+	}
+
+	private static HttpRequest post(final String path, final String body) {
+		return HttpRequest.newBuilder(URI.create(SERVER_URL + path)).timeout(Duration.ofMinutes(1))
+				.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+}
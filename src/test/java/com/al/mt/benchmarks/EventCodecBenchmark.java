@@ -0,0 +1,70 @@
+package com.al.mt.benchmarks;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.journal.BinaryEventCodec;
+import com.al.mt.journal.EventCodec;
+import com.al.mt.journal.JsonEventCodec;
+import com.al.mt.model.Money;
+
+/**
+ * Compares {@link BinaryEventCodec} with Gson based {@link JsonEventCodec} on
+ * the most frequent event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+	private static final DomainEvent EVENT = new MoneyTransferredEvent(UUID.randomUUID(), UUID.randomUUID(),
+			UUID.randomUUID(), UUID.randomUUID(), Money.of(new BigDecimal("1234.56")));
+
+	@Param({ "json", "binary" })
+	private String codecName;
+
+	private EventCodec codec;
+	private ByteBuffer buffer;
+	private ByteBuffer encoded;
+
+	@Setup
+	public void setUp() {
+		this.codec = "json".equals(this.codecName) ? new JsonEventCodec() : new BinaryEventCodec();
+		this.buffer = ByteBuffer.allocate(1024);
+		this.codec.encode(EVENT, this.buffer);
+		this.buffer.flip();
+		this.encoded = ByteBuffer.allocate(this.buffer.remaining());
+		this.encoded.put(this.buffer);
+		this.encoded.flip();
+	}
+
+	@Benchmark
+	public ByteBuffer encode() {
+		this.buffer.clear();
+		this.codec.encode(EVENT, this.buffer);
+		return this.buffer;
+	}
+
+	@Benchmark
+	public DomainEvent decode() {
+		return this.codec.decode(this.encoded.duplicate());
+	}
+}
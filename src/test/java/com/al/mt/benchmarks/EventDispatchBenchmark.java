@@ -0,0 +1,166 @@
+package com.al.mt.benchmarks;
+
+import static io.vavr.API.Case;
+import static io.vavr.API.Match.Pattern0.of;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.aggregates.AccountAggregate;
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.MatchReplay;
+import com.al.mt.enums.Reason;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.EventVisitor;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+
+import io.vavr.API;
+
+/**
+ * Replays {@link #EVENTS} mixed events of a single account.
+ *
+ * <p>
+ * {@link #dispatch()} routes every event to a trivial handler with the vavr
+ * {@code Match} that {@link AccountAggregate} used before ({@code match}) and
+ * with {@link DomainEvent#accept(EventVisitor, Object)} ({@code visitor}), so
+ * it isolates the cost of dispatch. {@link #replay()} measures a full replay of
+ * the aggregate, with the vavr fold and {@code Match} of {@link MatchReplay}
+ * ({@code match}) and with {@link AccountEventStorage#recreate} ({@code visitor}).
+ * Times are reported per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(EventDispatchBenchmark.EVENTS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+	static final int EVENTS = 1_000_000;
+
+	private static final UUID ACCOUNT_ID = UUID.randomUUID();
+	private static final UUID OTHER_ACCOUNT_ID = UUID.randomUUID();
+
+	/**
+	 * Counts events by type.
+	 */
+	private static final class Counter implements EventVisitor<long[], long[]> {
+		@Override
+		public long[] visit(final AccountCreatedEvent event, final long[] counts) {
+			counts[0]++;
+			return counts;
+		}
+
+		@Override
+		public long[] visit(final MoneyTransferredEvent event, final long[] counts) {
+			counts[1]++;
+			return counts;
+		}
+
+		@Override
+		public long[] visit(final AccountDebitedEvent event, final long[] counts) {
+			counts[2]++;
+			return counts;
+		}
+
+		@Override
+		public long[] visit(final AccountCreditedEvent event, final long[] counts) {
+			counts[3]++;
+			return counts;
+		}
+
+		@Override
+		public long[] visit(final MoneyTransferSucceeded event, final long[] counts) {
+			counts[4]++;
+			return counts;
+		}
+
+		@Override
+		public long[] visit(final MoneyTransferCancelled event, final long[] counts) {
+			counts[5]++;
+			return counts;
+		}
+	}
+
+	private static final Counter COUNTER = new Counter();
+
+	@Param({ "match", "visitor" })
+	private String dispatch;
+
+	private List<DomainEvent> events;
+
+	@Setup
+	public void setUp() {
+		this.events = new ArrayList<>(EVENTS);
+		this.events.add(new AccountCreatedEvent(ACCOUNT_ID, "Sam Willis"));
+		final Money value = Money.valueOf(1);
+		while (this.events.size() < EVENTS) {
+			final UUID outgoingID = UUID.randomUUID();
+			this.events.add(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+			this.events.add(new AccountDebitedEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+			this.events.add(new MoneyTransferSucceeded(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, outgoingID, value));
+
+			final UUID incomingID = UUID.randomUUID();
+			this.events.add(new MoneyTransferredEvent(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+			this.events.add(new AccountCreditedEvent(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+			this.events.add(new MoneyTransferSucceeded(ACCOUNT_ID, OTHER_ACCOUNT_ID, ACCOUNT_ID, incomingID, value));
+
+			final UUID cancelledID = UUID.randomUUID();
+			this.events.add(new MoneyTransferredEvent(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, cancelledID, value));
+			this.events.add(new MoneyTransferCancelled(ACCOUNT_ID, ACCOUNT_ID, OTHER_ACCOUNT_ID, cancelledID, value,
+					Reason.BALANCE_TOO_LOW));
+		}
+		this.events = this.events.subList(0, EVENTS);
+	}
+
+	private static long[] match(final DomainEvent event, final long[] counts) {
+		return API.Match(event).of(Case(of(AccountCreatedEvent.class), e -> COUNTER.visit(e, counts)),
+				Case(of(MoneyTransferredEvent.class), e -> COUNTER.visit(e, counts)),
+				Case(of(AccountDebitedEvent.class), e -> COUNTER.visit(e, counts)),
+				Case(of(AccountCreditedEvent.class), e -> COUNTER.visit(e, counts)),
+				Case(of(MoneyTransferCancelled.class), e -> COUNTER.visit(e, counts)),
+				Case(of(MoneyTransferSucceeded.class), e -> COUNTER.visit(e, counts)));
+	}
+
+	@Benchmark
+	public long[] dispatch() {
+		final long[] counts = new long[6];
+		if ("match".equals(this.dispatch)) {
+			for (final DomainEvent event : this.events) {
+				match(event, counts);
+			}
+		} else {
+			for (final DomainEvent event : this.events) {
+				event.accept(COUNTER, counts);
+			}
+		}
+		return counts;
+	}
+
+	@Benchmark
+	public AccountAggregate replay() {
+		return "match".equals(this.dispatch) ? MatchReplay.recreate(this.events)
+				: AccountEventStorage.recreate(this.events);
+	}
+}
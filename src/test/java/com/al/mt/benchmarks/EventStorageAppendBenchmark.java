@@ -0,0 +1,65 @@
+package com.al.mt.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+
+/**
+ * Measures cost of {@link AccountEventStorage#save} on an aggregate which
+ * already has {@code history} events stored. The cost should stay flat no
+ * matter how long the history is.
+ *
+ * <p>
+ * Each iteration appends {@link #BATCH_SIZE} events to freshly populated
+ * storage, so the reported time is per {@link #BATCH_SIZE} appends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = EventStorageAppendBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = EventStorageAppendBenchmark.BATCH_SIZE)
+@Fork(1)
+public class EventStorageAppendBenchmark {
+	static final int BATCH_SIZE = 1_000;
+
+	private static final UUID AGGREGATE_ID = UUID.randomUUID();
+	private static final MoneyTransferredEvent EVENT = new MoneyTransferredEvent(AGGREGATE_ID, AGGREGATE_ID,
+			UUID.randomUUID(), UUID.randomUUID(), Money.valueOf(1));
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	private int history;
+
+	private AccountEventStorage storage;
+
+	@Setup(Level.Iteration)
+	public void populate() {
+		this.storage = new AccountEventStorage();
+		this.storage.save(new AccountCreatedEvent(AGGREGATE_ID, "Sam Willis"));
+		for (int i = 1; i < this.history; i++) {
+			this.storage.save(EVENT);
+		}
+	}
+
+	@Benchmark
+	public AccountEventStorage save() {
+		this.storage.save(EVENT);
+		return this.storage;
+	}
+}
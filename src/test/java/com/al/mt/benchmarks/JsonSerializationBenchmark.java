@@ -0,0 +1,94 @@
+package com.al.mt.benchmarks;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.enums.Status;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Account;
+import com.al.mt.model.Link;
+import com.al.mt.model.Money;
+import com.al.mt.utils.JsonUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+
+/**
+ * Measures serializing the body of `GET /api/account`, a full page of
+ * {@link #ACCOUNTS} accounts with {@link #TRANSFERS} transfers each, by
+ * {@link JsonUtils#GSON} compared to a default, reflective {@link Gson}. The
+ * JSON is written to a discarding writer, as it's streamed to the client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+	private static final int ACCOUNTS = 100;
+	private static final int TRANSFERS = 5;
+
+	@Param({ "reflective", "adapters" })
+	private String gsonName;
+
+	private Gson gson;
+	private APIResponse response;
+
+	@Setup
+	public void setUp() {
+		this.gson = "adapters".equals(this.gsonName) ? JsonUtils.GSON : new Gson();
+		final List<Account> accounts = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			final UUID accountID = UUID.randomUUID();
+			final UUID receiverID = UUID.randomUUID();
+			final List<DomainEvent> events = new ArrayList<>();
+			events.add(new AccountCreatedEvent(accountID, "Account " + i));
+			for (int j = 0; j < TRANSFERS; j++) {
+				final UUID transactionID = UUID.randomUUID();
+				events.add(new MoneyTransferredEvent(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new AccountDebitedEvent(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new MoneyTransferSucceeded(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new AccountCreditedEvent(accountID, receiverID, accountID, UUID.randomUUID(),
+						Money.valueOf(2)));
+			}
+			accounts.add(Account.from(AccountEventStorage.recreate(events)));
+		}
+		this.response = APIResponse.builder()
+				.setStatus(Status.OK)
+				.setMessage("SUCCESS")
+				.setData(accounts)
+				.setLinks(ImmutableList.<Link>builder().addAll(Link.getLinksForAccounts())
+						.add(Link.getLinkForNextAccounts(accounts.get(ACCOUNTS - 1).getAccountNumber(), ACCOUNTS, null))
+						.build())
+				.build();
+	}
+
+	@Benchmark
+	public Writer serialize() {
+		final Writer writer = Writer.nullWriter();
+		this.gson.toJson(this.response, writer);
+		return writer;
+	}
+}
@@ -0,0 +1,183 @@
+package com.al.mt.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountProjection;
+import com.al.mt.enums.Status;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Account;
+import com.al.mt.model.Link;
+import com.al.mt.model.Money;
+import com.al.mt.model.Page;
+import com.al.mt.utils.JsonUtils;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.gson.JsonIOException;
+
+/**
+ * Measures writing the body of `GET /api/account?limit=1000`, a page of
+ * {@link #ACCOUNTS} accounts with {@link #TRANSFERS} transfers each, when the
+ * page is built as a list first compared to a {@link Page} read from
+ * {@link AccountProjection} while it's written.
+ *
+ * <p>
+ * {@code firstByte} stops once the first byte leaves the JSON writer, its time
+ * is the time to first byte and, run with {@code -prof gc}, its
+ * {@code gc.alloc.rate.norm} is what the request allocated by then. A built page
+ * is all reachable at that point, so it bounds the peak heap of the request.
+ * {@code wholeResponse} writes the whole body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ListStreamingBenchmark {
+	private static final int ACCOUNTS = 1000;
+	private static final int TRANSFERS = 5;
+
+	@Param({ "list", "page" })
+	private String body;
+
+	/**
+	 * Accounts with all fields are shared views of the projection, others are
+	 * built by each request.
+	 */
+	@Param({ "all", "accountNumber,balance,transactions" })
+	private String fields;
+
+	private AccountProjection accountProjection;
+	private Set<String> fieldSet;
+
+	@Setup
+	public void setUp() {
+		final AccountEventStorage eventStorage = new AccountEventStorage();
+		this.accountProjection = new AccountProjection(eventStorage);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			final UUID accountID = UUID.randomUUID();
+			final UUID receiverID = UUID.randomUUID();
+			final List<DomainEvent> events = new ArrayList<>();
+			events.add(new AccountCreatedEvent(accountID, "Account " + i));
+			for (int j = 0; j < TRANSFERS; j++) {
+				final UUID transactionID = UUID.randomUUID();
+				events.add(new MoneyTransferredEvent(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new AccountDebitedEvent(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new MoneyTransferSucceeded(accountID, accountID, receiverID, transactionID, Money.valueOf(1)));
+				events.add(new AccountCreditedEvent(accountID, receiverID, accountID, UUID.randomUUID(),
+						Money.valueOf(2)));
+			}
+			eventStorage.saveAll(events);
+			this.accountProjection.refresh(accountID);
+		}
+		this.fieldSet = "all".equals(this.fields) ? Account.FIELDS
+				: ImmutableSet.copyOf(Splitter.on(',').split(this.fields));
+	}
+
+	/**
+	 * Response as the {@code GET /api/account} route returns it.
+	 */
+	private APIResponse response() {
+		if ("list".equals(this.body)) {
+			final List<Account> accounts = ImmutableList
+					.copyOf(Iterators.limit(this.accountProjection.iterate(null, this.fieldSet), ACCOUNTS));
+			return APIResponse.builder()
+					.setStatus(Status.OK)
+					.setMessage("SUCCESS")
+					.setData(accounts)
+					.setLinks(ImmutableList.<Link>builder().addAll(Link.getLinksForAccounts())
+							.add(Link.getLinkForNextAccounts(accounts.get(ACCOUNTS - 1).getAccountNumber(), ACCOUNTS,
+									this.fields))
+							.build())
+					.build();
+		}
+		final Page<Account> accounts = new Page<>(this.accountProjection.iterate(null, this.fieldSet), ACCOUNTS);
+		return APIResponse.builder()
+				.setStatus(Status.OK)
+				.setMessage("SUCCESS")
+				.setData(accounts)
+				.setLinksAfterData(() -> ImmutableList.<Link>builder().addAll(Link.getLinksForAccounts())
+						.add(Link.getLinkForNextAccounts(accounts.getLast().getAccountNumber(), ACCOUNTS, this.fields))
+						.build())
+				.build();
+	}
+
+	@Benchmark
+	public boolean firstByte() throws IOException {
+		final FirstByteStream out = new FirstByteStream();
+		try {
+			JsonUtils.toJson(response(), out);
+		} catch (final JsonIOException e) {
+			// Gson wraps failed writes
+			if (e.getCause() instanceof FirstByteException) {
+				return true;
+			}
+			throw e;
+		}
+		return false;
+	}
+
+	@Benchmark
+	public OutputStream wholeResponse() throws IOException {
+		final OutputStream out = OutputStream.nullOutputStream();
+		JsonUtils.toJson(response(), out);
+		return out;
+	}
+
+	/**
+	 * Fails the first write, so serializing stops there, and discards any write
+	 * after it, e.g. flushes on close.
+	 */
+	private static final class FirstByteStream extends OutputStream {
+		private boolean written;
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			if (!this.written) {
+				this.written = true;
+				throw new FirstByteException();
+			}
+		}
+	}
+
+	private static final class FirstByteException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+}
@@ -107,4 +107,55 @@ public class AccountControllerCreateAccountTest extends AbstractBaseTest {
 								.put("Cannot be empty"))).toString();
 		assertResponses(expectedResponse, getResponseBodyAndClose(response));
 	}
+
+	@Test
+	public void createAccountNotValidEmptyBody() throws Exception {
+		// given
+		final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+		request.setEntity(new StringEntity(""));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "Body is empty").toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void createAccountNotValidMalformedBody() throws Exception {
+		// given
+		final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+		request.setEntity(new StringEntity("{\"fullName\": \"Sam"));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "Body is required and it is not in JSON format").toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void createAccountNotValidBodyOfOtherShape() throws Exception {
+		// given
+		final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+		request.setEntity(new StringEntity("[\"Sam Willis\"]"));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "Body must be a JSON object").toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
 }
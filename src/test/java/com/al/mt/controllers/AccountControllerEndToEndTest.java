@@ -378,13 +378,15 @@ public class AccountControllerEndToEndTest extends AbstractBaseTest {
 		    final CloseableHttpResponse transferMoneyResponse = client.execute(transferMoneyRequest);
 
 		    // assert
+		    final String transferMoneyJson = getResponseBodyAndClose(transferMoneyResponse);
 		    final String transferMoneyExpectedResponse =
 		        new JSONObject()
 		            .put("status", Status.OK)
 		            .put("message", "Money will be transferred")
+		            .put("data", new JSONObject(transferMoneyJson).getString("data"))
 		            .put("links", Link.getLinksForAccounts())
 		            .toString();
-		    assertResponses(transferMoneyExpectedResponse, getResponseBodyAndClose(transferMoneyResponse));
+		    assertResponses(transferMoneyExpectedResponse, transferMoneyJson);
 		  }
 
 }
@@ -6,8 +6,10 @@ import static com.al.mt.utils.JsonUtils.toJson;
 import static com.google.common.truth.Truth.assertThat;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -23,6 +25,7 @@ import com.al.mt.enums.Status;
 import com.al.mt.model.APIResponse;
 import com.al.mt.model.Link;
 import com.al.mt.requests.CreateAccountRequest;
+import com.al.mt.requests.TransferMoneyRequest;
 import com.google.gson.Gson;
 
 public class AccountControllerGetAccountTest extends AbstractBaseTest {
@@ -82,6 +85,58 @@ public class AccountControllerGetAccountTest extends AbstractBaseTest {
     assertResponses(expectedResponse, responseJson);
   }
 
+  @Test
+  public void getAccountNotModified() throws Exception {
+    // given
+    final String aggregateID = extractIDFromResponseAndClose(createAccount());
+    final HttpGet request = new HttpGet(String.format("%s/api/account/%s", SERVER_URL, aggregateID));
+    final CloseableHttpResponse firstResponse = client.execute(request);
+    getResponseBodyAndClose(firstResponse);
+    final String eTag = firstResponse.getFirstHeader("ETag").getValue();
+    request.setHeader("If-None-Match", eTag);
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_NOT_MODIFIED);
+    assertThat(response.getFirstHeader("ETag").getValue()).isEqualTo(eTag);
+    response.close();
+  }
+
+  @Test
+  public void getAccountModifiedSinceETag() throws Exception {
+    // given
+    final String aggregateID = extractIDFromResponseAndClose(createAccount());
+    final String receiverID = extractIDFromResponseAndClose(createAccount());
+    final HttpGet request = new HttpGet(String.format("%s/api/account/%s", SERVER_URL, aggregateID));
+    final CloseableHttpResponse firstResponse = client.execute(request);
+    getResponseBodyAndClose(firstResponse);
+    final String eTag = firstResponse.getFirstHeader("ETag").getValue();
+    final HttpPost transfer =
+        new HttpPost(String.format("%s/api/account/transferMoney?waitMillis=5000", SERVER_URL));
+    transfer.setEntity(
+        new StringEntity(
+            toJson(
+                TransferMoneyRequest.builder()
+                    .setFomAccountNumber(aggregateID)
+                    .setToAccountNumber(receiverID)
+                    .setValue(BigDecimal.TEN)
+                    .build())));
+    getResponseBodyAndClose(client.execute(transfer));
+    request.setHeader("If-None-Match", eTag);
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+    assertThat(response.getFirstHeader("ETag").getValue()).isNotEqualTo(eTag);
+    assertThat(
+            GSON.fromJson(getResponseBodyAndClose(response), APIResponse.class).getData().toString())
+        .contains("SUCCEEDED");
+  }
+
   @Test
   public void getAccountNotValidInvalidID() throws Exception {
     // given
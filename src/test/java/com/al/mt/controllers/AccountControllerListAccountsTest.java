@@ -4,15 +4,21 @@ import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
 import static com.al.mt.utils.Constants.SERVER_URL;
 import static com.al.mt.utils.JsonUtils.toJson;
 import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_OK;
 
+import java.util.UUID;
+
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.Status;
 import com.al.mt.requests.CreateAccountRequest;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -44,4 +50,71 @@ public class AccountControllerListAccountsTest extends AbstractBaseTest {
     assertThat(GSON.fromJson(responseJson, JsonObject.class).get("data").getAsJsonArray().size())
         .isGreaterThan(1);
   }
+
+  @Test
+  public void listAccountsPage() throws Exception {
+    // given
+    createAccount().close();
+    createAccount().close();
+    final HttpGet request = new HttpGet(String.format("%s/api/account?limit=1&fields=balance", SERVER_URL));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+    final JsonObject body = GSON.fromJson(getResponseBodyAndClose(response), JsonObject.class);
+    final JsonObject account = body.get("data").getAsJsonArray().get(0).getAsJsonObject();
+    assertThat(account.keySet()).containsExactly("accountNumber", "balance");
+    final JsonObject next = body.get("links").getAsJsonArray().get(3).getAsJsonObject();
+    assertThat(next.get("rel").getAsString()).isEqualTo("next");
+    assertThat(next.get("href").getAsString()).isEqualTo(String.format("/api/account?limit=1&after=%s&fields=balance",
+        account.get("accountNumber").getAsString()));
+
+    // when
+    final CloseableHttpResponse nextResponse = client.execute(new HttpGet(SERVER_URL + next.get("href").getAsString()));
+
+    // assert
+    final JsonObject nextAccount = GSON.fromJson(getResponseBodyAndClose(nextResponse), JsonObject.class).get("data")
+        .getAsJsonArray().get(0).getAsJsonObject();
+    assertThat(UUID.fromString(nextAccount.get("accountNumber").getAsString()))
+        .isGreaterThan(UUID.fromString(account.get("accountNumber").getAsString()));
+  }
+
+  @Test
+  public void listAccountsStreamedWithHeaders() throws Exception {
+    // given
+    createAccount().close();
+    final HttpGet request = new HttpGet(String.format("%s/api/account?limit=1000", SERVER_URL));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getFirstHeader("Content-Type").getValue()).isEqualTo("application/json");
+    assertThat(response.getFirstHeader("Access-Control-Allow-Origin").getValue()).isEqualTo("*");
+    assertThat(GSON.fromJson(getResponseBodyAndClose(response), JsonObject.class).get("data").getAsJsonArray().size())
+        .isGreaterThan(0);
+  }
+
+  @Test
+  public void listAccountsNotValidPage() throws Exception {
+    // given
+    final HttpGet request = new HttpGet(String.format("%s/api/account?limit=0&after=1&fields=balance,pin", SERVER_URL));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+    final String expectedResponse = new JSONObject()
+        .put("status", Status.ERROR)
+        .put("message", "There are validation errors")
+        .put("data", new JSONObject()
+            .put("limit", new JSONArray().put("Must be a number between 1 and 1000"))
+            .put("after", new JSONArray().put("Is not a valid ID value"))
+            .put("fields", new JSONArray().put("Unknown field pin")))
+        .toString();
+    assertResponses(expectedResponse, getResponseBodyAndClose(response));
+  }
 }
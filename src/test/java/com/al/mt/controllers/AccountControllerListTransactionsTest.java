@@ -0,0 +1,204 @@
+package com.al.mt.controllers;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.Constants.SERVER_URL;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Status;
+import com.al.mt.model.APIResponse;
+import com.al.mt.requests.CreateAccountRequest;
+import com.al.mt.requests.TransferMoneyRequest;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+public class AccountControllerListTransactionsTest extends AbstractBaseTest {
+  private static final Gson GSON = new Gson();
+
+  private static String createAccount() throws Exception {
+    final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+    request.setEntity(new StringEntity(toJson(new CreateAccountRequest(FIRST_ACCOUT_FULL_NAME))));
+    return (String) GSON.fromJson(getResponseBodyAndClose(client.execute(request)), APIResponse.class).getData();
+  }
+
+  private static String transferMoney(final String fromID, final String toID, final BigDecimal value)
+      throws Exception {
+    final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney", SERVER_URL));
+    request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+        .setFomAccountNumber(fromID)
+        .setToAccountNumber(toID)
+        .setValue(value)
+        .build())));
+    return (String) GSON.fromJson(getResponseBodyAndClose(client.execute(request)), APIResponse.class).getData();
+  }
+
+  @Test
+  public void listTransactionsPage() throws Exception {
+    // given
+    final String aggregateID1 = createAccount();
+    final String aggregateID2 = createAccount();
+    final String transactionID1 = transferMoney(aggregateID1, aggregateID2, BigDecimal.ONE);
+    final String transactionID2 = transferMoney(aggregateID2, aggregateID1, BigDecimal.TEN);
+    final String transactionID3 = transferMoney(aggregateID1, aggregateID2, BigDecimal.valueOf(5000));
+    final HttpGet request = new HttpGet(
+        String.format("%s/api/account/%s/transactions?limit=2&from=1970-01-01T00:00:00Z", SERVER_URL, aggregateID1));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+    final JsonObject body = GSON.fromJson(getResponseBodyAndClose(response), JsonObject.class);
+    final JsonArray data = body.get("data").getAsJsonArray();
+    assertThat(data.size()).isEqualTo(2);
+    final String lastID = data.get(1).getAsJsonObject().get("transactionID").getAsString();
+    final JsonArray links = body.get("links").getAsJsonArray();
+    final JsonObject next = links.get(links.size() - 1).getAsJsonObject();
+    assertThat(next.get("rel").getAsString()).isEqualTo("next");
+    assertThat(next.get("href").getAsString()).isEqualTo(String.format(
+        "/api/account/%s/transactions?limit=2&after=%s&from=1970-01-01T00%%3A00%%3A00Z", aggregateID1, lastID));
+
+    // when
+    final CloseableHttpResponse nextResponse = client.execute(new HttpGet(SERVER_URL + next.get("href").getAsString()));
+
+    // assert
+    final JsonArray nextData = GSON.fromJson(getResponseBodyAndClose(nextResponse), JsonObject.class).get("data")
+        .getAsJsonArray();
+    assertThat(nextData.size()).isEqualTo(1);
+    // Transfers created within the same millisecond are ordered by their IDs
+    final JsonArray all = new JsonArray();
+    all.addAll(data);
+    all.addAll(nextData);
+    final List<String> transactionIDs = new ArrayList<>();
+    all.forEach(transaction -> transactionIDs.add(transaction.getAsJsonObject().get("transactionID").getAsString()));
+    assertThat(transactionIDs).containsExactly(transactionID1, transactionID2, transactionID3);
+    assertThat(all.get(transactionIDs.indexOf(transactionID3)).getAsJsonObject().get("state").getAsString())
+        .isEqualTo(State.CANCELLED.name());
+  }
+
+  @Test
+  public void listTransactionsByState() throws Exception {
+    // given
+    final String aggregateID1 = createAccount();
+    final String aggregateID2 = createAccount();
+    transferMoney(aggregateID1, aggregateID2, BigDecimal.ONE);
+    final String transactionID = transferMoney(aggregateID1, aggregateID2, BigDecimal.valueOf(5000));
+    final HttpGet request = new HttpGet(
+        String.format("%s/api/account/%s/transactions?state=CANCELLED,PENDING", SERVER_URL, aggregateID1));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+    final JsonObject body = GSON.fromJson(getResponseBodyAndClose(response), JsonObject.class);
+    final JsonArray data = body.get("data").getAsJsonArray();
+    assertThat(data.size()).isEqualTo(1);
+    assertThat(data.get(0).getAsJsonObject().get("transactionID").getAsString()).isEqualTo(transactionID);
+    final JsonArray links = body.get("links").getAsJsonArray();
+    assertThat(links.get(links.size() - 1).getAsJsonObject().get("rel").getAsString()).isNotEqualTo("next");
+
+    // when
+    final CloseableHttpResponse receiverResponse = client.execute(new HttpGet(
+        String.format("%s/api/account/%s/transactions?state=CANCELLED,PENDING", SERVER_URL, aggregateID2)));
+
+    // assert
+    assertThat(GSON.fromJson(getResponseBodyAndClose(receiverResponse), JsonObject.class).get("data")
+        .getAsJsonArray().size()).isEqualTo(0);
+  }
+
+  @Test
+  public void listTransactionsNotValidParams() throws Exception {
+    // given
+    final String aggregateID = createAccount();
+    final HttpGet request = new HttpGet(String.format(
+        "%s/api/account/%s/transactions?from=2019-03-02T00:00:00Z&to=2019-03-01T00:00:00Z&state=DONE&limit=0&after=%s",
+        SERVER_URL, aggregateID, UUID.randomUUID()));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+    final String expectedResponse = new JSONObject()
+        .put("status", Status.ERROR)
+        .put("message", "There are validation errors")
+        .put("data", new JSONObject()
+            .put("to", new JSONArray().put("Must be after from"))
+            .put("state", new JSONArray().put("Unknown state DONE"))
+            .put("limit", new JSONArray().put("Must be a number between 1 and 1000")))
+        .toString();
+    assertResponses(expectedResponse, getResponseBodyAndClose(response));
+  }
+
+  @Test
+  public void listTransactionsNotValidTimestampAndCursor() throws Exception {
+    // given
+    final String aggregateID = createAccount();
+    final HttpGet request = new HttpGet(String.format("%s/api/account/%s/transactions?from=yesterday&after=%s",
+        SERVER_URL, aggregateID, UUID.randomUUID()));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+    final String expectedResponse = new JSONObject()
+        .put("status", Status.ERROR)
+        .put("message", "There are validation errors")
+        .put("data", new JSONObject()
+            .put("from", new JSONArray().put("Must be an ISO-8601 instant, e.g. 2019-03-01T10:15:30Z")))
+        .toString();
+    assertResponses(expectedResponse, getResponseBodyAndClose(response));
+
+    // when
+    final CloseableHttpResponse cursorResponse = client.execute(new HttpGet(String.format(
+        "%s/api/account/%s/transactions?after=%s", SERVER_URL, aggregateID, UUID.randomUUID())));
+
+    // assert
+    assertThat(cursorResponse.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+    final String expectedCursorResponse = new JSONObject()
+        .put("status", Status.ERROR)
+        .put("message", "There are validation errors")
+        .put("data", new JSONObject().put("after", new JSONArray().put("Is not a transaction of the account")))
+        .toString();
+    assertResponses(expectedCursorResponse, getResponseBodyAndClose(cursorResponse));
+  }
+
+  @Test
+  public void listTransactionsNotValidDoesNotExist() throws Exception {
+    // given
+    final UUID aggregateID = UUID.randomUUID();
+    final HttpGet request = new HttpGet(String.format("%s/api/account/%s/transactions", SERVER_URL, aggregateID));
+
+    // when
+    final CloseableHttpResponse response = client.execute(request);
+
+    // assert
+    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_NOT_FOUND);
+    final String expectedResponse = new JSONObject()
+        .put("status", Status.ERROR)
+        .put("message", String.format("Account with ID: %s was not found", aggregateID))
+        .toString();
+    assertResponses(expectedResponse, getResponseBodyAndClose(response));
+  }
+}
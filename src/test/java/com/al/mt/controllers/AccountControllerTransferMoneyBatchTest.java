@@ -0,0 +1,122 @@
+package com.al.mt.controllers;
+
+import static com.al.mt.MainApp.ACCOUNT_EVENT_STORAGE;
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.Constants.SERVER_URL;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Status;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Money;
+import com.al.mt.requests.CreateAccountRequest;
+import com.al.mt.requests.TransferMoneyRequest;
+import com.google.common.collect.ImmutableList;
+
+public class AccountControllerTransferMoneyBatchTest extends AbstractBaseTest {
+
+	private static String createAccount() throws Exception {
+		final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(new CreateAccountRequest(FIRST_ACCOUT_FULL_NAME))));
+		return (String) GSON.fromJson(getResponseBodyAndClose(client.execute(request)), APIResponse.class).getData();
+	}
+
+	private static TransferMoneyRequest transfer(final String fromID, final String toID, final BigDecimal value) {
+		return TransferMoneyRequest.builder()
+				.setFomAccountNumber(fromID)
+				.setToAccountNumber(toID)
+				.setValue(value)
+				.build();
+	}
+
+	@Test
+	public void transferMoneyBatchValid() throws Exception {
+		// given
+		final String aggregateID1 = createAccount();
+		final String aggregateID2 = createAccount();
+		final String aggregateID3 = createAccount();
+		final String randomID = UUID.randomUUID().toString();
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney/batch", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(ImmutableList.of(
+				transfer(aggregateID1, aggregateID2, BigDecimal.TEN),
+				transfer(aggregateID1, aggregateID3, BigDecimal.valueOf(-10)),
+				transfer(aggregateID2, aggregateID3, BigDecimal.ONE),
+				transfer(aggregateID1, randomID, BigDecimal.TEN),
+				transfer(aggregateID1, aggregateID3, BigDecimal.valueOf(995))))));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JSONObject body = new JSONObject(getResponseBodyAndClose(response));
+		assertThat(body.getString("message")).isEqualTo("3 of 5 transfers will be made");
+		final JSONArray results = body.getJSONArray("data");
+		assertThat(results.getJSONObject(0).getString("status")).isEqualTo(Status.OK.name());
+		assertThat(results.getJSONObject(1).getJSONObject("data").getJSONArray("value").getString(0))
+				.isEqualTo("Must be provided & be greater than 0");
+		assertThat(results.getJSONObject(2).getString("status")).isEqualTo(Status.OK.name());
+		assertThat(results.getJSONObject(3).getJSONObject("data").getJSONArray("toAccountNumber").getString(0))
+				.isEqualTo(String.format("Account with ID: %s doesn't exist", randomID));
+		final UUID cancelledID = UUID.fromString(results.getJSONObject(4).getString("data"));
+		// The last transfer exceeds the balance left by the first one
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getTransactions().get(cancelledID)
+				.getState()).isEqualTo(State.CANCELLED);
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getBalance()
+				.compareTo(Money.valueOf(990))).isEqualTo(0);
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID2)).getBalance()
+				.compareTo(Money.valueOf(1009))).isEqualTo(0);
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID3)).getBalance()
+				.compareTo(Money.valueOf(1001))).isEqualTo(0);
+	}
+
+	@Test
+	public void transferMoneyBatchNotValidNotAnArray() throws Exception {
+		// given
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney/batch", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(transfer(createAccount(), createAccount(), BigDecimal.TEN))));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "Body must be an array of transfers")
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void transferMoneyBatchNotValidEmpty() throws Exception {
+		// given
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney/batch", SERVER_URL));
+		request.setEntity(new StringEntity("[]"));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "Batch must have between 1 and 1000 transfers")
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+}
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import com.al.mt.AbstractBaseTest;
 import com.al.mt.model.APIResponse;
+import com.al.mt.model.Money;
 import com.al.mt.requests.CreateAccountRequest;
 import com.al.mt.requests.TransferMoneyRequest;
 import com.google.common.collect.ImmutableList;
@@ -80,11 +81,11 @@ public class AccountControllerTransferMoneyConcurrencyTest extends AbstractBaseT
 		// assert
 		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1))
 				.getBalance()
-				.compareTo(BigDecimal.valueOf(500)))
+				.compareTo(Money.valueOf(500)))
 		.isEqualTo(0);
 		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID2))
 				.getBalance()
-				.compareTo(BigDecimal.valueOf(1500)))
+				.compareTo(Money.valueOf(1500)))
 		.isEqualTo(0);
 	}
 }
@@ -0,0 +1,92 @@
+package com.al.mt.controllers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountProjection;
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Status;
+import com.al.mt.exceptions.AggregateDoesNotExistException;
+import com.al.mt.exceptions.JournalException;
+import com.al.mt.model.APIResponse;
+import com.al.mt.requests.TransferMoneyRequest;
+import com.al.mt.services.AccountService;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Awaited transfers which pass validation of the route but fail once they are
+ * handled, e.g. when the receiver is gone or the journal fails.
+ */
+public class AccountControllerTransferMoneyFailedTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+
+	private final AccountEventStorage eventStorage = mock(AccountEventStorage.class);
+	private final PendingTransfers pendingTransfers = mock(PendingTransfers.class);
+	private final AccountController accountController = new AccountController(mock(AccountService.class),
+			this.eventStorage, mock(AccountProjection.class), this.pendingTransfers, mock(TransactionIndex.class));
+	private final Request request = mock(Request.class);
+	private final Response response = mock(Response.class);
+
+	private APIResponse transferAndWait(final Throwable failure) throws Exception {
+		final CompletableFuture<State> transfer = new CompletableFuture<>();
+		transfer.completeExceptionally(failure);
+		when(this.pendingTransfers.register(any())).thenReturn(transfer);
+		doReturn(TransferMoneyRequest.builder()
+				.setFomAccountNumber(FROM_ID.toString())
+				.setToAccountNumber(TO_ID.toString())
+				.setValue(BigDecimal.TEN)
+				.build()).when(this.request).attribute(anyString());
+		when(this.request.queryParams("waitMillis")).thenReturn("5000");
+		return (APIResponse) this.accountController.transferMoney().handle(this.request, this.response);
+	}
+
+	@Test
+	public void awaitedTransferToAccountWhichIsGone() throws Exception {
+		// given
+		when(this.eventStorage.exists(FROM_ID)).thenReturn(true);
+		when(this.eventStorage.exists(TO_ID)).thenReturn(true, false);
+
+		// when
+		final APIResponse apiResponse = transferAndWait(new AggregateDoesNotExistException(TO_ID.toString()));
+
+		// assert
+		verify(this.response).status(HTTP_NOT_FOUND);
+		assertThat(apiResponse.getStatus()).isEqualTo(Status.ERROR);
+		assertThat(apiResponse.getMessage()).isEqualTo(String.format("Account with ID: %s doesn't exist", TO_ID));
+		assertThat(((Map<?, ?>) apiResponse.getData()).keySet()).containsExactly("transactionID");
+	}
+
+	@Test
+	public void awaitedTransferWhichFailedToBeSaved() throws Exception {
+		// given
+		when(this.eventStorage.exists(any())).thenReturn(true);
+
+		// when
+		final APIResponse apiResponse = transferAndWait(new JournalException("Sync failed"));
+
+		// assert
+		verify(this.response).status(HTTP_INTERNAL_ERROR);
+		assertThat(apiResponse.getStatus()).isEqualTo(Status.ERROR);
+		assertThat(apiResponse.getMessage()).isEqualTo("Money transfer failed");
+	}
+}
@@ -20,9 +20,11 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.State;
 import com.al.mt.enums.Status;
 import com.al.mt.model.APIResponse;
 import com.al.mt.model.Link;
+import com.al.mt.model.Money;
 import com.al.mt.requests.CreateAccountRequest;
 import com.al.mt.requests.TransferMoneyRequest;
 import com.google.gson.Gson;
@@ -57,16 +59,124 @@ public class AccountControllerTransferMoneyTest extends AbstractBaseTest {
 
 		// assert
 		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final String responseJson = getResponseBodyAndClose(response);
+		final UUID transactionID = UUID.fromString(new JSONObject(responseJson).getString("data"));
 		final String expectedResponse = new JSONObject()
 				.put("status", Status.OK)
 				.put("message", "Money will be transferred")
+				.put("data", transactionID.toString())
 				.put("links", Link.getLinksForAccounts())
 				.toString();
-		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+		assertResponses(expectedResponse, responseJson);
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getTransactions())
+				.containsKey(transactionID);
 		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getBalance()
-				.compareTo(BigDecimal.valueOf(990))).isEqualTo(0);
+				.compareTo(Money.valueOf(990))).isEqualTo(0);
 		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID2)).getBalance()
-				.compareTo(BigDecimal.valueOf(1010))).isEqualTo(0);
+				.compareTo(Money.valueOf(1010))).isEqualTo(0);
+	}
+
+	@Test
+	public void transferMoneyAwaited() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(
+				String.format("%s/api/account/transferMoney?waitMillis=5000", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+				.setFomAccountNumber(aggregateID1)
+				.setToAccountNumber(aggregateID2)
+				.setValue(BigDecimal.TEN)
+				.build())));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JSONObject body = new JSONObject(getResponseBodyAndClose(response));
+		assertThat(body.getString("message")).isEqualTo("Money was transferred");
+		assertThat(body.getJSONObject("data").getString("state")).isEqualTo(State.SUCCEEDED.name());
+		final UUID transactionID = UUID.fromString(body.getJSONObject("data").getString("transactionID"));
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getTransactions().get(transactionID)
+				.getState()).isEqualTo(State.SUCCEEDED);
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID2)).getBalance()
+				.compareTo(Money.valueOf(1010))).isEqualTo(0);
+	}
+
+	@Test
+	public void transferMoneyAwaitedCancelled() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(
+				String.format("%s/api/account/transferMoney?waitMillis=5000", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+				.setFomAccountNumber(aggregateID1)
+				.setToAccountNumber(aggregateID2)
+				.setValue(BigDecimal.valueOf(2000))
+				.build())));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JSONObject body = new JSONObject(getResponseBodyAndClose(response));
+		assertThat(body.getString("message")).isEqualTo("Money transfer was cancelled");
+		assertThat(body.getJSONObject("data").getString("state")).isEqualTo(State.CANCELLED.name());
+		assertThat(ACCOUNT_EVENT_STORAGE.get(UUID.fromString(aggregateID1)).getBalance()
+				.compareTo(Money.valueOf(1000))).isEqualTo(0);
+	}
+
+	@Test
+	public void transferMoneyAwaitedToNotExistingAccount() throws Exception {
+		// given
+		final String aggregateID = extractIDFromResponseAndClose(createAccount());
+		final UUID missingID = UUID.randomUUID();
+		final HttpPost request = new HttpPost(
+				String.format("%s/api/account/transferMoney?waitMillis=5000", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+				.setFomAccountNumber(aggregateID)
+				.setToAccountNumber(missingID.toString())
+				.setValue(BigDecimal.TEN)
+				.build())));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_NOT_FOUND);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", String.format("Account with ID: %s doesn't exist", missingID))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void transferMoneyNotValidWaitMillis() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney?waitMillis=0", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+				.setFomAccountNumber(aggregateID1)
+				.setToAccountNumber(aggregateID2)
+				.setValue(BigDecimal.TEN)
+				.build())));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject().put("status", Status.ERROR)
+				.put("message", "There are validation errors")
+				.put("data", new JSONObject().put("waitMillis",
+						new JSONArray().put("Must be a number between 1 and 10000")))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
 	}
 
 	@Test
@@ -95,6 +205,77 @@ public class AccountControllerTransferMoneyTest extends AbstractBaseTest {
 		assertResponses(expectedResponse, getResponseBodyAndClose(response));
 	}
 
+	@Test
+	public void transferMoneyNotValidFractionOfCent() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney", SERVER_URL));
+		request.setEntity(new StringEntity(
+				toJson(TransferMoneyRequest.builder()
+	                    .setFomAccountNumber(aggregateID1)
+	                    .setToAccountNumber(aggregateID2)
+	                    .setValue(new BigDecimal("10.001"))
+	                    .build())));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject().put("status", Status.ERROR)
+				.put("message", "There are validation errors")
+				.put("data", new JSONObject().put("value", new JSONArray().put("Must have at most 2 decimal places")))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void transferMoneyNotValidValueNotANumber() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney", SERVER_URL));
+		request.setEntity(new StringEntity(new JSONObject()
+				.put("fromAccountNumber", aggregateID1)
+				.put("toAccountNumber", aggregateID2)
+				.put("value", "ten")
+				.toString()));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject().put("status", Status.ERROR)
+				.put("message", "There are validation errors")
+				.put("data", new JSONObject().put("value", new JSONArray().put("Must be a number: ten")))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void transferMoneyNotValidValueNull() throws Exception {
+		// given
+		final String aggregateID1 = extractIDFromResponseAndClose(createAccount());
+		final String aggregateID2 = extractIDFromResponseAndClose(createAccount());
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney", SERVER_URL));
+		request.setEntity(new StringEntity(String.format(
+				"{\"fromAccountNumber\":\"%s\",\"toAccountNumber\":\"%s\",\"value\":null}", aggregateID1,
+				aggregateID2)));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject().put("status", Status.ERROR)
+				.put("message", "There are validation errors")
+				.put("data", new JSONObject().put("value", new JSONArray().put("Must be provided & be greater than 0")))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
 	@Test
 	public void transferMoneyNotValidNoBody() throws Exception {
 		// given
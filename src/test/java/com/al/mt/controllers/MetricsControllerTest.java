@@ -0,0 +1,36 @@
+package com.al.mt.controllers;
+
+import static com.al.mt.utils.Constants.SERVER_URL;
+import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.Status;
+import com.google.gson.JsonObject;
+
+public class MetricsControllerTest extends AbstractBaseTest {
+
+	@Test
+	public void metrics() throws Exception {
+		// given
+		final HttpGet request = new HttpGet(String.format("%s/api/metrics", SERVER_URL));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JsonObject json = GSON.fromJson(getResponseBodyAndClose(response), JsonObject.class);
+		assertThat(json.get("status").getAsString()).isEqualTo(Status.OK.name());
+		final JsonObject eventBus = json.getAsJsonObject("data").getAsJsonObject("eventBus");
+		assertThat(eventBus.get("shards").getAsInt()).isEqualTo(0);
+		assertThat(eventBus.getAsJsonArray("queueDepths").size()).isEqualTo(0);
+		final JsonObject admission = json.getAsJsonObject("data").getAsJsonObject("admission");
+		assertThat(admission.get("capacity").getAsInt()).isEqualTo(128);
+		assertThat(admission.get("rejected").getAsLong()).isEqualTo(0L);
+	}
+}
@@ -0,0 +1,122 @@
+package com.al.mt.controllers;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.Constants.SERVER_URL;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.AbstractBaseTest;
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Status;
+import com.al.mt.model.APIResponse;
+import com.al.mt.requests.CreateAccountRequest;
+import com.al.mt.requests.TransferMoneyRequest;
+
+public class TransactionControllerTest extends AbstractBaseTest {
+
+	private static String createAccount() throws Exception {
+		final HttpPost request = new HttpPost(String.format("%s/api/account", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(new CreateAccountRequest(FIRST_ACCOUT_FULL_NAME))));
+		return (String) GSON.fromJson(getResponseBodyAndClose(client.execute(request)), APIResponse.class).getData();
+	}
+
+	private static String transferMoney(final String fromID, final String toID, final BigDecimal value)
+			throws Exception {
+		final HttpPost request = new HttpPost(String.format("%s/api/account/transferMoney", SERVER_URL));
+		request.setEntity(new StringEntity(toJson(TransferMoneyRequest.builder()
+				.setFomAccountNumber(fromID)
+				.setToAccountNumber(toID)
+				.setValue(value)
+				.build())));
+		return (String) GSON.fromJson(getResponseBodyAndClose(client.execute(request)), APIResponse.class).getData();
+	}
+
+	@Test
+	public void getTransactionSucceeded() throws Exception {
+		// given
+		final String aggregateID1 = createAccount();
+		final String aggregateID2 = createAccount();
+		final String transactionID = transferMoney(aggregateID1, aggregateID2, BigDecimal.TEN);
+		final HttpGet request = new HttpGet(String.format("%s/api/transaction/%s", SERVER_URL, transactionID));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JSONObject data = new JSONObject(getResponseBodyAndClose(response)).getJSONObject("data");
+		assertThat(data.getString("transactionID")).isEqualTo(transactionID);
+		assertThat(data.getString("fromID")).isEqualTo(aggregateID1);
+		assertThat(data.getString("toID")).isEqualTo(aggregateID2);
+		assertThat(data.getBigDecimal("value").compareTo(BigDecimal.TEN)).isEqualTo(0);
+		assertThat(data.getString("state")).isEqualTo(State.SUCCEEDED.name());
+		assertThat(data.has("reason")).isFalse();
+	}
+
+	@Test
+	public void getTransactionCancelled() throws Exception {
+		// given
+		final String transactionID = transferMoney(createAccount(), createAccount(), BigDecimal.valueOf(5000));
+		final HttpGet request = new HttpGet(String.format("%s/api/transaction/%s", SERVER_URL, transactionID));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_OK);
+		final JSONObject data = new JSONObject(getResponseBodyAndClose(response)).getJSONObject("data");
+		assertThat(data.getString("state")).isEqualTo(State.CANCELLED.name());
+		assertThat(data.getString("reason")).isEqualTo(Reason.BALANCE_TOO_LOW.name());
+	}
+
+	@Test
+	public void getTransactionNotValidInvalidID() throws Exception {
+		// given
+		final HttpGet request = new HttpGet(String.format("%s/api/transaction/asd", SERVER_URL));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_BAD_REQUEST);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", "There are validation errors")
+				.put("data", new JSONObject().put("id", new JSONArray().put("Is not a valid ID value")))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+
+	@Test
+	public void getTransactionNotValidDoesNotExist() throws Exception {
+		// given
+		final UUID transactionID = UUID.randomUUID();
+		final HttpGet request = new HttpGet(String.format("%s/api/transaction/%s", SERVER_URL, transactionID));
+
+		// when
+		final CloseableHttpResponse response = client.execute(request);
+
+		// assert
+		assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HTTP_NOT_FOUND);
+		final String expectedResponse = new JSONObject()
+				.put("status", Status.ERROR)
+				.put("message", String.format("Transaction with ID: %s was not found", transactionID))
+				.toString();
+		assertResponses(expectedResponse, getResponseBodyAndClose(response));
+	}
+}
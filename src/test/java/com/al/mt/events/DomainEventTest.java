@@ -8,6 +8,10 @@ import static com.al.mt.utils.Constants.DUMMY_EVENT;
 public class DomainEventTest {
 
 	private static final class DummyEvent extends DomainEvent {
+		@Override
+		public <T, R> R accept(final EventVisitor<T, R> visitor, final T argument) {
+			throw new UnsupportedOperationException();
+		}
 	}
 
 	@Test
@@ -0,0 +1,188 @@
+package com.al.mt.events;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.aggregates.AccountAggregate;
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountLocks;
+import com.al.mt.aggregates.AccountProjection;
+import com.al.mt.aggregates.EventManager;
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Type;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.al.mt.services.AccountServiceImpl;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+public class ShardedEventBusTest {
+
+	private static final class Recorder {
+		private final ConcurrentLinkedQueue<String> handled = new ConcurrentLinkedQueue<>();
+
+		@Subscribe
+		@AllowConcurrentEvents
+		public void handle(final AccountCreatedEvent event) {
+			this.handled.add(event.getAggregateID() + " " + event.getFullName() + " "
+					+ Thread.currentThread().getName());
+		}
+	}
+
+	@Test
+	public void eventsOfAggregateAreHandledInOrderByItsShard() throws Exception {
+		// given
+		final ShardedEventBus eventBus = new ShardedEventBus(4);
+		final Recorder recorder = new Recorder();
+		eventBus.register(recorder);
+		final List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			ids.add(UUID.randomUUID());
+		}
+
+		// when
+		for (int sequence = 0; sequence < 100; sequence++) {
+			for (final UUID id : ids) {
+				eventBus.post(new AccountCreatedEvent(id, String.valueOf(sequence)));
+			}
+		}
+		assertThat(eventBus.shutdown(10, TimeUnit.SECONDS)).isTrue();
+
+		// assert
+		final Map<String, Integer> lastSequence = new HashMap<>();
+		final Map<String, String> threads = new HashMap<>();
+		for (final String handled : recorder.handled) {
+			final String[] parts = handled.split(" ");
+			final int sequence = Integer.parseInt(parts[1]);
+			assertThat(sequence).isEqualTo(lastSequence.getOrDefault(parts[0], -1) + 1);
+			lastSequence.put(parts[0], sequence);
+			assertThat(threads.computeIfAbsent(parts[0], id -> parts[2])).isEqualTo(parts[2]);
+			assertThat(parts[2]).isEqualTo("event-shard-" + eventBus.shardOf(UUID.fromString(parts[0])));
+		}
+		assertThat(recorder.handled).hasSize(ids.size() * 100);
+	}
+
+	@Test
+	public void queueDepthsCountWaitingEventsPerShard() throws Exception {
+		// given
+		final ShardedEventBus eventBus = new ShardedEventBus(2);
+		final CountDownLatch handling = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		eventBus.register(new Object() {
+			@Subscribe
+			public void handle(final AccountCreatedEvent event) throws InterruptedException {
+				handling.countDown();
+				release.await();
+			}
+		});
+		final UUID id = UUID.randomUUID();
+
+		// when
+		for (int i = 0; i < 5; i++) {
+			eventBus.post(new AccountCreatedEvent(id, String.valueOf(i)));
+		}
+		handling.await();
+
+		// assert
+		final int[] depths = eventBus.getQueueDepths();
+		assertThat(depths).hasLength(2);
+		assertThat(depths[eventBus.shardOf(id)]).isEqualTo(4);
+		assertThat(depths[1 - eventBus.shardOf(id)]).isEqualTo(0);
+		release.countDown();
+		assertThat(eventBus.shutdown(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(eventBus.getQueueDepths()).isEqualTo(new int[2]);
+	}
+
+	@Test
+	public void transfersAcrossShardsKeepBalances() throws Exception {
+		// given
+		final ShardedEventBus eventBus = new ShardedEventBus(4);
+		final AccountEventStorage storage = new AccountEventStorage();
+		final AccountProjection projection = new AccountProjection(storage);
+		eventBus.register(new EventManager(eventBus, storage, projection, new AccountLocks(64),
+				new PendingTransfers(), new TransactionIndex()));
+		final AccountServiceImpl accountService = new AccountServiceImpl(eventBus);
+		final List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			ids.add(accountService.createAccount("Account " + i));
+		}
+		waitFor(() -> ids.stream().allMatch(projection::exists));
+		final int transfersPerAccount = 50;
+		final ExecutorService clients = Executors.newFixedThreadPool(4);
+
+		// when
+		for (int i = 0; i < ids.size(); i++) {
+			final UUID fromID = ids.get(i);
+			final UUID toID = ids.get((i + 1) % ids.size());
+			clients.execute(() -> {
+				for (int j = 0; j < transfersPerAccount; j++) {
+					accountService.transferMoney(fromID, toID, Money.valueOf(30));
+				}
+			});
+		}
+		clients.shutdown();
+		assertThat(clients.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		waitFor(() -> completed(storage, ids, transfersPerAccount));
+
+		// assert
+		Money total = Money.ZERO;
+		for (final UUID id : ids) {
+			final AccountAggregate account = storage.get(id);
+			assertThat(account.getBalance().signum()).isAtLeast(0);
+			total = total.plus(account.getBalance());
+		}
+		assertThat(total).isEqualTo(Money.valueOf(1000 * ids.size()));
+		assertThat(eventBus.shutdown(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	/**
+	 * @return {@code true} when all transfers reached their final state.
+	 */
+	private static boolean completed(final AccountEventStorage storage, final List<UUID> ids,
+			final int transfersPerAccount) {
+		int succeeded = 0;
+		int incoming = 0;
+		for (final UUID id : ids) {
+			final AccountAggregate account = storage.get(id);
+			int outgoing = 0;
+			for (final MoneyTransaction transaction : account.getTransactions().values()) {
+				if (transaction.getState() == State.NEW || transaction.getState() == State.PENDING) {
+					return false;
+				}
+				if (transaction.getType() == Type.OUTGOING) {
+					outgoing++;
+					succeeded += transaction.getState() == State.SUCCEEDED ? 1 : 0;
+				} else {
+					incoming++;
+				}
+			}
+			if (outgoing != transfersPerAccount) {
+				return false;
+			}
+		}
+		return succeeded == incoming;
+	}
+
+	private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.al.mt.journal;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.enums.Reason;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Money;
+import com.google.common.collect.ImmutableList;
+
+public class BinaryEventCodecTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+	private static final Money VALUE = Money.of(new BigDecimal("123.45"));
+
+	private final BinaryEventCodec codec = new BinaryEventCodec();
+
+	private DomainEvent roundTrip(final DomainEvent event) {
+		final ByteBuffer buffer = ByteBuffer.allocate(256);
+		this.codec.encode(event, buffer);
+		buffer.flip();
+		final DomainEvent decoded = this.codec.decode(buffer);
+		assertThat(buffer.hasRemaining()).isFalse();
+		return decoded;
+	}
+
+	@Test
+	public void roundTripOfAllEventTypes() {
+		// given
+		final ImmutableList<DomainEvent> events = ImmutableList.of(
+				new AccountCreatedEvent(FROM_ID, FIRST_ACCOUT_FULL_NAME),
+				new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE),
+				new AccountDebitedEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE),
+				new AccountCreditedEvent(TO_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE),
+				new MoneyTransferSucceeded(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE),
+				new MoneyTransferCancelled(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE, Reason.BALANCE_TOO_LOW));
+
+		for (final DomainEvent event : events) {
+			// when
+			final DomainEvent decoded = roundTrip(event);
+
+			// assert
+			assertThat(decoded.getClass()).isEqualTo(event.getClass());
+			assertThat(toJson(decoded)).isEqualTo(toJson(event));
+			assertThat(decoded.getCreatedAt().getTime()).isEqualTo(event.getCreatedAt().getTime());
+		}
+	}
+
+	@Test
+	public void roundTripKeepsScaleAndNulls() {
+		// given
+		final MoneyTransferredEvent transferred = new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID,
+				Money.of(new BigDecimal("-10.500")));
+		final AccountCreatedEvent created = new AccountCreatedEvent(FROM_ID, null);
+
+		// when
+		final MoneyTransferredEvent decodedTransferred = (MoneyTransferredEvent) roundTrip(transferred);
+		final AccountCreatedEvent decodedCreated = (AccountCreatedEvent) roundTrip(created);
+
+		// assert
+		assertThat(decodedTransferred.getValue().getScale()).isEqualTo(3);
+		assertThat(decodedTransferred.getValue().toBigDecimal()).isEqualTo(new BigDecimal("-10.500"));
+		assertThat(decodedCreated.getFullName()).isNull();
+	}
+
+	@Test
+	public void unknownVersionIsRejected() {
+		// given
+		final ByteBuffer buffer = ByteBuffer.allocate(256);
+		this.codec.encode(new AccountCreatedEvent(FROM_ID, FIRST_ACCOUT_FULL_NAME), buffer);
+		buffer.flip();
+		buffer.put(0, (byte) (BinaryEventCodec.VERSION + 1));
+
+		// when
+		final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> this.codec.decode(buffer));
+
+		// assert
+		assertThat(exception).hasMessageThat().contains("version");
+	}
+
+	@Test
+	public void encodeIntoTooSmallBuffer() {
+		// given
+		final ByteBuffer buffer = ByteBuffer.allocate(16);
+
+		// when
+		assertThrows(BufferOverflowException.class,
+				() -> this.codec.encode(new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, VALUE),
+						buffer));
+	}
+}
@@ -0,0 +1,216 @@
+package com.al.mt.journal;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.Constants.SECOND_ACCOUT_FULL_NAME;
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.SnapshotPolicy;
+import com.al.mt.enums.Reason;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.Account;
+import com.al.mt.model.Money;
+import com.google.common.collect.ImmutableList;
+
+public class FileEventJournalTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+	private static final ImmutableList<DomainEvent> EVENTS = ImmutableList.of(
+			new AccountCreatedEvent(FROM_ID, FIRST_ACCOUT_FULL_NAME),
+			new AccountCreatedEvent(TO_ID, SECOND_ACCOUT_FULL_NAME),
+			new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, Money.valueOf(10)),
+			new AccountCreditedEvent(TO_ID, FROM_ID, TO_ID, TRANSACTION_ID, Money.valueOf(10)),
+			new AccountDebitedEvent(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, Money.valueOf(10)),
+			new MoneyTransferSucceeded(FROM_ID, FROM_ID, TO_ID, TRANSACTION_ID, Money.valueOf(10)),
+			new MoneyTransferCancelled(FROM_ID, FROM_ID, TO_ID, UUID.randomUUID(), Money.valueOf(1),
+					Reason.BALANCE_TOO_LOW));
+
+	// Events that form a valid history of both accounts
+	private static final ImmutableList<DomainEvent> HISTORY = EVENTS.subList(0, 6);
+
+	private Path path;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.path = Files.createTempFile("journal", ".log");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.path);
+	}
+
+	private FileEventJournal open() {
+		return FileEventJournal.open(this.path, new JsonEventCodec(), 1, TimeUnit.MILLISECONDS, 16);
+	}
+
+	private static List<DomainEvent> replay(final EventJournal journal) {
+		final List<DomainEvent> events = new ArrayList<>();
+		journal.replay(events::add);
+		return events;
+	}
+
+	private static List<String> describe(final List<DomainEvent> events) {
+		final List<String> descriptions = new ArrayList<>();
+		events.forEach(event -> descriptions.add(toJson(event) + "@" + event.getCreatedAt().getTime()));
+		return descriptions;
+	}
+
+	@Test
+	public void replayReturnsAppendedEventsAfterReopen() {
+		// given
+		try (FileEventJournal journal = open()) {
+			EVENTS.forEach(event -> journal.awaitDurable(journal.append(event)));
+		}
+
+		// when
+		final List<DomainEvent> replayed;
+		try (FileEventJournal journal = open()) {
+			replayed = replay(journal);
+		}
+
+		// assert
+		assertThat(describe(replayed)).containsExactlyElementsIn(describe(EVENTS)).inOrder();
+	}
+
+	@Test
+	public void tornRecordIsTruncatedOnOpen() throws IOException {
+		// given
+		final long validSize;
+		try (FileEventJournal journal = open()) {
+			journal.awaitDurable(journal.append(EVENTS.get(0)));
+			validSize = Files.size(this.path);
+			journal.awaitDurable(journal.append(EVENTS.get(1)));
+		}
+		try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(this.path) - 3);
+		}
+
+		// when
+		final List<DomainEvent> replayed;
+		try (FileEventJournal journal = open()) {
+			replayed = replay(journal);
+			journal.awaitDurable(journal.append(EVENTS.get(2)));
+		}
+
+		// assert
+		assertThat(describe(replayed)).containsExactlyElementsIn(describe(EVENTS.subList(0, 1)));
+		assertThat(Files.size(this.path)).isGreaterThan(validSize);
+		try (FileEventJournal journal = open()) {
+			assertThat(describe(replay(journal)))
+					.containsExactly(describe(EVENTS.subList(0, 1)).get(0), describe(EVENTS.subList(2, 3)).get(0))
+					.inOrder();
+		}
+	}
+
+	@Test
+	public void batchIsReplayedWholeOrNotAtAll() throws IOException {
+		// given
+		try (FileEventJournal journal = open()) {
+			journal.awaitDurable(journal.append(EVENTS.get(0)));
+			journal.awaitDurable(journal.appendAll(EVENTS.subList(1, 4)));
+			journal.awaitDurable(journal.appendAll(EVENTS.subList(4, 7)));
+		}
+		final List<DomainEvent> replayed;
+		try (FileEventJournal journal = open()) {
+			replayed = replay(journal);
+		}
+		try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(this.path) - 3);
+		}
+
+		// when
+		final List<DomainEvent> replayedTorn;
+		try (FileEventJournal journal = open()) {
+			replayedTorn = replay(journal);
+		}
+
+		// assert
+		assertThat(describe(replayed)).containsExactlyElementsIn(describe(EVENTS)).inOrder();
+		assertThat(describe(replayedTorn)).containsExactlyElementsIn(describe(EVENTS.subList(0, 4))).inOrder();
+	}
+
+	@Test
+	public void concurrentWritersShareSyncs() throws Exception {
+		// given
+		final int writers = 8;
+		final int eventsPerWriter = 200;
+		final ExecutorService executor = Executors.newFixedThreadPool(writers);
+		final long syncs;
+
+		// when
+		try (FileEventJournal journal = FileEventJournal.open(this.path, new JsonEventCodec(), 5,
+				TimeUnit.MILLISECONDS, 64)) {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < writers; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < eventsPerWriter; j++) {
+						journal.awaitDurable(journal.append(new AccountCreatedEvent(UUID.randomUUID(), "Name")));
+					}
+				}));
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+			syncs = journal.syncs();
+		} finally {
+			executor.shutdown();
+		}
+
+		// assert
+		try (FileEventJournal journal = open()) {
+			assertThat(replay(journal)).hasSize(writers * eventsPerWriter);
+		}
+		assertThat(syncs).isLessThan((long) writers * eventsPerWriter);
+	}
+
+	@Test
+	public void storageRecoversJournaledEvents() {
+		// given
+		try (FileEventJournal journal = open()) {
+			final AccountEventStorage storage = new AccountEventStorage(SnapshotPolicy.never(), journal);
+			HISTORY.forEach(storage::save);
+		}
+
+		// when
+		final AccountEventStorage recovered;
+		final int count;
+		try (FileEventJournal journal = open()) {
+			recovered = new AccountEventStorage(SnapshotPolicy.never(), journal);
+			count = recovered.recover();
+		}
+
+		// assert
+		final AccountEventStorage expected = new AccountEventStorage();
+		HISTORY.forEach(expected::save);
+		assertThat(count).isEqualTo(HISTORY.size());
+		assertThat(recovered.getAggregateIDs()).containsExactly(FROM_ID, TO_ID);
+		assertThat(toJson(Account.from(recovered.get(FROM_ID)))).isEqualTo(toJson(Account.from(expected.get(FROM_ID))));
+		assertThat(toJson(Account.from(recovered.get(TO_ID)))).isEqualTo(toJson(Account.from(expected.get(TO_ID))));
+	}
+}
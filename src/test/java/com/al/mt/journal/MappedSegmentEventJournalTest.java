@@ -0,0 +1,192 @@
+package com.al.mt.journal;
+
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.DomainEvent;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.exceptions.JournalException;
+import com.al.mt.model.Money;
+import com.google.common.base.Strings;
+
+public class MappedSegmentEventJournalTest {
+	private static final UUID AGGREGATE_ID = UUID.randomUUID();
+	private static final int SEGMENT_SIZE = 4096;
+
+	private Path directory;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("journal");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(this.directory)) {
+			for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private MappedSegmentEventJournal open() {
+		return MappedSegmentEventJournal.open(this.directory, new JsonEventCodec(), SEGMENT_SIZE, 1,
+				TimeUnit.MILLISECONDS, 16);
+	}
+
+	private static List<DomainEvent> events(final int count) {
+		final List<DomainEvent> events = new ArrayList<>();
+		events.add(new AccountCreatedEvent(AGGREGATE_ID, "Name"));
+		for (int i = 1; i < count; i++) {
+			events.add(new MoneyTransferredEvent(AGGREGATE_ID, AGGREGATE_ID, UUID.randomUUID(), UUID.randomUUID(),
+					Money.valueOf(i)));
+		}
+		return events;
+	}
+
+	private static List<String> replay(final EventJournal journal) {
+		final List<String> events = new ArrayList<>();
+		journal.replay(event -> events.add(describe(event)));
+		return events;
+	}
+
+	private static String describe(final DomainEvent event) {
+		return toJson(event) + "@" + event.getCreatedAt().getTime();
+	}
+
+	@Test
+	public void eventsSpanningSegmentsAreReplayedAfterReopen() {
+		// given
+		final List<DomainEvent> events = events(100);
+		final int segments;
+		try (MappedSegmentEventJournal journal = open()) {
+			events.forEach(event -> journal.awaitDurable(journal.append(event)));
+			segments = journal.segments();
+		}
+
+		// when
+		final List<String> replayed;
+		final DomainEvent appended = new AccountCreatedEvent(UUID.randomUUID(), "Other");
+		try (MappedSegmentEventJournal journal = open()) {
+			replayed = replay(journal);
+			journal.awaitDurable(journal.append(appended));
+		}
+
+		// assert
+		assertThat(segments).isGreaterThan(1);
+		assertThat(replayed).containsExactlyElementsIn(events.stream().map(MappedSegmentEventJournalTest::describe)
+				.collect(Collectors.toList())).inOrder();
+		try (MappedSegmentEventJournal journal = open()) {
+			final List<String> all = replay(journal);
+			assertThat(all).hasSize(events.size() + 1);
+			assertThat(all.get(events.size())).isEqualTo(describe(appended));
+		}
+	}
+
+	@Test
+	public void batchesSpanningSegmentsAreReplayedAfterReopen() {
+		// given
+		final List<DomainEvent> events = events(100);
+		final int segments;
+		try (MappedSegmentEventJournal journal = open()) {
+			for (int i = 0; i < events.size(); i += 10) {
+				journal.awaitDurable(journal.appendAll(events.subList(i, i + 10)));
+			}
+			segments = journal.segments();
+		}
+
+		// when
+		final List<String> replayed;
+		try (MappedSegmentEventJournal journal = open()) {
+			replayed = replay(journal);
+		}
+
+		// assert
+		assertThat(segments).isGreaterThan(1);
+		assertThat(replayed).containsExactlyElementsIn(events.stream().map(MappedSegmentEventJournalTest::describe)
+				.collect(Collectors.toList())).inOrder();
+	}
+
+	@Test
+	public void tornRecordInTailSegmentIsCleared() throws IOException {
+		// given
+		final List<DomainEvent> events = events(3);
+		final long tornRecordStart;
+		try (MappedSegmentEventJournal journal = open()) {
+			journal.append(events.get(0));
+			tornRecordStart = journal.append(events.get(1));
+			journal.awaitDurable(journal.append(events.get(2)));
+		}
+		try (Stream<Path> paths = Files.list(this.directory);
+				FileChannel channel = FileChannel.open(paths.findFirst().get(), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 'x', 'y', 'z' }), tornRecordStart + 20);
+		}
+
+		// when
+		final List<String> replayed;
+		final DomainEvent appended = new AccountCreatedEvent(UUID.randomUUID(), "Other");
+		try (MappedSegmentEventJournal journal = open()) {
+			replayed = replay(journal);
+			journal.awaitDurable(journal.append(appended));
+		}
+
+		// assert
+		assertThat(replayed).containsExactly(describe(events.get(0)), describe(events.get(1))).inOrder();
+		try (MappedSegmentEventJournal journal = open()) {
+			assertThat(replay(journal))
+					.containsExactly(describe(events.get(0)), describe(events.get(1)), describe(appended)).inOrder();
+		}
+	}
+
+	@Test
+	public void eventLargerThanSegment() {
+		// given
+		final DomainEvent event = new AccountCreatedEvent(AGGREGATE_ID, Strings.repeat("x", SEGMENT_SIZE));
+
+		// when
+		try (MappedSegmentEventJournal journal = open()) {
+			assertThrows(JournalException.class, () -> journal.append(event));
+
+			// assert
+			assertThat(journal.segments()).isEqualTo(1);
+			journal.awaitDurable(journal.append(events(1).get(0)));
+			assertThat(replay(journal)).hasSize(1);
+		}
+	}
+
+	@Test
+	public void batchLargerThanSegmentDoesNotRollSegment() {
+		// given
+		final List<DomainEvent> events = events(200);
+
+		// when
+		try (MappedSegmentEventJournal journal = open()) {
+			journal.awaitDurable(journal.append(events.get(0)));
+			assertThrows(JournalException.class, () -> journal.appendAll(events));
+
+			// assert
+			assertThat(journal.segments()).isEqualTo(1);
+			assertThat(replay(journal)).containsExactly(describe(events.get(0)));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.al.mt.model;
+
+import static com.al.mt.utils.JsonUtils.toJson;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.exceptions.InvalidAmountException;
+import com.google.gson.Gson;
+
+public class MoneyTest {
+
+	@Test
+	public void convertsFromBigDecimalWithoutRounding() {
+		// given
+		final BigDecimal value = new BigDecimal("10.5");
+
+		// when
+		final Money money = Money.of(value);
+
+		// assert
+		assertThat(money.getMinorUnits()).isEqualTo(1050);
+		assertThat(money.getScale()).isEqualTo(Money.DEFAULT_SCALE);
+		assertThat(money).isEqualTo(Money.ofMinor(1050));
+		assertThat(money.toBigDecimal()).isEqualTo(new BigDecimal("10.50"));
+		assertThat(Money.of(new BigDecimal("0.125")).getScale()).isEqualTo(3);
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.125"), Money.DEFAULT_SCALE));
+	}
+
+	@Test
+	public void arithmeticIsOverflowChecked() {
+		// given
+		final Money max = Money.ofMinor(Long.MAX_VALUE);
+
+		// when
+		final Money sum = Money.valueOf(990).plus(Money.ofMinor(1));
+
+		// assert
+		assertThat(sum).isEqualTo(Money.of(new BigDecimal("990.01")));
+		assertThat(sum.minus(Money.valueOf(1000)).signum()).isEqualTo(-1);
+		assertThat(Money.valueOf(10).negate()).isEqualTo(Money.valueOf(-10));
+		assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+		assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+		assertThrows(ArithmeticException.class, () -> Money.valueOf(Long.MAX_VALUE / 10));
+		assertThrows(IllegalArgumentException.class, () -> max.compareTo(Money.ofMinor(1, 3)));
+	}
+
+	@Test
+	public void jsonIsDecimalNumber() {
+		// given
+		final Money money = Money.of(new BigDecimal("-1234.50"));
+
+		// when
+		final String json = toJson(money);
+
+		// assert
+		assertThat(json).isEqualTo("-1234.50");
+		assertThat(new Gson().fromJson(json, Money.class)).isEqualTo(money);
+		assertThat(new Gson().fromJson("7", Money.class)).isEqualTo(Money.valueOf(7));
+		assertThat(toJson(new Gson().fromJson("7", Money.class))).isEqualTo("7.00");
+		assertThat(new Gson().fromJson("0.100", Money.class)).isEqualTo(Money.ofMinor(10));
+		assertThrows(InvalidAmountException.class, () -> new Gson().fromJson("0.125", Money.class));
+		assertThrows(InvalidAmountException.class, () -> new Gson().fromJson("1e30", Money.class));
+		assertThat(new Gson().fromJson("null", Money.class)).isNull();
+		final InvalidAmountException notANumber = assertThrows(InvalidAmountException.class,
+				() -> new Gson().fromJson("{}", Money.class));
+		assertThat(notANumber.getPath()).isEqualTo("$");
+		assertThat(notANumber.getMessage()).isEqualTo("Must be a number, not BEGIN_OBJECT");
+	}
+}
@@ -2,6 +2,7 @@ package com.al.mt.services;
 
 import com.al.mt.enums.Reason;
 import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.model.Money;
 import com.al.mt.services.AccountServiceImpl;
 import com.google.common.eventbus.EventBus;
 import org.junit.jupiter.api.Test;
@@ -12,7 +13,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.mockito.Mockito.verify;
@@ -34,7 +34,7 @@ public class AccountServiceTest {
     final UUID fromID = UUID.randomUUID();
     final UUID toID = UUID.randomUUID();
     final UUID transactionID = UUID.randomUUID();
-    final BigDecimal value = BigDecimal.TEN;
+    final Money value = Money.valueOf(10);
     final Reason reason = Reason.INTERNAL_SERVER_ERROR;
 
     // when
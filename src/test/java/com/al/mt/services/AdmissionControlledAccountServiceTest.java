@@ -0,0 +1,214 @@
+package com.al.mt.services;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.AccountLocks;
+import com.al.mt.aggregates.AccountProjection;
+import com.al.mt.aggregates.EventManager;
+import com.al.mt.aggregates.PendingTransfers;
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.State;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.ShardedEventBus;
+import com.al.mt.exceptions.ServiceOverloadedException;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.google.common.collect.ImmutableList;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+public class AdmissionControlledAccountServiceTest {
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID TRANSACTION_ID = UUID.randomUUID();
+
+	@Test
+	public void commandIsRejectedWhenCapacityIsUsed() throws Exception {
+		// given
+		final AccountService delegate = mock(AccountService.class);
+		final AdmissionControlledAccountService service = new AdmissionControlledAccountService(delegate,
+				new PendingTransfers(), 1, 10,
+				TimeUnit.MILLISECONDS, 3);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch finish = new CountDownLatch(1);
+		when(delegate.createAccount("Blocking")).thenAnswer(invocation -> {
+			started.countDown();
+			finish.await();
+			return UUID.randomUUID();
+		});
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			final Future<UUID> blocking = executor.submit(() -> service.createAccount("Blocking"));
+			started.await();
+
+			// when
+			final ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+					() -> service.transferMoney(FROM_ID, TO_ID, Money.valueOf(10)));
+			final int inFlight = service.getInFlight();
+			finish.countDown();
+			blocking.get();
+			service.createAccount("Other");
+
+			// assert
+			assertThat(exception.getRetryAfterSeconds()).isEqualTo(3L);
+			assertThat(inFlight).isEqualTo(1);
+			assertThat(service.getInFlight()).isEqualTo(0);
+			assertThat(service.getRejected()).isEqualTo(1L);
+			verify(delegate).createAccount("Other");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void transferHoldsPermitWhileQueuedInShard() throws Exception {
+		// given
+		final ShardedEventBus eventBus = new ShardedEventBus(1);
+		final PendingTransfers pendingTransfers = registerEventManager(eventBus);
+		final UUID fromID = saveAccount(eventBus);
+		final UUID toID = saveAccount(eventBus);
+		final CountDownLatch finish = blockShard(eventBus);
+		final AdmissionControlledAccountService service = new AdmissionControlledAccountService(
+				new AccountServiceImpl(eventBus), pendingTransfers, 1, 10, TimeUnit.MILLISECONDS, 1);
+
+		try {
+			// when
+			service.transferMoney(TRANSACTION_ID, fromID, toID, Money.valueOf(10));
+			final CompletableFuture<State> transfer = pendingTransfers.register(TRANSACTION_ID);
+			final int inFlight = service.getInFlight();
+			assertThrows(ServiceOverloadedException.class, () -> service.createAccount("Other"));
+			finish.countDown();
+
+			// assert
+			assertThat(transfer.get(10, TimeUnit.SECONDS)).isEqualTo(State.SUCCEEDED);
+			assertThat(inFlight).isEqualTo(1);
+			assertThat(service.getInFlight()).isEqualTo(0);
+			assertThat(service.getRejected()).isEqualTo(1L);
+		} finally {
+			finish.countDown();
+			eventBus.shutdown(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void permitIsReleasedWhenTransferCannotBeIssued() {
+		// given
+		final AccountService delegate = mock(AccountService.class);
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+		final AdmissionControlledAccountService service = new AdmissionControlledAccountService(delegate,
+				pendingTransfers, 1, 10, TimeUnit.MILLISECONDS, 1);
+		doThrow(new IllegalStateException()).when(delegate).transferMoney(TRANSACTION_ID, FROM_ID, TO_ID,
+				Money.valueOf(10));
+
+		// when
+		assertThrows(IllegalStateException.class,
+				() -> service.transferMoney(TRANSACTION_ID, FROM_ID, TO_ID, Money.valueOf(10)));
+
+		// assert
+		assertThat(service.getInFlight()).isEqualTo(0);
+		assertThat(pendingTransfers.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void batchHoldsPermitUntilAllTransfersAreDone() throws Exception {
+		// given
+		final ShardedEventBus eventBus = new ShardedEventBus(1);
+		final PendingTransfers pendingTransfers = registerEventManager(eventBus);
+		final UUID fromID = saveAccount(eventBus);
+		final UUID toID = saveAccount(eventBus);
+		final UUID missingID = UUID.randomUUID();
+		final UUID otherTransactionID = UUID.randomUUID();
+		final CountDownLatch finish = blockShard(eventBus);
+		final AdmissionControlledAccountService service = new AdmissionControlledAccountService(
+				new AccountServiceImpl(eventBus), pendingTransfers, 1, 10, TimeUnit.MILLISECONDS, 1);
+
+		try {
+			// when
+			service.transferMoneyBatch(ImmutableList.of(
+					MoneyTransaction.builder().setTransactionID(TRANSACTION_ID).setFromID(fromID).setToID(toID)
+							.setValue(Money.valueOf(10)).build(),
+					MoneyTransaction.builder().setTransactionID(otherTransactionID).setFromID(fromID).setToID(missingID)
+							.setValue(Money.valueOf(5)).build()));
+			final CompletableFuture<State> transfer = pendingTransfers.register(TRANSACTION_ID);
+			final int inFlight = service.getInFlight();
+			finish.countDown();
+
+			// assert
+			assertThat(transfer.get(10, TimeUnit.SECONDS)).isEqualTo(State.SUCCEEDED);
+			assertThat(inFlight).isEqualTo(1);
+			assertThat(service.getInFlight()).isEqualTo(0);
+			assertThat(pendingTransfers.size()).isEqualTo(0);
+		} finally {
+			finish.countDown();
+			eventBus.shutdown(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void permitIsReleasedWhenCommandFails() {
+		// given
+		final AccountService delegate = mock(AccountService.class);
+		final AdmissionControlledAccountService service = new AdmissionControlledAccountService(delegate,
+				new PendingTransfers(), 1, 10,
+				TimeUnit.MILLISECONDS, 1);
+		when(delegate.createAccount("Failing")).thenThrow(new IllegalStateException());
+
+		// when
+		assertThrows(IllegalStateException.class, () -> service.createAccount("Failing"));
+		service.createAccount("Other");
+
+		// assert
+		assertThat(service.getInFlight()).isEqualTo(0);
+		assertThat(service.getRejected()).isEqualTo(0L);
+	}
+
+	private static PendingTransfers registerEventManager(final EventBus eventBus) {
+		final AccountEventStorage eventStorage = new AccountEventStorage();
+		final PendingTransfers pendingTransfers = new PendingTransfers();
+		eventBus.register(new EventManager(eventBus, eventStorage, new AccountProjection(eventStorage),
+				new AccountLocks(16), pendingTransfers, new TransactionIndex()));
+		return pendingTransfers;
+	}
+
+	private static UUID saveAccount(final ShardedEventBus eventBus) {
+		final UUID aggregateID = UUID.randomUUID();
+		eventBus.post(new AccountCreatedEvent(aggregateID, "Account"));
+		return aggregateID;
+	}
+
+	/**
+	 * Keeps the only shard busy, so events posted next stay queued until the
+	 * returned latch is counted down.
+	 */
+	private static CountDownLatch blockShard(final ShardedEventBus eventBus) {
+		final CountDownLatch finish = new CountDownLatch(1);
+		final UUID blockingID = UUID.randomUUID();
+		eventBus.register(new Object() {
+			@Subscribe
+			public void handle(final AccountCreatedEvent event) throws InterruptedException {
+				if (event.getAggregateID().equals(blockingID)) {
+					finish.await();
+				}
+			}
+		});
+		eventBus.post(new AccountCreatedEvent(blockingID, "Blocking"));
+		return finish;
+	}
+}
@@ -0,0 +1,165 @@
+package com.al.mt.utils;
+
+import static com.al.mt.utils.Constants.FIRST_ACCOUT_FULL_NAME;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.al.mt.aggregates.AccountAggregate;
+import com.al.mt.aggregates.AccountEventStorage;
+import com.al.mt.aggregates.TransactionIndex;
+import com.al.mt.enums.Reason;
+import com.al.mt.enums.State;
+import com.al.mt.enums.Status;
+import com.al.mt.enums.Type;
+import com.al.mt.events.AccountCreatedEvent;
+import com.al.mt.events.AccountCreditedEvent;
+import com.al.mt.events.AccountDebitedEvent;
+import com.al.mt.events.MoneyTransferCancelled;
+import com.al.mt.events.MoneyTransferSucceeded;
+import com.al.mt.events.MoneyTransferredEvent;
+import com.al.mt.model.APIResponse;
+import com.al.mt.model.Account;
+import com.al.mt.model.Link;
+import com.al.mt.model.Money;
+import com.al.mt.model.MoneyTransaction;
+import com.al.mt.model.Page;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+public class ApiTypeAdapterFactoryTest {
+	private static final Gson REFLECTIVE_GSON = new Gson();
+	private static final UUID FROM_ID = UUID.randomUUID();
+	private static final UUID TO_ID = UUID.randomUUID();
+	private static final UUID SUCCEEDED_ID = UUID.randomUUID();
+	private static final UUID CANCELLED_ID = UUID.randomUUID();
+	private static final UUID CREDITED_ID = UUID.randomUUID();
+
+	private static AccountAggregate aggregate() {
+		return AccountEventStorage.recreate(ImmutableList.of(
+				new AccountCreatedEvent(FROM_ID, "<Full> & \"Name\""),
+				new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, SUCCEEDED_ID, Money.valueOf(10)),
+				new AccountDebitedEvent(FROM_ID, FROM_ID, TO_ID, SUCCEEDED_ID, Money.valueOf(10)),
+				new MoneyTransferSucceeded(FROM_ID, FROM_ID, TO_ID, SUCCEEDED_ID, Money.valueOf(10)),
+				new MoneyTransferredEvent(FROM_ID, FROM_ID, TO_ID, CANCELLED_ID, Money.valueOf(2000)),
+				new MoneyTransferCancelled(FROM_ID, FROM_ID, TO_ID, CANCELLED_ID, Money.valueOf(2000),
+						Reason.BALANCE_TOO_LOW),
+				new AccountCreditedEvent(FROM_ID, TO_ID, FROM_ID, CREDITED_ID, Money.of(new BigDecimal("0.01")))));
+	}
+
+	@Test
+	public void accountsAreWrittenAsByReflection() {
+		// given
+		final AccountAggregate aggregate = aggregate();
+		final APIResponse response = APIResponse.builder()
+				.setStatus(Status.OK)
+				.setData(ImmutableList.of(Account.from(aggregate),
+						Account.from(aggregate, ImmutableSet.of("accountNumber", "balance"))))
+				.setLinks(ImmutableList.of(Link.getLinkForNextAccounts(FROM_ID, 2, "accountNumber,balance")))
+				.build();
+
+		// when
+		final String json = JsonUtils.toJson(response);
+
+		// assert
+		assertThat(json).isEqualTo(REFLECTIVE_GSON.toJson(response));
+		assertThat(JsonUtils.toJson(aggregate.getDomainEvents()))
+				.isEqualTo(REFLECTIVE_GSON.toJson(aggregate.getDomainEvents()));
+		final TransactionIndex transactionIndex = new TransactionIndex();
+		transactionIndex.applyAll(aggregate.getDomainEvents());
+		assertThat(JsonUtils.toJson(transactionIndex.get(CANCELLED_ID)))
+				.isEqualTo(REFLECTIVE_GSON.toJson(transactionIndex.get(CANCELLED_ID)));
+	}
+
+	@Test
+	public void pagesAreWrittenAsListsWhileTheyAreRead() {
+		// given
+		final ImmutableList<Account> accounts = ImmutableList.of(Account.from(aggregate()),
+				Account.from(aggregate(), ImmutableSet.of("accountNumber")),
+				Account.from(aggregate(), ImmutableSet.of("balance")));
+		final Page<Account> page = new Page<>(accounts.iterator(), 2);
+		final APIResponse response = APIResponse.builder()
+				.setStatus(Status.OK)
+				.setData(page)
+				.setLinksAfterData(() -> page.isFull()
+						? ImmutableList.of(Link.getLinkForNextAccounts(page.getLast().getAccountNumber(), 2, null))
+						: ImmutableList.of())
+				.build();
+
+		// when
+		final String json = JsonUtils.toJson(response);
+
+		// assert
+		assertThat(json).isEqualTo(REFLECTIVE_GSON.toJson(APIResponse.builder()
+				.setStatus(Status.OK)
+				.setData(accounts.subList(0, 2))
+				.setLinks(ImmutableList.of(Link.getLinkForNextAccounts(FROM_ID, 2, null)))
+				.build()));
+		assertThat(page.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void pagesAreReadAsLists() {
+		// given
+		final ImmutableList<Account> accounts = ImmutableList.of(
+				Account.from(aggregate(), ImmutableSet.of("accountNumber", "balance")),
+				Account.from(aggregate(), ImmutableSet.of("accountNumber")));
+		final String json = JsonUtils.toJson(new Page<>(accounts.iterator(), 2));
+
+		// when
+		final Page<Account> page = JsonUtils.GSON.fromJson(json, new TypeToken<Page<Account>>() {
+		}.getType());
+		final Page<?> rawPage = JsonUtils.GSON.fromJson(json, Page.class);
+
+		// assert
+		assertThat(JsonUtils.toJson(ImmutableList.copyOf(page))).isEqualTo(JsonUtils.toJson(accounts));
+		assertThat(page.isFull()).isTrue();
+		assertThat(page.getLast().getAccountNumber()).isEqualTo(FROM_ID);
+		assertThat(ImmutableList.copyOf(rawPage)).hasSize(2);
+		assertThat(JsonUtils.GSON.fromJson("null", Page.class)).isNull();
+	}
+
+	@Test
+	public void datesAreWrittenAsByReflection() {
+		// given
+		final long start = System.currentTimeMillis();
+
+		for (int hours = 0; hours < 24 * 400; hours += 7) {
+			// when
+			final Date date = new Date(start + TimeUnit.HOURS.toMillis(hours) + hours);
+			final MoneyTransaction transaction = MoneyTransaction.builder()
+					.setTransactionID(SUCCEEDED_ID)
+					.setValue(Money.valueOf(1))
+					.setState(State.PENDING)
+					.setType(Type.OUTGOING)
+					.setCreatedAt(date)
+					.build();
+
+			// assert
+			assertThat(JsonUtils.toJson(transaction)).isEqualTo(REFLECTIVE_GSON.toJson(transaction));
+		}
+	}
+
+	@Test
+	public void responsesAreReadByReflection() {
+		// given
+		final String json = REFLECTIVE_GSON.toJson(APIResponse.builder()
+				.setStatus(Status.ERROR)
+				.setMessage(FIRST_ACCOUT_FULL_NAME)
+				.setLinks(Link.getLinksForAccounts())
+				.build());
+
+		// when
+		final APIResponse response = JsonUtils.GSON.fromJson(json, APIResponse.class);
+
+		// assert
+		assertThat(JsonUtils.toJson(response)).isEqualTo(json);
+	}
+}
@@ -0,0 +1,76 @@
+package com.al.mt.utils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadPoolTest {
+
+	@Test
+	public void requestsRunInVirtualThreads() throws Exception {
+		// given
+		final CompletableFuture<Thread> requestThread = new CompletableFuture<>();
+		final Server server = new Server(new VirtualThreadPool(VirtualThreads.factory("http-")));
+		final ServerConnector connector = new ServerConnector(server);
+		server.addConnector(connector);
+		server.setHandler(new AbstractHandler() {
+			@Override
+			public void handle(final String target, final Request baseRequest, final HttpServletRequest request,
+					final HttpServletResponse response) {
+				requestThread.complete(Thread.currentThread());
+				baseRequest.setHandled(true);
+			}
+		});
+		server.start();
+
+		try {
+			// when
+			final HttpURLConnection connection = (HttpURLConnection) URI
+					.create(String.format("http://localhost:%d/", connector.getLocalPort())).toURL().openConnection();
+			final int status = connection.getResponseCode();
+			connection.disconnect();
+
+			// assert
+			assertThat(status).isEqualTo(HttpURLConnection.HTTP_OK);
+			assertThat(requestThread.get(1, TimeUnit.SECONDS).isVirtual()).isTrue();
+			assertThat(requestThread.get().getName()).startsWith("http-");
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void onlyJobsSubmittedFromThePoolRunInRequestThreads() throws Exception {
+		// given
+		final VirtualThreadPool pool = new VirtualThreadPool(VirtualThreads.factory("request-"));
+		final CompletableFuture<Thread> outer = new CompletableFuture<>();
+		final CompletableFuture<Thread> inner = new CompletableFuture<>();
+		pool.start();
+
+		// when
+		pool.execute(() -> {
+			outer.complete(Thread.currentThread());
+			pool.execute(() -> inner.complete(Thread.currentThread()));
+		});
+
+		// assert
+		assertThat(outer.get(1, TimeUnit.SECONDS).getName()).startsWith("jetty-");
+		assertThat(outer.get().isVirtual()).isFalse();
+		assertThat(inner.get(1, TimeUnit.SECONDS).getName()).startsWith("request-");
+		assertThat(inner.get().isVirtual()).isTrue();
+		pool.stop();
+		pool.join();
+	}
+}